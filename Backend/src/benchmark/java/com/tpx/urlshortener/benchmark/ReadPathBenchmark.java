@@ -0,0 +1,135 @@
+package com.tpx.urlshortener.benchmark;
+
+import com.tpx.urlshortener.BackendApplication;
+import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.repository.UrlViewRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Compares the JPA repository with the JDBC projection reads on the two hot read paths: a
+ * redirect lookup by alias and the full GET /urls listing. Runs in process against an in-memory
+ * H2 and reports latency percentiles and bytes allocated per operation on the calling thread.
+ *
+ * Usage: ReadPathBenchmark [aliases] [lookups]
+ */
+public class ReadPathBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int LIST_ROUNDS = 20;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int aliases = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:read-bench;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=32",
+                        "--spring.h2.console.enabled=false",
+                        "--urlshortener.warm-restart.enabled=false",
+                        "--urlshortener.tiering.enabled=false",
+                        "--urlshortener.search.enabled=false",
+                        "--urlshortener.redirect-log.enabled=false",
+                        "--urlshortener.purge.enabled=false",
+                        "--urlshortener.compaction.enabled=false")) {
+            new ReadPathBenchmark().run(context.getBean(UrlMappingRepository.class),
+                    context.getBean(UrlViewRepository.class), aliases, lookups);
+        }
+    }
+
+    private void run(UrlMappingRepository repository, UrlViewRepository urlViews, int aliases, int lookups) {
+        List<String> seeded = seed(repository, aliases);
+        String[] keys = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            keys[i] = seeded.get(ThreadLocalRandom.current().nextInt(seeded.size()));
+        }
+
+        System.out.printf("%d aliases, %d lookups, %d list rounds%n", aliases, lookups, LIST_ROUNDS);
+        System.out.printf("%-18s %10s %10s %10s %14s%n", "path", "p50 us", "p99 us", "p99.9 us", "bytes/op");
+        // Each path runs once untimed so the JIT, both query caches and the pool are warm
+        measureLookups("jpa findByAlias", keys,
+                alias -> repository.findByAlias(alias).map(UrlMapping::getFullUrl).orElse(null), true);
+        measureLookups("jdbc findFullUrl", keys, urlViews::findFullUrl, true);
+        measureLookups("jpa findByAlias", keys,
+                alias -> repository.findByAlias(alias).map(UrlMapping::getFullUrl).orElse(null), false);
+        measureLookups("jdbc findFullUrl", keys, urlViews::findFullUrl, false);
+
+        measureList("jpa findAll", repository::findAll, aliases, true);
+        measureList("jdbc findAll", urlViews::findAll, aliases, true);
+        measureList("jpa findAll", repository::findAll, aliases, false);
+        measureList("jdbc findAll", urlViews::findAll, aliases, false);
+    }
+
+    private static List<String> seed(UrlMappingRepository repository, int aliases) {
+        List<String> seeded = new ArrayList<>(aliases);
+        List<UrlMapping> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < aliases; i++) {
+            String alias = "bench-" + Integer.toString(i, 36);
+            batch.add(new UrlMapping(alias, "https://example.com/articles/" + i + "/some-long-article-title"));
+            seeded.add(alias);
+            if (batch.size() == SEED_BATCH_SIZE || i == aliases - 1) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        return seeded;
+    }
+
+    private void measureLookups(String label, String[] keys, Function<String, String> lookup, boolean warmup) {
+        long[] nanos = new long[keys.length];
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            String fullUrl = lookup.apply(keys[i]);
+            nanos[i] = System.nanoTime() - start;
+            if (fullUrl == null) {
+                throw new IllegalStateException("Seeded alias not found: " + keys[i]);
+            }
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (!warmup) {
+            report(label, nanos, allocated / keys.length);
+        }
+    }
+
+    private void measureList(String label, Supplier<List<?>> list, int aliases, boolean warmup) {
+        long[] nanos = new long[LIST_ROUNDS];
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < LIST_ROUNDS; i++) {
+            long start = System.nanoTime();
+            int size = list.get().size();
+            nanos[i] = System.nanoTime() - start;
+            if (size != aliases) {
+                throw new IllegalStateException("Expected " + aliases + " rows, got " + size);
+            }
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        if (!warmup) {
+            report(label, nanos, allocated / LIST_ROUNDS);
+        }
+    }
+
+    private static void report(String label, long[] nanos, long bytesPerOp) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-18s %10.1f %10.1f %10.1f %14d%n", label,
+                percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3, percentile(sorted, 0.999) / 1e3,
+                bytesPerOp);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
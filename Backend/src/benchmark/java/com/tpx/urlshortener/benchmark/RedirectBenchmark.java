@@ -0,0 +1,274 @@
+package com.tpx.urlshortener.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares redirect throughput and latency of the Spring MVC endpoint and the NIO redirect
+ * listener on the same process and dataset. Each client thread keeps one connection open and
+ * sends GET /{alias} for random seeded aliases, one request at a time.
+ *
+ * Usage: RedirectBenchmark &lt;java&gt; &lt;boot jar&gt; [aliases] [threads] [seconds]
+ */
+public class RedirectBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final int BATCH_SIZE = 500;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: RedirectBenchmark <java> <boot jar> [aliases] [threads] [seconds]");
+            System.exit(2);
+        }
+        int aliases = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        new RedirectBenchmark().run(args[0], Path.of(args[1]), aliases, threads, seconds);
+    }
+
+    private void run(String java, Path bootJar, int aliases, int threads, int seconds) throws Exception {
+        Path dataDir = Files.createTempDirectory("redirect-bench");
+        int springPort = freePort();
+        int listenerPort = freePort();
+        List<String> command = List.of(java, "-jar", bootJar.toAbsolutePath().toString(),
+                "--server.port=" + springPort,
+                "--spring.datasource.url=jdbc:h2:file:" + dataDir.resolve("urlshortener").toAbsolutePath(),
+                "--urlshortener.warm-restart.enabled=false",
+                "--urlshortener.redirect-log.directory=" + dataDir.resolve("redirect-log").toAbsolutePath(),
+                "--urlshortener.redirect-listener.enabled=true",
+                "--urlshortener.redirect-listener.port=" + listenerPort,
+                "--urlshortener.redirect-listener.fallback-url=http://localhost:" + springPort);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            awaitReady(springPort);
+            String[] seeded = seed(springPort, aliases);
+            System.out.printf("Seeded %d aliases; %d client threads, %d s per run%n", seeded.length, threads, seconds);
+            // The first pass warms the JIT and the redirect cache for both front ends
+            measure(springPort, seeded, threads, Math.max(1, seconds / 4));
+            measure(listenerPort, seeded, threads, Math.max(1, seconds / 4));
+            report("spring-mvc", measure(springPort, seeded, threads, seconds), seconds);
+            report("nio-listener", measure(listenerPort, seeded, threads, seconds), seconds);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void awaitReady(int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness"))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Timed out waiting for the application to become ready");
+    }
+
+    private String[] seed(int port, int count) throws Exception {
+        String prefix = "bench-" + Long.toString(System.nanoTime(), 36) + "-";
+        String[] aliases = new String[count];
+        for (int start = 0; start < count; start += BATCH_SIZE) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < Math.min(count, start + BATCH_SIZE); i++) {
+                aliases[i] = prefix + i;
+                body.append(i > start ? "," : "")
+                        .append("{\"fullUrl\":\"https://example.com/articles/").append(i)
+                        .append("\",\"customAlias\":\"").append(aliases[i]).append("\"}");
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/shorten/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append(']').toString()))
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 200) {
+                throw new IllegalStateException("Seeding failed with status " + status);
+            }
+        }
+        return aliases;
+    }
+
+    private static Result measure(int port, String[] aliases, int threads, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Client benchClient = new Client(port, aliases, deadline);
+            benchClient.start();
+            clients.add(benchClient);
+        }
+        int total = 0;
+        long errors = 0;
+        for (Client benchClient : clients) {
+            benchClient.join();
+            if (benchClient.failure != null) {
+                throw new IllegalStateException("Client failed", benchClient.failure);
+            }
+            total += benchClient.count;
+            errors += benchClient.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Client benchClient : clients) {
+            System.arraycopy(benchClient.latencies, 0, latencies, offset, benchClient.count);
+            offset += benchClient.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors);
+    }
+
+    private static void report(String mode, Result result, int seconds) {
+        long[] latencies = result.latencies;
+        if (latencies.length == 0) {
+            System.out.printf("%-13s no successful redirects, %d errors%n", mode, result.errors);
+            return;
+        }
+        System.out.printf("%-13s %9.0f redirects/s  latency us: p50=%d p99=%d p99.9=%d max=%d  errors=%d%n",
+                mode, (double) latencies.length / seconds,
+                micros(percentile(latencies, 0.50)), micros(percentile(latencies, 0.99)),
+                micros(percentile(latencies, 0.999)), micros(latencies[latencies.length - 1]), result.errors);
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Keep-alive HTTP/1.1 client on a raw socket, so that client overhead stays small and equal
+     * for both front ends.
+     */
+    private static final class Client extends Thread {
+        private final int port;
+        private final String[] aliases;
+        private final long deadline;
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private long errors;
+        private Exception failure;
+
+        private Client(int port, String[] aliases, long deadline) {
+            this.port = port;
+            this.aliases = aliases;
+            this.deadline = deadline;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.setTcpNoDelay(true);
+                OutputStream out = socket.getOutputStream();
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                long now;
+                while ((now = System.nanoTime()) < deadline) {
+                    String alias = aliases[random.nextInt(aliases.length)];
+                    out.write(("GET /" + alias + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                            .getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    if (readResponse(in) != 302) {
+                        // For example a 503 from the concurrency limiter in front of Spring MVC
+                        errors++;
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - now;
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+
+        // Reads one response, skipping its body, and returns the status code
+        private static int readResponse(InputStream in) throws IOException {
+            String statusLine = readLine(in);
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            long contentLength = 0;
+            boolean chunked = false;
+            String line;
+            while (!(line = readLine(in)).isEmpty()) {
+                String lower = line.toLowerCase();
+                if (lower.startsWith("content-length:")) {
+                    contentLength = Long.parseLong(lower.substring("content-length:".length()).trim());
+                } else if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                    chunked = true;
+                }
+            }
+            if (chunked) {
+                long size;
+                while ((size = Long.parseLong(readLine(in).split(";")[0].trim(), 16)) > 0) {
+                    in.skipNBytes(size);
+                    readLine(in);
+                }
+                while (!readLine(in).isEmpty()) {
+                    // Trailers
+                }
+            } else {
+                in.skipNBytes(contentLength);
+            }
+            return status;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0) {
+                    throw new IOException("Connection closed");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.tpx.urlshortener.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpx.urlshortener.config.BinaryFormatConfig;
+import com.tpx.urlshortener.dto.ShortenRequest;
+import com.tpx.urlshortener.dto.UrlItem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares JSON with the negotiated binary formats on a GET /urls response and a bulk
+ * shorten request: encoded size and CPU time to encode and decode {@code items} entries.
+ *
+ * Usage: SerializationBenchmark [items]
+ */
+public class SerializationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private static final TypeReference<List<UrlItem>> URL_ITEMS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<ShortenRequest>> SHORTEN_REQUESTS = new TypeReference<>() {
+    };
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        new SerializationBenchmark().run(items);
+    }
+
+    private void run(int items) throws Exception {
+        List<UrlItem> urlItems = new ArrayList<>(items);
+        List<ShortenRequest> shortenRequests = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String alias = "alias-" + Integer.toString(i, 36);
+            String fullUrl = "https://example.com/articles/" + i + "/some-long-article-title?utm_source=bench";
+            urlItems.add(new UrlItem(alias, fullUrl, "http://localhost:8080/" + alias));
+            ShortenRequest request = new ShortenRequest();
+            request.setFullUrl(fullUrl);
+            request.setCustomAlias(alias);
+            shortenRequests.add(request);
+        }
+
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", new ObjectMapper());
+        formats.put("smile", new ObjectMapper(BinaryFormatConfig.smileFactory()));
+        formats.put("cbor", new ObjectMapper(BinaryFormatConfig.cborFactory()));
+
+        System.out.printf("%d items, CPU time per round (median of %d)%n", items, MEASURED_ROUNDS);
+        System.out.printf("%-22s %12s %12s %12s%n", "payload/format", "bytes", "encode ms", "decode ms");
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            report("list/" + format.getKey(), format.getValue(), urlItems, URL_ITEMS);
+        }
+        for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+            report("batch/" + format.getKey(), format.getValue(), shortenRequests, SHORTEN_REQUESTS);
+        }
+    }
+
+    private <T> void report(String label, ObjectMapper mapper, List<T> payload, TypeReference<List<T>> type)
+            throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(payload);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.writeValue(OutputStream.nullOutputStream(), payload);
+            mapper.readValue(encoded, type);
+        }
+
+        long[] encodeNanos = new long[MEASURED_ROUNDS];
+        long[] decodeNanos = new long[MEASURED_ROUNDS];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            out.reset();
+            long start = threads.getCurrentThreadCpuTime();
+            mapper.writeValue(out, payload);
+            encodeNanos[i] = threads.getCurrentThreadCpuTime() - start;
+
+            start = threads.getCurrentThreadCpuTime();
+            List<T> decoded = mapper.readValue(encoded, type);
+            decodeNanos[i] = threads.getCurrentThreadCpuTime() - start;
+            if (decoded.size() != payload.size()) {
+                throw new IllegalStateException("Round trip lost items for " + label);
+            }
+        }
+        System.out.printf("%-22s %12d %12.2f %12.2f%n", label, encoded.length,
+                median(encodeNanos) / 1e6, median(decodeNanos) / 1e6);
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
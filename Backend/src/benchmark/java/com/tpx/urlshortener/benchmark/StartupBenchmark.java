@@ -0,0 +1,162 @@
+package com.tpx.urlshortener.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time from process launch to the first successful (302) GET /{alias} for the
+ * default run mode and the startup-optimized one (fast profile + AOT + AppCDS).
+ *
+ * Usage: StartupBenchmark &lt;java&gt; &lt;boot jar&gt; &lt;extracted jar dir&gt; &lt;cds archive&gt; [runs]
+ */
+public class StartupBenchmark {
+
+    private static final String ALIAS = "startup-bench";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: StartupBenchmark <java> <boot jar> <extracted jar dir> <cds archive> [runs]");
+            System.exit(2);
+        }
+        int runs = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        new StartupBenchmark().run(args[0], Path.of(args[1]), Path.of(args[2]), Path.of(args[3]), runs);
+    }
+
+    private void run(String java, Path bootJar, Path extractedDir, Path cdsArchive, int runs) throws Exception {
+        Path dataDir = Files.createTempDirectory("startup-bench");
+        String jdbcUrl = "jdbc:h2:file:" + dataDir.resolve("urlshortener").toAbsolutePath()
+                + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        List<String> common = List.of(
+                "--spring.datasource.url=" + jdbcUrl,
+                "--urlshortener.warm-restart.snapshot-path=" + dataDir.resolve("hot-redirects.snapshot").toAbsolutePath());
+
+        // Create the schema and seed one alias with the default mode
+        seed(java, bootJar, common);
+
+        List<String> defaultMode = new ArrayList<>(List.of(java, "-jar", bootJar.toAbsolutePath().toString()));
+        defaultMode.addAll(common);
+
+        Path extractedJar = extractedDir.resolve(bootJar.getFileName());
+        List<String> optimizedMode = new ArrayList<>(List.of(java,
+                "-XX:SharedArchiveFile=" + cdsArchive.toAbsolutePath(),
+                "-Dspring.aot.enabled=true",
+                "-jar", extractedJar.getFileName().toString(),
+                "--spring.profiles.active=fast"));
+        optimizedMode.addAll(common);
+
+        report("default", measure(defaultMode, null, runs));
+        report("fast+aot+cds", measure(optimizedMode, extractedDir.toFile(), runs));
+    }
+
+    private void seed(String java, Path bootJar, List<String> common) throws Exception {
+        int port = freePort();
+        Process process = start(withPort(List.of(java, "-jar", bootJar.toAbsolutePath().toString()), common, port), null);
+        try {
+            awaitStatus(port, "/actuator/health/readiness", 200);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/shorten"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"fullUrl\":\"https://example.com/startup\",\"customAlias\":\"" + ALIAS + "\"}"))
+                    .build();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != 201 && status != 400) {
+                throw new IllegalStateException("Seeding failed with status " + status);
+            }
+        } finally {
+            stop(process);
+        }
+    }
+
+    private List<Long> measure(List<String> command, File workingDir, int runs) throws Exception {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            long start = System.nanoTime();
+            Process process = start(withPort(command, List.of(), port), workingDir);
+            try {
+                awaitStatus(port, "/" + ALIAS, 302);
+                samples.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                stop(process);
+            }
+        }
+        return samples;
+    }
+
+    private void awaitStatus(int port, String path, int expected) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == expected) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Timed out waiting for " + expected + " from " + path);
+    }
+
+    private static List<String> withPort(List<String> command, List<String> extra, int port) {
+        List<String> result = new ArrayList<>(command);
+        result.addAll(extra);
+        result.add("--server.port=" + port);
+        return result;
+    }
+
+    private static Process start(List<String> command, File workingDir) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        if (workingDir != null) {
+            builder.directory(workingDir);
+        }
+        return builder.start();
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void report(String mode, List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        long sum = 0;
+        for (long sample : sorted) {
+            sum += sample;
+        }
+        System.out.printf("%-14s time-to-first-redirect ms: min=%d median=%d mean=%d max=%d samples=%s%n",
+                mode, sorted.get(0), sorted.get(sorted.size() / 2), sum / sorted.size(),
+                sorted.get(sorted.size() - 1), Arrays.toString(samples.toArray()));
+    }
+}
@@ -2,12 +2,20 @@ package com.tpx.urlshortener;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BackendApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(BackendApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(BackendApplication.class, args);
+        if (context.getEnvironment().acceptsProfiles(Profiles.of("migrate"))) {
+            // The schema was migrated while the context started; nothing else to do
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
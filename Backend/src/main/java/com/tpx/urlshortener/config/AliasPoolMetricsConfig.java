@@ -0,0 +1,39 @@
+package com.tpx.urlshortener.config;
+
+import com.tpx.urlshortener.service.AliasPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AliasPoolMetricsConfig {
+
+    @Bean
+    public MeterBinder aliasPoolMetrics(AliasPool pool,
+                                        @Value("${urlshortener.alias-pool.enabled:false}") boolean enabled) {
+        return registry -> {
+            if (!enabled) {
+                return;
+            }
+            Gauge.builder("urlshortener.alias-pool.depth", pool, AliasPool::getDepth)
+                    .description("Verified generated aliases waiting in the pool")
+                    .register(registry);
+            FunctionTimer.builder("urlshortener.alias-pool.refill", pool, AliasPool::getRefills,
+                            AliasPool::getRefillSeconds, TimeUnit.SECONDS)
+                    .description("Background refills of the alias pool")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.alias-pool.exhausted", pool, AliasPool::getExhausted)
+                    .description("Generated-alias requests that found the pool empty")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.alias-pool.skipped", pool, AliasPool::getSkipped)
+                    .description("Pool candidates dropped because the alias was already taken")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.tpx.urlshortener.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor})
+ * alongside JSON, selected through the usual Accept/Content-Type negotiation. JSON stays the
+ * default. Both encoders write each repeated field name once and refer back to it afterwards.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(smileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(cborFactory()).build());
+    }
+
+    public static SmileFactory smileFactory() {
+        return SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .build();
+    }
+
+    public static CBORFactory cborFactory() {
+        // Plain CBOR repeats every map key; string references (tag 256) back-reference them
+        return CBORFactory.builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.tpx.urlshortener.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpx.urlshortener.limiter.AdaptiveConcurrencyLimiter;
+import com.tpx.urlshortener.limiter.ConcurrencyLimitFilter;
+import com.tpx.urlshortener.limiter.RequestPriority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Not @ConditionalOnProperty: AOT would fix the outcome at build time, so the flag is read at runtime
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${urlshortener.concurrency.initial-limit:100}") int initialLimit,
+            @Value("${urlshortener.concurrency.min-limit:10}") int minLimit,
+            @Value("${urlshortener.concurrency.max-limit:1000}") int maxLimit,
+            @Value("${urlshortener.concurrency.rtt-tolerance:1.5}") double tolerance,
+            @Value("${urlshortener.concurrency.smoothing:0.2}") double smoothing,
+            @Value("${urlshortener.concurrency.window-ms:500}") long windowMillis,
+            @Value("${urlshortener.concurrency.min-window-samples:10}") int minWindowSamples,
+            @Value("${urlshortener.concurrency.low-priority-share:0.5}") double lowPriorityShare,
+            @Value("${urlshortener.concurrency.normal-priority-share:0.8}") double normalPriorityShare) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, smoothing,
+                windowMillis, minWindowSamples, lowPriorityShare, normalPriorityShare);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            @Value("${urlshortener.concurrency.enabled:true}") boolean enabled) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyLimiter limiter,
+                                               @Value("${urlshortener.concurrency.enabled:true}") boolean enabled) {
+        return registry -> {
+            if (!enabled) {
+                return;
+            }
+            Gauge.builder("urlshortener.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive in-flight request limit")
+                    .register(registry);
+            Gauge.builder("urlshortener.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted by the limiter")
+                    .register(registry);
+            for (RequestPriority priority : RequestPriority.values()) {
+                FunctionCounter.builder("urlshortener.concurrency.rejected", limiter, l -> l.getRejected(priority))
+                        .description("Requests shed with 503 by the concurrency limiter")
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(registry);
+            }
+        };
+    }
+}
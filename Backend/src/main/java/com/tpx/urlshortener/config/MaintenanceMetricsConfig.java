@@ -0,0 +1,24 @@
+package com.tpx.urlshortener.config;
+
+import com.tpx.urlshortener.maintenance.CompactionJob;
+import com.tpx.urlshortener.maintenance.PurgeJob;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MaintenanceMetricsConfig {
+
+    @Bean
+    public MeterBinder maintenanceMetrics(PurgeJob purgeJob, CompactionJob compactionJob) {
+        return registry -> {
+            FunctionCounter.builder("urlshortener.purge.rows", purgeJob, PurgeJob::getPurged)
+                    .description("Rows tombstoned by bulk deletes and then physically deleted")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.compaction.runs", compactionJob, CompactionJob::getRuns)
+                    .description("Database compactions run after purges")
+                    .register(registry);
+        };
+    }
+}
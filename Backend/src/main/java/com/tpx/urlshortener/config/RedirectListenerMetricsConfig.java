@@ -0,0 +1,34 @@
+package com.tpx.urlshortener.config;
+
+import com.tpx.urlshortener.fastpath.RedirectListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RedirectListenerMetricsConfig {
+
+    @Bean
+    public MeterBinder redirectListenerMetrics(
+            RedirectListener listener, @Value("${urlshortener.redirect-listener.enabled:false}") boolean enabled) {
+        return registry -> {
+            if (!enabled) {
+                return;
+            }
+            FunctionCounter.builder("urlshortener.redirect-listener.requests", listener, RedirectListener::getCacheHits)
+                    .description("Requests handled by the NIO redirect listener")
+                    .tag("result", "cache-hit")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.redirect-listener.requests", listener, RedirectListener::getCacheMisses)
+                    .description("Requests handled by the NIO redirect listener")
+                    .tag("result", "cache-miss")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.redirect-listener.requests", listener, RedirectListener::getFallbacks)
+                    .description("Requests handled by the NIO redirect listener")
+                    .tag("result", "fallback")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.tpx.urlshortener.config;
+
+import com.tpx.urlshortener.eventlog.RedirectEventLog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RedirectLogMetricsConfig {
+
+    @Bean
+    public MeterBinder redirectLogMetrics(RedirectEventLog redirectEventLog,
+                                          @Value("${urlshortener.redirect-log.enabled:true}") boolean enabled) {
+        return registry -> {
+            if (!enabled) {
+                return;
+            }
+            FunctionCounter.builder("urlshortener.redirect-log.written", redirectEventLog,
+                            RedirectEventLog::getWritten)
+                    .description("Redirect records written to log segments")
+                    .register(registry);
+            FunctionCounter.builder("urlshortener.redirect-log.dropped", redirectEventLog,
+                            RedirectEventLog::getDropped)
+                    .description("Redirect records dropped because the ring buffer was full")
+                    .register(registry);
+            Gauge.builder("urlshortener.redirect-log.pending", redirectEventLog, RedirectEventLog::getPending)
+                    .description("Redirect records in the ring buffer waiting for the writer")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.tpx.urlshortener.config;
+
+import com.tpx.urlshortener.replication.ReplicationManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReplicationMetricsConfig {
+
+    @Bean
+    public MeterBinder replicationMetrics(ReplicationManager replication,
+                                          @Value("${urlshortener.replication.enabled:false}") boolean enabled) {
+        return registry -> {
+            if (!enabled) {
+                return;
+            }
+            Gauge.builder("urlshortener.replication.leader", replication,
+                            r -> r.getRole() == ReplicationManager.Role.LEADER ? 1 : 0)
+                    .description("1 while this node is the replication leader")
+                    .register(registry);
+            Gauge.builder("urlshortener.replication.last.sequence", replication, ReplicationManager::getLastSequence)
+                    .description("Last sequence number in this node's replication log")
+                    .register(registry);
+            Gauge.builder("urlshortener.replication.lag.records", replication, ReplicationManager::getLagRecords)
+                    .description("Records the leader has logged that this follower has not applied yet")
+                    .register(registry);
+            Gauge.builder("urlshortener.replication.lag.seconds", replication, ReplicationManager::getLagSeconds)
+                    .description("Age of the newest applied record while this follower is behind")
+                    .register(registry);
+            Gauge.builder("urlshortener.replication.followers", replication, ReplicationManager::getFollowerCount)
+                    .description("Followers currently streaming from this leader")
+                    .register(registry);
+        };
+    }
+}
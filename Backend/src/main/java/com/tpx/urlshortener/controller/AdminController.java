@@ -0,0 +1,27 @@
+package com.tpx.urlshortener.controller;
+
+import com.tpx.urlshortener.dto.HotAlias;
+import com.tpx.urlshortener.service.HotKeyTracker;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public AdminController(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @GetMapping("/hot-aliases")
+    public ResponseEntity<List<HotAlias>> hotAliases(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(hotKeyTracker.topK(Math.max(1, Math.min(limit, hotKeyTracker.getTopK()))));
+    }
+}
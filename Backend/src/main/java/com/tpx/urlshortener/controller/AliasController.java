@@ -0,0 +1,42 @@
+package com.tpx.urlshortener.controller;
+
+import com.tpx.urlshortener.dto.AliasAvailability;
+import com.tpx.urlshortener.service.UrlService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+
+@RestController
+@RequestMapping("/aliases")
+public class AliasController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int SUGGESTION_COUNT = 5;
+
+    private final UrlService urlService;
+
+    public AliasController(UrlService urlService) {
+        this.urlService = urlService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<String>> search(@RequestParam(defaultValue = "") String prefix,
+                                               @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(urlService.findAliasesByPrefix(prefix, Math.min(limit, MAX_LIMIT)));
+    }
+
+    @GetMapping("/{alias}/available")
+    public ResponseEntity<AliasAvailability> available(@PathVariable String alias) {
+        boolean available = urlService.isAliasAvailable(alias);
+        List<String> suggestions = available
+                ? Collections.emptyList()
+                : urlService.suggestAliases(alias, SUGGESTION_COUNT);
+        return ResponseEntity.ok(new AliasAvailability(alias, available, suggestions));
+    }
+}
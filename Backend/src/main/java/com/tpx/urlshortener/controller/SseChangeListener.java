@@ -0,0 +1,47 @@
+package com.tpx.urlshortener.controller;
+
+import com.tpx.urlshortener.dto.UrlChangeEvent;
+import com.tpx.urlshortener.service.UrlChangeFeed;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+class SseChangeListener implements UrlChangeFeed.Listener {
+
+    static final String RESET = "reset";
+
+    private final SseEmitter emitter;
+    private final String shortUrlBase;
+
+    SseChangeListener(SseEmitter emitter, String shortUrlBase) {
+        this.emitter = emitter;
+        this.shortUrlBase = shortUrlBase;
+    }
+
+    @Override
+    public void onChange(String position, String type, String alias, String fullUrl) throws IOException {
+        String shortUrl = UrlChangeFeed.CREATED.equals(type) ? shortUrlBase + alias : null;
+        emitter.send(SseEmitter.event()
+                .id(position)
+                .name(type)
+                .data(new UrlChangeEvent(position, type, alias, fullUrl, shortUrl)));
+    }
+
+    @Override
+    public void onReset(String position) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(position)
+                .name(RESET)
+                .data(new UrlChangeEvent(position, RESET, null, null, null)));
+    }
+
+    @Override
+    public void onHeartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("keepalive"));
+    }
+
+    @Override
+    public void onClosed() {
+        emitter.complete();
+    }
+}
@@ -1,27 +1,61 @@
 package com.tpx.urlshortener.controller;
 
+import com.tpx.urlshortener.dto.BatchShortenResult;
+import com.tpx.urlshortener.dto.BulkDeleteRequest;
+import com.tpx.urlshortener.dto.BulkDeleteResponse;
 import com.tpx.urlshortener.dto.ShortenRequest;
 import com.tpx.urlshortener.dto.ShortenResponse;
 import com.tpx.urlshortener.dto.UrlItem;
+import com.tpx.urlshortener.dto.UrlSearchPage;
+import com.tpx.urlshortener.eventlog.RedirectEventLog;
+import com.tpx.urlshortener.exception.AliasAlreadyExistsException;
+import com.tpx.urlshortener.exception.AliasPoolExhaustedException;
+import com.tpx.urlshortener.exception.InvalidInputException;
 import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.search.UrlSearchResult;
+import com.tpx.urlshortener.service.HotKeyTracker;
+import com.tpx.urlshortener.service.UrlChangeFeed;
 import com.tpx.urlshortener.service.UrlService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 public class UrlController {
 
+    static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+    private static final int MAX_SEARCH_LIMIT = 500;
+
     private final UrlService urlService;
+    private final HotKeyTracker hotKeyTracker;
+    private final UrlChangeFeed urlChangeFeed;
+    private final RedirectEventLog redirectEventLog;
+    private final long changeStreamTimeoutMs;
+    private final int maxBatchSize;
+    private final int maxBulkDeleteAliases;
 
-    public UrlController(UrlService urlService) {
+    public UrlController(UrlService urlService, HotKeyTracker hotKeyTracker, UrlChangeFeed urlChangeFeed,
+                         RedirectEventLog redirectEventLog,
+                         @Value("${urlshortener.change-feed.stream-timeout-ms:1800000}") long changeStreamTimeoutMs,
+                         @Value("${urlshortener.batch.max-size:1000}") int maxBatchSize,
+                         @Value("${urlshortener.bulk-delete.max-aliases:100000}") int maxBulkDeleteAliases) {
         this.urlService = urlService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.urlChangeFeed = urlChangeFeed;
+        this.redirectEventLog = redirectEventLog;
+        this.changeStreamTimeoutMs = changeStreamTimeoutMs;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBulkDeleteAliases = maxBulkDeleteAliases;
     }
 
     @PostMapping("/shorten")
@@ -31,11 +65,38 @@ public class UrlController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new ShortenResponse(shortUrl));
     }
 
+    @PostMapping("/shorten/batch")
+    public ResponseEntity<List<BatchShortenResult>> shortenBatch(@RequestBody List<ShortenRequest> requests,
+                                                                 HttpServletRequest httpRequest) {
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidInputException("Batch size must not exceed " + maxBatchSize);
+        }
+        String shortUrlBase = buildShortUrl(httpRequest, "");
+        List<BatchShortenResult> results = new ArrayList<>(requests.size());
+        // Items are independent: one bad URL or taken alias does not fail the rest of the batch
+        for (ShortenRequest request : requests) {
+            if (request == null) {
+                results.add(new BatchShortenResult(null, null, "Request must not be null"));
+                continue;
+            }
+            try {
+                UrlMapping mapping = urlService.shorten(request.getFullUrl(), request.getCustomAlias());
+                results.add(new BatchShortenResult(mapping.getAlias(), shortUrlBase + mapping.getAlias(), null));
+            } catch (InvalidInputException | AliasAlreadyExistsException | AliasPoolExhaustedException e) {
+                results.add(new BatchShortenResult(request.getCustomAlias(), null, e.getMessage()));
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{alias}")
-    public ResponseEntity<Void> redirect(@PathVariable String alias) {
-        UrlMapping mapping = urlService.resolve(alias);
+    public ResponseEntity<Void> redirect(@PathVariable String alias, HttpServletRequest request) {
+        String location = urlService.resolveLocation(alias);
+        hotKeyTracker.record(alias);
+        redirectEventLog.record(alias, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT),
+                request.getHeader(HttpHeaders.REFERER));
         HttpHeaders headers = new HttpHeaders();
-        headers.setLocation(URI.create(mapping.getFullUrl()));
+        headers.setLocation(URI.create(location));
         return new ResponseEntity<>(headers, HttpStatus.FOUND);
     }
 
@@ -45,12 +106,62 @@ public class UrlController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping("/urls")
+    public ResponseEntity<BulkDeleteResponse> deleteBulk(@RequestBody BulkDeleteRequest request) {
+        List<String> aliases = request.getAliases();
+        if ((aliases == null) == (request.getCreatedBefore() == null)) {
+            throw new InvalidInputException("Exactly one of aliases and createdBefore is required");
+        }
+        int deleted;
+        if (aliases != null) {
+            if (aliases.isEmpty() || aliases.size() > maxBulkDeleteAliases) {
+                throw new InvalidInputException("aliases must contain 1 to " + maxBulkDeleteAliases + " entries");
+            }
+            deleted = urlService.deleteAll(aliases);
+        } else {
+            deleted = urlService.deleteCreatedBefore(request.getCreatedBefore());
+        }
+        return ResponseEntity.ok(new BulkDeleteResponse(deleted));
+    }
+
     @GetMapping("/urls")
     public ResponseEntity<List<UrlItem>> list(HttpServletRequest httpRequest) {
+        // Read before the table so a client resuming from it can only see changes twice, never miss one
+        String position = urlChangeFeed.currentPosition();
+        String shortUrlBase = buildShortUrl(httpRequest, "");
         List<UrlItem> items = urlService.listAll().stream()
-                .map(m -> new UrlItem(m.getAlias(), m.getFullUrl(), buildShortUrl(httpRequest, m.getAlias())))
+                .map(v -> new UrlItem(v.alias(), v.fullUrl(), shortUrlBase + v.alias()))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(items);
+        return ResponseEntity.ok()
+                .header(CHANGE_SEQUENCE_HEADER, position)
+                .body(items);
+    }
+
+    @GetMapping("/urls/search")
+    public ResponseEntity<UrlSearchPage> search(@RequestParam String q,
+                                                @RequestParam(required = false) Long cursor,
+                                                @RequestParam(defaultValue = "50") int limit,
+                                                HttpServletRequest httpRequest) {
+        UrlSearchResult result = urlService.search(q, cursor, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT)));
+        String shortUrlBase = buildShortUrl(httpRequest, "");
+        List<UrlItem> items = result.getMappings().stream()
+                .map(m -> new UrlItem(m.getAlias(), m.getFullUrl(), shortUrlBase + m.getAlias()))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new UrlSearchPage(items, result.getNextCursor()));
+    }
+
+    @GetMapping(path = "/urls/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                              @RequestParam(required = false) String since,
+                              HttpServletRequest httpRequest) {
+        SseEmitter emitter = new SseEmitter(changeStreamTimeoutMs);
+        String resumeFrom = lastEventId != null ? lastEventId : since;
+        UrlChangeFeed.Subscription subscription = urlChangeFeed.subscribe(resumeFrom,
+                new SseChangeListener(emitter, buildShortUrl(httpRequest, "")));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
     }
 
     private String buildShortUrl(HttpServletRequest request, String alias) {
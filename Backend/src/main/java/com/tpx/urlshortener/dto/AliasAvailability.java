@@ -0,0 +1,42 @@
+package com.tpx.urlshortener.dto;
+
+import java.util.List;
+
+public class AliasAvailability {
+    private String alias;
+    private boolean available;
+    private List<String> suggestions;
+
+    public AliasAvailability() {
+    }
+
+    public AliasAvailability(String alias, boolean available, List<String> suggestions) {
+        this.alias = alias;
+        this.available = available;
+        this.suggestions = suggestions;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public List<String> getSuggestions() {
+        return suggestions;
+    }
+
+    public void setSuggestions(List<String> suggestions) {
+        this.suggestions = suggestions;
+    }
+}
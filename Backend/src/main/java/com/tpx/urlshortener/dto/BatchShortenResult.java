@@ -0,0 +1,40 @@
+package com.tpx.urlshortener.dto;
+
+public class BatchShortenResult {
+    private String alias;
+    private String shortUrl;
+    private String error;
+
+    public BatchShortenResult() {
+    }
+
+    public BatchShortenResult(String alias, String shortUrl, String error) {
+        this.alias = alias;
+        this.shortUrl = shortUrl;
+        this.error = error;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tpx.urlshortener.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class BulkDeleteRequest {
+    private List<String> aliases;
+    private Instant createdBefore;
+
+    public BulkDeleteRequest() {
+    }
+
+    public BulkDeleteRequest(List<String> aliases, Instant createdBefore) {
+        this.aliases = aliases;
+        this.createdBefore = createdBefore;
+    }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    public void setAliases(List<String> aliases) {
+        this.aliases = aliases;
+    }
+
+    public Instant getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public void setCreatedBefore(Instant createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tpx.urlshortener.dto;
+
+public class BulkDeleteResponse {
+    private int deleted;
+
+    public BulkDeleteResponse() {
+    }
+
+    public BulkDeleteResponse(int deleted) {
+        this.deleted = deleted;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tpx.urlshortener.dto;
+
+public class HotAlias {
+    private String alias;
+    private double requestsPerSecond;
+
+    public HotAlias() {
+    }
+
+    public HotAlias(String alias, double requestsPerSecond) {
+        this.alias = alias;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+}
@@ -0,0 +1,60 @@
+package com.tpx.urlshortener.dto;
+
+public class UrlChangeEvent {
+    private String sequence;
+    private String type;
+    private String alias;
+    private String fullUrl;
+    private String shortUrl;
+
+    public UrlChangeEvent() {
+    }
+
+    public UrlChangeEvent(String sequence, String type, String alias, String fullUrl, String shortUrl) {
+        this.sequence = sequence;
+        this.type = type;
+        this.alias = alias;
+        this.fullUrl = fullUrl;
+        this.shortUrl = shortUrl;
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(String sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public void setFullUrl(String fullUrl) {
+        this.fullUrl = fullUrl;
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+}
@@ -0,0 +1,32 @@
+package com.tpx.urlshortener.dto;
+
+import java.util.List;
+
+public class UrlSearchPage {
+    private List<UrlItem> items;
+    private Long nextCursor;
+
+    public UrlSearchPage() {
+    }
+
+    public UrlSearchPage(List<UrlItem> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UrlItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UrlItem> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.tpx.urlshortener.eventlog;
+
+/**
+ * One redirect as read back from the redirect log. Client details are salted 64-bit hashes;
+ * zero means the request did not carry that header.
+ */
+public final class RedirectEvent {
+
+    private final String alias;
+    private final long timestampMillis;
+    private final long ipHash;
+    private final long userAgentHash;
+    private final long refererHash;
+
+    public RedirectEvent(String alias, long timestampMillis, long ipHash, long userAgentHash, long refererHash) {
+        this.alias = alias;
+        this.timestampMillis = timestampMillis;
+        this.ipHash = ipHash;
+        this.userAgentHash = userAgentHash;
+        this.refererHash = refererHash;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getIpHash() {
+        return ipHash;
+    }
+
+    public long getUserAgentHash() {
+        return userAgentHash;
+    }
+
+    public long getRefererHash() {
+        return refererHash;
+    }
+}
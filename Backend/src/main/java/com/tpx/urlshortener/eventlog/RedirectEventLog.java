@@ -0,0 +1,278 @@
+package com.tpx.urlshortener.eventlog;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records every redirect for billing and audit without touching the database.
+ *
+ * Request threads publish a fixed-size record into a memory-mapped {@link RedirectEventRing}
+ * and never block: when the ring is full the record is dropped and counted. A single writer
+ * thread drains the ring into gzip segments under {@code directory}, rotating them by record
+ * count and age, and only frees ring slots once their records have been flushed to the
+ * segment. After a write error the segment is cut back to its last released record, so the
+ * records retried from the ring are never in two segments. Client IP, user agent and referrer
+ * are stored as salted 64-bit hashes.
+ */
+@Component
+public class RedirectEventLog {
+
+    static final String RING_FILE = "ring.dat";
+    private static final Logger log = LoggerFactory.getLogger(RedirectEventLog.class);
+    private static final String PART_SUFFIX = ".part";
+    private static final int MAX_BATCH = 4096;
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Path directory;
+    private final long segmentRecords;
+    private final long segmentMaxAgeMillis;
+    private final long idleNanos;
+    private final long salt;
+    private final RedirectEventRing ring;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long written;
+    private volatile boolean running = true;
+
+    // Owned by the writer thread
+    private OutputStream segmentOut;
+    private FileChannel segmentChannel;
+    private Path segmentPart;
+    // File length after the last batch whose ring slots were released; 0 until the first one
+    private long segmentReleasedBytes;
+    private long segmentStartMillis;
+    private long segmentRecordCount;
+
+    public RedirectEventLog(@Value("${urlshortener.redirect-log.enabled:true}") boolean enabled,
+                            @Value("${urlshortener.redirect-log.directory:./data/redirect-log}") String directory,
+                            @Value("${urlshortener.redirect-log.ring-slots:65536}") int ringSlots,
+                            @Value("${urlshortener.redirect-log.segment-records:1000000}") long segmentRecords,
+                            @Value("${urlshortener.redirect-log.segment-max-age-ms:3600000}") long segmentMaxAgeMillis,
+                            @Value("${urlshortener.redirect-log.idle-poll-ms:5}") long idlePollMillis,
+                            @Value("${urlshortener.redirect-log.hash-salt:}") String hashSalt) {
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.segmentMaxAgeMillis = segmentMaxAgeMillis;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idlePollMillis);
+        this.salt = hash(hashSalt, 0);
+        if (!enabled) {
+            this.ring = null;
+            this.writer = null;
+            return;
+        }
+        try {
+            Files.createDirectories(this.directory);
+            sealLeftoverParts();
+            this.ring = RedirectEventRing.open(this.directory.resolve(RING_FILE), ringSlots);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open redirect log at " + directory, e);
+        }
+        if (ring.getLostOnRecovery() > 0) {
+            log.warn("{} redirect records were claimed but never published before the last shutdown",
+                    ring.getLostOnRecovery());
+        }
+        this.writer = new Thread(this::writeLoop, "redirect-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Publishes one redirect. Never blocks; a record that does not fit is dropped and counted.
+     */
+    public void record(String alias, String remoteAddress, String userAgent, String referer) {
+        if (ring == null) {
+            return;
+        }
+        if (alias.length() > RedirectEventRing.MAX_ALIAS_BYTES
+                || !ring.offer(alias, System.currentTimeMillis(), hash(remoteAddress, salt), hash(userAgent, salt),
+                hash(referer, salt))) {
+            dropped.increment();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getPending() {
+        return ring == null ? 0 : ring.getPending();
+    }
+
+    /**
+     * Stops the writer once it has drained what was published so far. Anything published later
+     * stays in the ring file and is written on the next start.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ring.close();
+    }
+
+    private void writeLoop() {
+        byte[] record = new byte[RedirectLogFormat.RECORD_BYTES];
+        long next = ring.head();
+        while (true) {
+            int batch = 0;
+            try {
+                while (batch < MAX_BATCH && (segmentOut == null || segmentRecordCount < segmentRecords)
+                        && ring.read(next, record)) {
+                    if (segmentOut == null) {
+                        startSegment(next);
+                    }
+                    segmentOut.write(record);
+                    segmentRecordCount++;
+                    next++;
+                    batch++;
+                }
+                if (batch > 0) {
+                    segmentOut.flush();
+                    segmentReleasedBytes = segmentChannel.position();
+                    ring.release(next);
+                    written += batch;
+                }
+                if (segmentOut != null && (segmentRecordCount >= segmentRecords
+                        || System.currentTimeMillis() - segmentStartMillis >= segmentMaxAgeMillis || !running)) {
+                    sealSegment();
+                }
+            } catch (IOException | RuntimeException e) {
+                // The unreleased records are read again from the ring into a fresh segment
+                log.warn("Writing redirect log segment {} failed", segmentPart, e);
+                abandonSegment();
+                next = ring.head();
+                LockSupport.parkNanos(RETRY_NANOS);
+                continue;
+            }
+            if (batch == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        segmentStartMillis = System.currentTimeMillis();
+        segmentRecordCount = 0;
+        segmentPart = directory.resolve(String.format("redirects-%013d-%019d", segmentStartMillis, firstSequence)
+                + RedirectLogFormat.SEGMENT_SUFFIX + PART_SUFFIX);
+        segmentReleasedBytes = 0;
+        segmentChannel = FileChannel.open(segmentPart, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        // Sync-flushing gzip makes each flushed batch readable even if the process dies mid-segment
+        segmentOut = new GZIPOutputStream(new BufferedOutputStream(Channels.newOutputStream(segmentChannel), 65536),
+                65536, true);
+        RedirectLogFormat.writeHeader(segmentOut);
+    }
+
+    private void sealSegment() throws IOException {
+        segmentOut.close();
+        segmentOut = null;
+        seal(segmentPart);
+    }
+
+    private void abandonSegment() {
+        if (segmentOut == null) {
+            return;
+        }
+        try {
+            segmentOut.close();
+        } catch (IOException e) {
+            log.debug("Closing abandoned redirect log segment failed", e);
+        }
+        try {
+            segmentChannel.close();
+        } catch (IOException e) {
+            log.debug("Closing abandoned redirect log segment failed", e);
+        }
+        segmentOut = null;
+        try {
+            truncateAbandoned(segmentPart, segmentReleasedBytes);
+        } catch (IOException e) {
+            log.warn("Cutting back abandoned redirect log segment {} failed", segmentPart, e);
+        }
+    }
+
+    /**
+     * Cuts an abandoned segment back to the end of its last released batch (a sync-flush
+     * boundary) and seals it, or deletes it when none of its records were released. Anything
+     * after that point is still in the ring and goes into the next segment.
+     */
+    static void truncateAbandoned(Path part, long releasedBytes) throws IOException {
+        if (releasedBytes == 0) {
+            Files.deleteIfExists(part);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            channel.truncate(releasedBytes);
+            channel.force(false);
+        }
+        seal(part);
+    }
+
+    // Segments left open by a crash still read back up to their last flushed batch
+    private void sealLeftoverParts() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path part : (Iterable<Path>) files.filter(path -> path.toString().endsWith(PART_SUFFIX))::iterator) {
+                seal(part);
+            }
+        }
+    }
+
+    private static void seal(Path part) throws IOException {
+        String name = part.getFileName().toString();
+        Path sealed = part.resolveSibling(name.substring(0, name.length() - PART_SUFFIX.length()));
+        Files.move(part, sealed, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // FNV-1a over the characters, then a 64-bit finalizer; zero is kept for a missing value
+    static long hash(String value, long seed) {
+        if (value == null) {
+            return 0;
+        }
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,208 @@
+package com.tpx.urlshortener.eventlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bounded multi-producer, single-consumer ring of fixed-size redirect records in a
+ * memory-mapped file, so that records published but not yet consumed survive a process crash.
+ *
+ * <pre>
+ * header: magic(int) version(int) slotBytes(int) capacity(int), head(long) at 64, tail(long) at 128
+ * slot:   stamp(long) timestamp(long) ipHash(long) userAgentHash(long) refererHash(long)
+ *         aliasLength(short) alias(ASCII, up to MAX_ALIAS_BYTES)
+ * </pre>
+ *
+ * Producers claim a sequence by CAS on {@code tail}, fill the slot and then publish it with a
+ * release store of {@code stamp = sequence + 1}. The consumer reads slots in order with acquire
+ * loads and releases them by advancing {@code head}. A producer never waits: if the ring is
+ * full the record is rejected and the caller counts the drop. Head and tail sit on their own
+ * cache lines so producers and the consumer do not contend on them.
+ */
+final class RedirectEventRing implements Closeable {
+
+    static final int SLOT_BYTES = 192;
+    static final int MAX_ALIAS_BYTES = SLOT_BYTES - 42;
+
+    private static final int MAGIC = 0x55524C45;
+    private static final int VERSION = 1;
+    private static final int HEAD_OFFSET = 64;
+    private static final int TAIL_OFFSET = 128;
+    private static final int DATA_OFFSET = 192;
+    private static final int TIMESTAMP = 8;
+    private static final int IP_HASH = 16;
+    private static final int USER_AGENT_HASH = 24;
+    private static final int REFERER_HASH = 32;
+    private static final int ALIAS_LENGTH = 40;
+    private static final int ALIAS = 42;
+    private static final int MAX_CAPACITY = 1 << 23;
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long mask;
+    private final long lostOnRecovery;
+
+    private RedirectEventRing(FileChannel channel, MappedByteBuffer buffer, int capacity, long lostOnRecovery) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1L;
+        this.lostOnRecovery = lostOnRecovery;
+    }
+
+    /**
+     * Maps the ring file, keeping the records a previous run published but did not consume.
+     * A ring written with a different layout or capacity is discarded.
+     */
+    static RedirectEventRing open(Path path, int capacity) throws IOException {
+        if (Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two up to " + MAX_CAPACITY
+                    + ": " + capacity);
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        long size = DATA_OFFSET + (long) capacity * SLOT_BYTES;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean reuse = channel.size() == size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            reuse = reuse && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                    && buffer.getInt(8) == SLOT_BYTES && buffer.getInt(12) == capacity;
+            if (!reuse) {
+                for (int i = 0; i < DATA_OFFSET; i += Long.BYTES) {
+                    buffer.putLong(i, 0);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, SLOT_BYTES);
+                buffer.putInt(12, capacity);
+                // Stamps are sequence + 1, so stale slots from an old ring could look published
+                for (long offset = DATA_OFFSET; offset < size; offset += SLOT_BYTES) {
+                    LONG.set(buffer, (int) offset, 0L);
+                }
+            }
+            return new RedirectEventRing(channel, buffer, capacity, recoverTail(buffer, capacity));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Records claimed but never published by a crashed process leave a hole; resume before it
+    private static long recoverTail(MappedByteBuffer buffer, int capacity) {
+        long head = (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+        long tail = (long) LONG.getVolatile(buffer, TAIL_OFFSET);
+        long published = head;
+        while (published < tail
+                && (long) LONG.getVolatile(buffer, slotOffset(published, capacity - 1L)) == published + 1) {
+            published++;
+        }
+        LONG.setVolatile(buffer, TAIL_OFFSET, published);
+        return tail - published;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Records claimed by a previous process that never published them.
+     */
+    long getLostOnRecovery() {
+        return lostOnRecovery;
+    }
+
+    long getPending() {
+        return (long) LONG.getVolatile(buffer, TAIL_OFFSET) - (long) LONG.getVolatile(buffer, HEAD_OFFSET);
+    }
+
+    /**
+     * Publishes one record; returns false without blocking if the ring is full. The alias must
+     * be ASCII and at most {@link #MAX_ALIAS_BYTES} long.
+     */
+    boolean offer(String alias, long timestampMillis, long ipHash, long userAgentHash, long refererHash) {
+        long sequence;
+        do {
+            sequence = (long) LONG.getVolatile(buffer, TAIL_OFFSET);
+            if (sequence - (long) LONG.getAcquire(buffer, HEAD_OFFSET) >= capacity) {
+                return false;
+            }
+        } while (!LONG.compareAndSet(buffer, TAIL_OFFSET, sequence, sequence + 1));
+
+        int slot = slotOffset(sequence);
+        buffer.putLong(slot + TIMESTAMP, timestampMillis);
+        buffer.putLong(slot + IP_HASH, ipHash);
+        buffer.putLong(slot + USER_AGENT_HASH, userAgentHash);
+        buffer.putLong(slot + REFERER_HASH, refererHash);
+        int length = alias.length();
+        buffer.putShort(slot + ALIAS_LENGTH, (short) length);
+        for (int i = 0; i < length; i++) {
+            buffer.put(slot + ALIAS + i, (byte) alias.charAt(i));
+        }
+        LONG.setRelease(buffer, slot, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Sequence of the next record the consumer will read.
+     */
+    long head() {
+        return (long) LONG.getAcquire(buffer, HEAD_OFFSET);
+    }
+
+    /**
+     * Copies the record at {@code sequence} into {@code target} as a {@link RedirectLogFormat}
+     * record, or returns false if it has not been published yet. Consumer thread only.
+     */
+    boolean read(long sequence, byte[] target) {
+        int slot = slotOffset(sequence);
+        if ((long) LONG.getAcquire(buffer, slot) != sequence + 1) {
+            return false;
+        }
+        int length = Math.min(buffer.getShort(slot + ALIAS_LENGTH), MAX_ALIAS_BYTES);
+        RedirectLogFormat.writeRecord(target, buffer.getLong(slot + TIMESTAMP), buffer.getLong(slot + IP_HASH),
+                buffer.getLong(slot + USER_AGENT_HASH), buffer.getLong(slot + REFERER_HASH));
+        target[RedirectLogFormat.ALIAS_LENGTH_OFFSET] = (byte) length;
+        for (int i = 0; i < length; i++) {
+            target[RedirectLogFormat.ALIAS_OFFSET + i] = buffer.get(slot + ALIAS + i);
+        }
+        for (int i = RedirectLogFormat.ALIAS_OFFSET + length; i < RedirectLogFormat.RECORD_BYTES; i++) {
+            target[i] = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Frees every slot before {@code sequence} for producers. Consumer thread only.
+     */
+    void release(long sequence) {
+        LONG.setRelease(buffer, HEAD_OFFSET, sequence);
+    }
+
+    private int slotOffset(long sequence) {
+        return slotOffset(sequence, mask);
+    }
+
+    private static int slotOffset(long sequence, long mask) {
+        return DATA_OFFSET + (int) (sequence & mask) * SLOT_BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tpx.urlshortener.eventlog;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Gzip-compressed redirect log segment:
+ * <pre>
+ * magic(int) version(int) recordBytes(int)
+ * n x [timestamp(long) ipHash(long) userAgentHash(long) refererHash(long) aliasLength(byte)
+ *      alias(ASCII) zero padding to recordBytes]
+ * </pre>
+ * The writer sync-flushes the compressor after every batch, so a segment cut short by a crash
+ * still reads back up to its last complete record.
+ */
+public final class RedirectLogFormat {
+
+    public static final String SEGMENT_SUFFIX = ".log.gz";
+    static final int RECORD_BYTES = 184;
+    static final int ALIAS_LENGTH_OFFSET = 32;
+    static final int ALIAS_OFFSET = 33;
+
+    private static final int MAGIC = 0x55524C47;
+    private static final int VERSION = 1;
+
+    private RedirectLogFormat() {
+    }
+
+    static void writeHeader(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(RECORD_BYTES);
+        data.flush();
+    }
+
+    // Fills in the fixed fields; the caller writes the alias length and bytes
+    static void writeRecord(byte[] target, long timestampMillis, long ipHash, long userAgentHash, long refererHash) {
+        putLong(target, 0, timestampMillis);
+        putLong(target, 8, ipHash);
+        putLong(target, 16, userAgentHash);
+        putLong(target, 24, refererHash);
+    }
+
+    static RedirectEvent decode(byte[] record) {
+        int length = Math.min(record[ALIAS_LENGTH_OFFSET] & 0xFF, RECORD_BYTES - ALIAS_OFFSET);
+        String alias = new String(record, ALIAS_OFFSET, length, StandardCharsets.US_ASCII);
+        return new RedirectEvent(alias, getLong(record, 0), getLong(record, 8), getLong(record, 16),
+                getLong(record, 24));
+    }
+
+    /**
+     * Streams every complete record of a segment to {@code action} and returns how many there were.
+     */
+    public static long read(Path segment, Consumer<RedirectEvent> action) throws IOException {
+        if (Files.size(segment) == 0) {
+            // The writer crashed before its first flush
+            return 0;
+        }
+        try (InputStream file = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file, 65536)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a redirect log segment: " + segment);
+            }
+            int recordBytes = in.readInt();
+            if (recordBytes != RECORD_BYTES) {
+                throw new IOException("Unsupported record size " + recordBytes + " in " + segment);
+            }
+            byte[] record = new byte[RECORD_BYTES];
+            long count = 0;
+            while (true) {
+                try {
+                    in.readFully(record);
+                } catch (EOFException e) {
+                    // End of the segment, or the torn tail of one whose writer crashed
+                    return count;
+                }
+                action.accept(decode(record));
+                count++;
+            }
+        }
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
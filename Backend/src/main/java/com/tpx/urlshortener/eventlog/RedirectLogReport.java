@@ -0,0 +1,135 @@
+package com.tpx.urlshortener.eventlog;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Offline aggregation of redirect log segments into per-alias click counts, written as CSV:
+ * {@code [day,]alias,clicks,uniqueIps,uniqueReferers,firstSeen,lastSeen}, most clicked first.
+ *
+ * Usage: RedirectLogReport [--by-day] [--from=yyyy-MM-dd] [--to=yyyy-MM-dd] directory-or-segment...
+ * Dates are UTC and {@code --to} is inclusive.
+ */
+public class RedirectLogReport {
+
+    private final boolean byDay;
+    private final long fromMillis;
+    private final long toMillis;
+    private final Map<String, Totals> totals = new HashMap<>();
+    private long segments;
+    private long events;
+
+    RedirectLogReport(boolean byDay, LocalDate from, LocalDate to) {
+        this.byDay = byDay;
+        this.fromMillis = from == null ? Long.MIN_VALUE : from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        this.toMillis = to == null ? Long.MAX_VALUE
+                : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean byDay = false;
+        LocalDate from = null;
+        LocalDate to = null;
+        List<Path> inputs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--by-day")) {
+                byDay = true;
+            } else if (arg.startsWith("--from=")) {
+                from = LocalDate.parse(arg.substring("--from=".length()));
+            } else if (arg.startsWith("--to=")) {
+                to = LocalDate.parse(arg.substring("--to=".length()));
+            } else {
+                inputs.add(Paths.get(arg));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: RedirectLogReport [--by-day] [--from=yyyy-MM-dd] [--to=yyyy-MM-dd] "
+                    + "directory-or-segment...");
+            System.exit(2);
+        }
+        RedirectLogReport report = new RedirectLogReport(byDay, from, to);
+        for (Path input : inputs) {
+            report.add(input);
+        }
+        report.print(System.out);
+        System.err.printf("%d events from %d segments%n", report.events, report.segments);
+    }
+
+    void add(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            addSegment(input);
+            return;
+        }
+        List<Path> found;
+        try (Stream<Path> files = Files.list(input)) {
+            found = files.filter(path -> path.getFileName().toString().endsWith(RedirectLogFormat.SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path segment : found) {
+            addSegment(segment);
+        }
+    }
+
+    private void addSegment(Path segment) throws IOException {
+        RedirectLogFormat.read(segment, this::add);
+        segments++;
+    }
+
+    void add(RedirectEvent event) {
+        long timestamp = event.getTimestampMillis();
+        if (timestamp < fromMillis || timestamp >= toMillis) {
+            return;
+        }
+        events++;
+        String key = byDay
+                ? LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC) + "," + event.getAlias()
+                : event.getAlias();
+        totals.computeIfAbsent(key, k -> new Totals()).add(event);
+    }
+
+    void print(PrintStream out) {
+        out.println((byDay ? "day," : "") + "alias,clicks,uniqueIps,uniqueReferers,firstSeen,lastSeen");
+        totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Totals> entry) -> entry.getValue().clicks)
+                        .reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .forEach(entry -> {
+                    Totals t = entry.getValue();
+                    out.println(entry.getKey() + "," + t.clicks + "," + t.ips.size() + "," + t.referers.size() + ","
+                            + Instant.ofEpochMilli(t.firstSeen) + "," + Instant.ofEpochMilli(t.lastSeen));
+                });
+    }
+
+    private static final class Totals {
+        private final Set<Long> ips = new HashSet<>();
+        private final Set<Long> referers = new HashSet<>();
+        private long clicks;
+        private long firstSeen = Long.MAX_VALUE;
+        private long lastSeen = Long.MIN_VALUE;
+
+        private void add(RedirectEvent event) {
+            clicks++;
+            ips.add(event.getIpHash());
+            if (event.getRefererHash() != 0) {
+                referers.add(event.getRefererHash());
+            }
+            firstSeen = Math.min(firstSeen, event.getTimestampMillis());
+            lastSeen = Math.max(lastSeen, event.getTimestampMillis());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.tpx.urlshortener.exception;
+
+public class AliasPoolExhaustedException extends RuntimeException {
+    public AliasPoolExhaustedException() {
+        super("No generated aliases available right now; retry shortly");
+    }
+}
@@ -1,6 +1,7 @@
 package com.tpx.urlshortener.exception;
 
 import com.tpx.urlshortener.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    static final String LEADER_URL_HEADER = "X-Leader-Url";
+
     @ExceptionHandler({InvalidInputException.class, AliasAlreadyExistsException.class})
     public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -22,6 +25,22 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(NotLeaderException.class)
+    public ResponseEntity<ErrorResponse> handleNotLeader(NotLeaderException ex) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getLeaderUrl() != null) {
+            response.header(LEADER_URL_HEADER, ex.getLeaderUrl());
+        }
+        return response.body(new ErrorResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(AliasPoolExhaustedException.class)
+    public ResponseEntity<ErrorResponse> handlePoolExhausted(AliasPoolExhaustedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getAllErrors().stream()
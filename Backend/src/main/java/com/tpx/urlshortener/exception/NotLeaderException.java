@@ -0,0 +1,16 @@
+package com.tpx.urlshortener.exception;
+
+public class NotLeaderException extends RuntimeException {
+    // HTTP URL of the current leader, if known
+    private final String leaderUrl;
+
+    public NotLeaderException(String leaderUrl) {
+        super("This node is a read-only replica; send writes to the leader"
+                + (leaderUrl == null ? "" : " at " + leaderUrl));
+        this.leaderUrl = leaderUrl;
+    }
+
+    public String getLeaderUrl() {
+        return leaderUrl;
+    }
+}
@@ -0,0 +1,228 @@
+package com.tpx.urlshortener.fastpath;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable parser for one HTTP/1.x request head in a byte buffer. It extracts only what the
+ * redirect listener needs: whether this is a body-less {@code GET /{alias}}, the connection
+ * persistence, and the headers the redirect log records.
+ */
+final class HttpRequestHead {
+
+    static final int MAX_ALIAS_LENGTH = 128;
+
+    private boolean malformed;
+    private boolean get;
+    private boolean keepAlive;
+    private boolean hasBody;
+    private String target;
+    private String alias;
+    private String userAgent;
+    private String referer;
+
+    /**
+     * Parses the request head starting at {@code start}. Returns the offset just past it, or -1
+     * if {@code buffer} does not hold a complete head yet.
+     */
+    int parse(byte[] buffer, int start, int end) {
+        // Empty lines before a request line are allowed (RFC 9112 section 2.2)
+        while (start + 1 < end && buffer[start] == '\r' && buffer[start + 1] == '\n') {
+            start += 2;
+        }
+        int headEnd = indexOfBlankLine(buffer, start, end);
+        if (headEnd < 0) {
+            return -1;
+        }
+        reset();
+        int lineEnd = indexOfCrlf(buffer, start, headEnd);
+        int methodEnd = indexOf(buffer, (byte) ' ', start, lineEnd);
+        int targetEnd = methodEnd < 0 ? -1 : indexOf(buffer, (byte) ' ', methodEnd + 1, lineEnd);
+        if (targetEnd < 0 || targetEnd == methodEnd + 1) {
+            malformed = true;
+            return headEnd + 4;
+        }
+        get = equalsAscii(buffer, start, methodEnd, "GET");
+        target = new String(buffer, methodEnd + 1, targetEnd - methodEnd - 1, StandardCharsets.ISO_8859_1);
+        if (equalsAscii(buffer, targetEnd + 1, lineEnd, "HTTP/1.1")) {
+            keepAlive = true;
+        } else if (!equalsAscii(buffer, targetEnd + 1, lineEnd, "HTTP/1.0")) {
+            malformed = true;
+            return headEnd + 4;
+        }
+        alias = aliasOf(buffer, methodEnd + 1, targetEnd);
+
+        int line = lineEnd + 2;
+        while (line < headEnd + 2) {
+            int next = indexOfCrlf(buffer, line, headEnd + 2);
+            int colon = indexOf(buffer, (byte) ':', line, next);
+            if (colon > line) {
+                header(buffer, line, colon, trimStart(buffer, colon + 1, next), next);
+            } else {
+                malformed = true;
+            }
+            line = next + 2;
+        }
+        return headEnd + 4;
+    }
+
+    private void header(byte[] buffer, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+        if (equalsIgnoreCase(buffer, nameStart, nameEnd, "connection")) {
+            if (containsIgnoreCase(buffer, valueStart, valueEnd, "close")) {
+                keepAlive = false;
+            } else if (containsIgnoreCase(buffer, valueStart, valueEnd, "keep-alive")) {
+                keepAlive = true;
+            }
+        } else if (equalsIgnoreCase(buffer, nameStart, nameEnd, "content-length")) {
+            hasBody |= !equalsAscii(buffer, valueStart, valueEnd, "0");
+        } else if (equalsIgnoreCase(buffer, nameStart, nameEnd, "transfer-encoding")) {
+            hasBody = true;
+        } else if (equalsIgnoreCase(buffer, nameStart, nameEnd, "user-agent")) {
+            userAgent = new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1);
+        } else if (equalsIgnoreCase(buffer, nameStart, nameEnd, "referer")) {
+            referer = new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    // "/abc-1" or "/abc-1?query" -> "abc-1"; anything else is not a redirect request
+    private static String aliasOf(byte[] buffer, int start, int end) {
+        if (buffer[start] != '/') {
+            return null;
+        }
+        int aliasEnd = start + 1;
+        while (aliasEnd < end && buffer[aliasEnd] != '?') {
+            byte c = buffer[aliasEnd];
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!allowed) {
+                return null;
+            }
+            aliasEnd++;
+        }
+        int length = aliasEnd - start - 1;
+        if (length == 0 || length > MAX_ALIAS_LENGTH) {
+            return null;
+        }
+        return new String(buffer, start + 1, length, StandardCharsets.US_ASCII);
+    }
+
+    private void reset() {
+        malformed = false;
+        get = false;
+        keepAlive = false;
+        hasBody = false;
+        target = null;
+        alias = null;
+        userAgent = null;
+        referer = null;
+    }
+
+    boolean isMalformed() {
+        return malformed;
+    }
+
+    boolean isGet() {
+        return get;
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    boolean hasBody() {
+        return hasBody;
+    }
+
+    String getTarget() {
+        return target;
+    }
+
+    /**
+     * The alias of a {@code /{alias}} target, or null for any other target.
+     */
+    String getAlias() {
+        return alias;
+    }
+
+    String getUserAgent() {
+        return userAgent;
+    }
+
+    String getReferer() {
+        return referer;
+    }
+
+    private static int indexOfBlankLine(byte[] buffer, int start, int end) {
+        for (int i = start; i + 3 < end; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n' && buffer[i + 2] == '\r' && buffer[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfCrlf(byte[] buffer, int start, int end) {
+        for (int i = start; i + 1 < end; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int indexOf(byte[] buffer, byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimStart(byte[] buffer, int start, int end) {
+        while (start < end && (buffer[start] == ' ' || buffer[start] == '\t')) {
+            start++;
+        }
+        return start;
+    }
+
+    private static boolean equalsAscii(byte[] buffer, int start, int end, String expected) {
+        while (end > start && (buffer[end - 1] == ' ' || buffer[end - 1] == '\t')) {
+            end--;
+        }
+        if (end - start != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (buffer[start + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(byte[] buffer, int start, int end, String lowerCase) {
+        return end - start == lowerCase.length() && regionMatchesIgnoreCase(buffer, start, lowerCase);
+    }
+
+    private static boolean containsIgnoreCase(byte[] buffer, int start, int end, String lowerCase) {
+        for (int i = start; i + lowerCase.length() <= end; i++) {
+            if (regionMatchesIgnoreCase(buffer, i, lowerCase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatchesIgnoreCase(byte[] buffer, int start, String lowerCase) {
+        for (int i = 0; i < lowerCase.length(); i++) {
+            int c = buffer[start + i];
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
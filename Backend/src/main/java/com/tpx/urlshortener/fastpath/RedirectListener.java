@@ -0,0 +1,512 @@
+package com.tpx.urlshortener.fastpath;
+
+import com.tpx.urlshortener.eventlog.RedirectEventLog;
+import com.tpx.urlshortener.service.HotKeyTracker;
+import com.tpx.urlshortener.service.UrlService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Optional redirect-only HTTP/1.1 listener on its own port, bypassing Tomcat and Spring MVC.
+ *
+ * A few NIO event loops parse pipelined requests on keep-alive connections. A {@code GET /{alias}}
+ * whose Location is in the redirect cache is answered on the event loop with response bytes
+ * precomputed once per cache entry. A cache miss goes to a small worker pool, which runs the
+ * full resolve path (database and cold tier) and hands the response back to the loop; responses
+ * are always written in request order. Everything else, including unknown aliases, gets a 307
+ * to the same path on the Spring application, which then answers it as usual. Its public URL
+ * must be configured as {@code fallback-url}: the listener cannot tell which address clients
+ * reach Spring at, and a localhost guess would send them to their own machine.
+ */
+@Component
+public class RedirectListener implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RedirectListener.class);
+    private static final int READ_BUFFER_BYTES = 8192;
+    private static final int WRITE_BUFFER_BYTES = 32768;
+    // Responses a connection may have waiting (on workers or socket space) before it stops reading
+    private static final int MAX_QUEUED_RESPONSES = 64;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final byte[] KEEP_ALIVE_END = ascii("\r\n");
+    private static final byte[] CLOSE_END = ascii("Connection: close\r\n\r\n");
+    private static final byte[] LOCATION = ascii("Location: ");
+    private static final byte[] EMPTY_BODY = ascii("\r\nContent-Length: 0\r\n");
+    private static final byte[] BAD_REQUEST = ascii("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\n");
+
+    private final UrlService urlService;
+    private final HotKeyTracker hotKeyTracker;
+    private final RedirectEventLog redirectEventLog;
+    private final boolean enabled;
+    private final String host;
+    private final int port;
+    private final int eventLoopCount;
+    private final int workerThreads;
+    private final int workerQueueSize;
+    private final long idleTimeoutMillis;
+    private final String fallbackUrl;
+    private final byte[] statusLine;
+    private final Function<byte[], byte[]> redirectHeadBuilder = this::redirectHead;
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private ServerSocketChannel server;
+    private EventLoop[] loops;
+    private ThreadPoolExecutor workers;
+    private volatile boolean running;
+
+    public RedirectListener(UrlService urlService, HotKeyTracker hotKeyTracker, RedirectEventLog redirectEventLog,
+                            @Value("${urlshortener.redirect-listener.enabled:false}") boolean enabled,
+                            @Value("${urlshortener.redirect-listener.host:0.0.0.0}") String host,
+                            @Value("${urlshortener.redirect-listener.port:8081}") int port,
+                            @Value("${urlshortener.redirect-listener.event-loops:0}") int eventLoops,
+                            @Value("${urlshortener.redirect-listener.worker-threads:8}") int workerThreads,
+                            @Value("${urlshortener.redirect-listener.worker-queue-size:1024}") int workerQueueSize,
+                            @Value("${urlshortener.redirect-listener.idle-timeout-ms:60000}") long idleTimeoutMillis,
+                            @Value("${urlshortener.redirect-listener.status:302}") int status,
+                            @Value("${urlshortener.redirect-listener.fallback-url:}") String fallbackUrl) {
+        if (status != 301 && status != 302) {
+            throw new IllegalArgumentException("Redirect listener status must be 301 or 302: " + status);
+        }
+        if (enabled && fallbackUrl.isBlank()) {
+            throw new IllegalArgumentException(
+                    "urlshortener.redirect-listener.fallback-url is required when the redirect listener is enabled");
+        }
+        this.urlService = urlService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.redirectEventLog = redirectEventLog;
+        this.enabled = enabled;
+        this.host = host;
+        this.port = port;
+        this.eventLoopCount = eventLoops > 0 ? eventLoops : Runtime.getRuntime().availableProcessors();
+        this.workerThreads = workerThreads;
+        this.workerQueueSize = workerQueueSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.fallbackUrl = fallbackUrl.endsWith("/") ? fallbackUrl.substring(0, fallbackUrl.length() - 1) : fallbackUrl;
+        this.statusLine = ascii(status == 301 ? "HTTP/1.1 301 Moved Permanently\r\n" : "HTTP/1.1 302 Found\r\n");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (enabled) {
+            start();
+        }
+    }
+
+    synchronized void start() throws IOException {
+        AtomicInteger workerIndex = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueSize), runnable -> {
+            Thread thread = new Thread(runnable, "redirect-listener-worker-" + workerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(new InetSocketAddress(host, port), 1024);
+        server.configureBlocking(false);
+        running = true;
+        loops = new EventLoop[eventLoopCount];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(i);
+        }
+        server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+        log.info("Redirect listener on port {} with {} event loops", getPort(), loops.length);
+    }
+
+    int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        server.close();
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (EventLoop loop : loops) {
+            try {
+                loop.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.shutdownNow();
+    }
+
+    // Status line and headers up to, not including, the blank line; the connection header goes last
+    private byte[] redirectHead(byte[] location) {
+        byte[] head = new byte[statusLine.length + LOCATION.length + location.length + EMPTY_BODY.length];
+        int offset = 0;
+        for (byte[] part : new byte[][]{statusLine, LOCATION, location, EMPTY_BODY}) {
+            System.arraycopy(part, 0, head, offset, part.length);
+            offset += part.length;
+        }
+        return head;
+    }
+
+    private byte[] fallbackHead(String target) {
+        fallbacks.increment();
+        return ascii("HTTP/1.1 307 Temporary Redirect\r\nLocation: " + fallbackUrl + target
+                + "\r\nContent-Length: 0\r\n");
+    }
+
+    private void recordRedirect(String alias, String remoteAddress, String userAgent, String referer) {
+        hotKeyTracker.record(alias);
+        redirectEventLog.record(alias, remoteAddress, userAgent, referer);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> completed = new ConcurrentLinkedQueue<>();
+        private int nextLoop;
+        private long lastSweep = System.currentTimeMillis();
+
+        private EventLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "redirect-listener-loop-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select(SWEEP_INTERVAL_MILLIS);
+                    registerAccepted();
+                    Connection connection;
+                    while ((connection = completed.poll()) != null) {
+                        connection.pump();
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            ((Connection) key.attachment()).onReady(key);
+                        }
+                    }
+                    sweepIdle();
+                } catch (IOException | RuntimeException e) {
+                    if (running) {
+                        log.warn("Redirect listener event loop failed", e);
+                    }
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    connection.close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Closing selector failed", e);
+            }
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                EventLoop target = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                if (target == this) {
+                    register(channel);
+                } else {
+                    target.accepted.add(channel);
+                    target.selector.wakeup();
+                }
+            }
+        }
+
+        private void registerAccepted() throws IOException {
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null) {
+                register(channel);
+            }
+        }
+
+        private void register(SocketChannel channel) throws IOException {
+            String remoteAddress = ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress();
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(this, channel, key, remoteAddress));
+        }
+
+        private void sweepIdle() {
+            long now = System.currentTimeMillis();
+            if (now - lastSweep < SWEEP_INTERVAL_MILLIS) {
+                return;
+            }
+            lastSweep = now;
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection && connection.isIdleSince(now - idleTimeoutMillis)) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * One client connection; touched only by its event loop thread, except that workers fill in
+     * the response of a queued cache miss and then hand the connection back to the loop.
+     */
+    private final class Connection {
+        private final EventLoop loop;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final String remoteAddress;
+        private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private final ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        private final HttpRequestHead request = new HttpRequestHead();
+        private final ArrayDeque<QueuedResponse> queued = new ArrayDeque<>();
+        private int parsed;
+        private boolean inputClosed;
+        private boolean closeAfterFlush;
+        private long lastActive = System.currentTimeMillis();
+
+        private Connection(EventLoop loop, SocketChannel channel, SelectionKey key, String remoteAddress) {
+            this.loop = loop;
+            this.channel = channel;
+            this.key = key;
+            this.remoteAddress = remoteAddress;
+        }
+
+        private void onReady(SelectionKey readyKey) {
+            try {
+                if (readyKey.isReadable() && channel.read(in) < 0) {
+                    inputClosed = true;
+                }
+                lastActive = System.currentTimeMillis();
+                pump();
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        // Parses what has arrived, moves finished responses out in order and updates interest
+        private void pump() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                boolean parked;
+                do {
+                    parked = process();
+                } while (flush() && parked && queued.size() < MAX_QUEUED_RESPONSES);
+                if (out.position() == 0 && queued.isEmpty() && (closeAfterFlush || inputClosed)) {
+                    close();
+                    return;
+                }
+                int ops = out.position() > 0 ? SelectionKey.OP_WRITE : 0;
+                if (!inputClosed && !closeAfterFlush && queued.size() < MAX_QUEUED_RESPONSES) {
+                    ops |= SelectionKey.OP_READ;
+                }
+                key.interestOps(ops);
+            } catch (IOException | RuntimeException e) {
+                close();
+            }
+        }
+
+        // Returns true if it stopped with complete requests still buffered
+        private boolean process() {
+            byte[] buffer = in.array();
+            while (!closeAfterFlush) {
+                if (queued.size() >= MAX_QUEUED_RESPONSES) {
+                    compactInput();
+                    return true;
+                }
+                int next = request.parse(buffer, parsed, in.position());
+                if (next < 0) {
+                    break;
+                }
+                parsed = next;
+                handle();
+            }
+            compactInput();
+            if (!closeAfterFlush && in.position() == in.capacity()) {
+                // A request head larger than the read buffer
+                respond(BAD_REQUEST, true);
+            }
+            return false;
+        }
+
+        private void compactInput() {
+            if (parsed > 0) {
+                byte[] buffer = in.array();
+                System.arraycopy(buffer, parsed, buffer, 0, in.position() - parsed);
+                in.position(in.position() - parsed);
+                parsed = 0;
+            }
+        }
+
+        private void handle() {
+            if (request.isMalformed()) {
+                respond(BAD_REQUEST, true);
+                return;
+            }
+            // A request body would have to be read past; leave such requests to Spring instead
+            boolean close = !request.isKeepAlive() || request.hasBody();
+            String alias = request.getAlias();
+            if (!request.isGet() || request.hasBody() || alias == null) {
+                respond(fallbackHead(request.getTarget()), close || !request.isGet());
+                return;
+            }
+            byte[] head = urlService.resolveCachedResponse(alias, redirectHeadBuilder);
+            if (head != null) {
+                cacheHits.increment();
+                recordRedirect(alias, remoteAddress, request.getUserAgent(), request.getReferer());
+                respond(head, close);
+                return;
+            }
+            cacheMisses.increment();
+            QueuedResponse response = new QueuedResponse();
+            queued.add(response);
+            closeAfterFlush |= close;
+            String target = request.getTarget();
+            String userAgent = request.getUserAgent();
+            String referer = request.getReferer();
+            try {
+                workers.execute(() -> {
+                    response.bytes = concat(resolve(alias, target, userAgent, referer), close);
+                    loop.completed.add(this);
+                    loop.selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                response.bytes = concat(fallbackHead(target), close);
+            }
+        }
+
+        private byte[] resolve(String alias, String target, String userAgent, String referer) {
+            try {
+                String location = urlService.resolveLocation(alias);
+                recordRedirect(alias, remoteAddress, userAgent, referer);
+                return redirectHead(location.getBytes(StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                // Not found, invalid, or a failure: Spring produces the proper error response
+                return fallbackHead(target);
+            }
+        }
+
+        private void respond(byte[] head, boolean close) {
+            closeAfterFlush |= close;
+            byte[] end = close ? CLOSE_END : KEEP_ALIVE_END;
+            if (queued.isEmpty() && out.remaining() >= head.length + end.length) {
+                out.put(head).put(end);
+                return;
+            }
+            QueuedResponse response = new QueuedResponse();
+            response.bytes = concat(head, close);
+            queued.add(response);
+        }
+
+        // Returns true once everything produced so far has been handed to the socket
+        private boolean flush() throws IOException {
+            while (true) {
+                QueuedResponse next;
+                while ((next = queued.peek()) != null && next.bytes != null && out.hasRemaining()) {
+                    int length = Math.min(out.remaining(), next.bytes.length - next.offset);
+                    out.put(next.bytes, next.offset, length);
+                    next.offset += length;
+                    if (next.offset < next.bytes.length) {
+                        break;
+                    }
+                    queued.poll();
+                }
+                if (out.position() == 0) {
+                    return queued.isEmpty();
+                }
+                out.flip();
+                channel.write(out);
+                out.compact();
+                if (out.position() > 0) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean isIdleSince(long cutoff) {
+            return queued.isEmpty() && out.position() == 0 && lastActive < cutoff;
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Closing redirect listener connection failed", e);
+            }
+        }
+    }
+
+    private static byte[] concat(byte[] head, boolean close) {
+        byte[] end = close ? CLOSE_END : KEEP_ALIVE_END;
+        byte[] response = new byte[head.length + end.length];
+        System.arraycopy(head, 0, response, 0, head.length);
+        System.arraycopy(end, 0, response, head.length, end.length);
+        return response;
+    }
+
+    private static final class QueuedResponse {
+        // Complete response bytes; filled in by a worker for a cache miss
+        private volatile byte[] bytes;
+        private int offset;
+    }
+}
@@ -0,0 +1,131 @@
+package com.tpx.urlshortener.limiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient-style adaptive concurrency limiter. The in-flight limit shrinks when the
+ * short-window latency rises above the long-term baseline and grows by roughly sqrt(limit)
+ * while latency stays flat. Acquire and release are CAS/adder based; the limit is
+ * recalculated by whichever thread closes a sampling window.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double lowPriorityShare;
+    private final double normalPriorityShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowEnd;
+    private final Map<RequestPriority, LongAdder> rejected = new EnumMap<>(RequestPriority.class);
+
+    private volatile int limit;
+    private volatile double baselineRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing, long windowMillis, int minWindowSamples,
+                                      double lowPriorityShare, double normalPriorityShare) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowNanos = windowMillis * 1_000_000L;
+        this.minWindowSamples = minWindowSamples;
+        this.lowPriorityShare = lowPriorityShare;
+        this.normalPriorityShare = normalPriorityShare;
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = allowedInFlight(priority);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos, long endNanos) {
+        inFlight.decrementAndGet();
+        windowRttSum.add(endNanos - startNanos);
+        windowSamples.increment();
+        long end = windowEnd.get();
+        if (endNanos >= end && windowEnd.compareAndSet(end, endNanos + windowNanos)) {
+            recalculate();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected(RequestPriority priority) {
+        return rejected.get(priority).sum();
+    }
+
+    private int allowedInFlight(RequestPriority priority) {
+        int current = limit;
+        switch (priority) {
+            case LOW:
+                return Math.max(1, (int) (current * lowPriorityShare));
+            case NORMAL:
+                return Math.max(1, (int) (current * normalPriorityShare));
+            default:
+                return current;
+        }
+    }
+
+    private void recalculate() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        int peakInFlight = windowMaxInFlight.getAndSet(inFlight.get());
+        if (samples < minWindowSamples) {
+            return;
+        }
+
+        double shortRtt = (double) rttSum / samples;
+        double baseline = baselineRttNanos;
+        if (baseline == 0 || shortRtt < baseline) {
+            // A faster window is the new best case; adopt it straight away
+            baseline = shortRtt;
+        } else {
+            baseline = baseline * 0.95 + shortRtt * 0.05;
+        }
+        baselineRttNanos = baseline;
+
+        int current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        if (target > current && peakInFlight < current / 2) {
+            // Not using the headroom we already have; do not keep inflating the limit
+            return;
+        }
+        double smoothed = current * (1 - smoothing) + target * smoothing;
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(smoothed)));
+    }
+}
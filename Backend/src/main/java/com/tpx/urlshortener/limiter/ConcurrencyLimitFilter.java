@@ -0,0 +1,71 @@
+package com.tpx.urlshortener.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpx.urlshortener.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // Health checks and the H2 console must stay reachable while shedding, and long-lived
+        // change-feed streams would otherwise pin in-flight slots for their whole lifetime
+        return path.startsWith("/actuator") || path.startsWith("/h2-console") || path.equals("/urls/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(start, System.nanoTime());
+        }
+    }
+
+    static RequestPriority classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (path.equals("/urls") || path.startsWith("/urls/") || path.startsWith("/shorten/")) {
+            return RequestPriority.LOW;
+        }
+        if (path.equals("/aliases")) {
+            return RequestPriority.NORMAL;
+        }
+        if ("GET".equals(method) && path.length() > 1 && path.indexOf('/', 1) < 0) {
+            return RequestPriority.HIGH;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Server is overloaded, retry shortly"));
+    }
+}
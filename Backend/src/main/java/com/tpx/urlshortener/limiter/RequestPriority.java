@@ -0,0 +1,10 @@
+package com.tpx.urlshortener.limiter;
+
+public enum RequestPriority {
+    // Listing and bulk endpoints: shed first
+    LOW,
+    // Single creates and deletes
+    NORMAL,
+    // Redirects: protected until the full limit is reached
+    HIGH
+}
@@ -0,0 +1,141 @@
+package com.tpx.urlshortener.maintenance;
+
+import com.tpx.urlshortener.limiter.AdaptiveConcurrencyLimiter;
+import org.h2.engine.Session;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.FileStore;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.RandomAccessStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gives space freed by purges back to the H2 file at a quiet time of day.
+ *
+ * A checkpoint alone leaves the file at its high-water mark, so this asks the embedded database's
+ * MVStore to compact its file: sparse chunks are rewritten, live chunks are moved towards the
+ * start and the free tail is truncated, while the database stays open. It is a no-op for
+ * in-memory and remote databases.
+ * A run is skipped unless enough rows were purged since the previous one, and while the
+ * concurrency limiter has more than {@code max-in-flight} requests admitted.
+ */
+@Component
+public class CompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactionJob.class);
+    private static final int MAX_PASSES = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PurgeJob purgeJob;
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> limiter;
+    private final boolean enabled;
+    private final long minPurgedRows;
+    private final int maxInFlight;
+    private final int maxCompactTimeMs;
+    private final AtomicLong runs = new AtomicLong();
+    private long purgedAtLastRun;
+
+    public CompactionJob(JdbcTemplate jdbcTemplate, PurgeJob purgeJob,
+                         ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+                         @Value("${urlshortener.compaction.enabled:true}") boolean enabled,
+                         @Value("${urlshortener.compaction.min-purged-rows:10000}") long minPurgedRows,
+                         @Value("${urlshortener.compaction.max-in-flight:4}") int maxInFlight,
+                         @Value("${urlshortener.compaction.max-compact-time-ms:10000}") int maxCompactTimeMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeJob = purgeJob;
+        this.limiter = limiter;
+        this.enabled = enabled;
+        this.minPurgedRows = minPurgedRows;
+        this.maxInFlight = maxInFlight;
+        this.maxCompactTimeMs = maxCompactTimeMs;
+    }
+
+    @Scheduled(cron = "${urlshortener.compaction.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compactIfDue();
+        } catch (RuntimeException e) {
+            log.warn("Database compaction failed", e);
+        }
+    }
+
+    /**
+     * Compacts if the run is due and traffic is low; returns whether it compacted.
+     */
+    public synchronized boolean compactIfDue() {
+        long purged = purgeJob.getPurged();
+        long sinceLastRun = purged - purgedAtLastRun;
+        if (sinceLastRun < minPurgedRows) {
+            return false;
+        }
+        AdaptiveConcurrencyLimiter current = limiter.getIfAvailable();
+        if (current != null && current.getInFlight() > maxInFlight) {
+            log.info("Skipping database compaction: {} requests in flight", current.getInFlight());
+            return false;
+        }
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        long[] sizes = jdbcTemplate.execute((ConnectionCallback<long[]>) this::compactFile);
+        purgedAtLastRun = purged;
+        runs.incrementAndGet();
+        log.info("Compacted the database after {} purged rows from {} to {} bytes in {} ms", sinceLastRun,
+                sizes[0], sizes[1], (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Compacts the MVStore file behind the connection; returns its size before and after.
+     */
+    private long[] compactFile(Connection connection) throws SQLException {
+        Session session = connection.unwrap(JdbcConnection.class).getSession();
+        if (!(session instanceof SessionLocal local) || !local.getDatabase().isPersistent()) {
+            return new long[]{0, 0};
+        }
+        MVStore store = local.getDatabase().getStore().getMvStore();
+        FileStore<?> file = store.getFileStore();
+        long before = file.size();
+        // compactFile drops the retention time to zero so freed chunks can be overwritten; put the
+        // crash-safety margin back once it is done
+        int retentionTime = store.getRetentionTime();
+        long deadline = System.nanoTime() + maxCompactTimeMs * 1_000_000L;
+        try {
+            // Chunks emptied by one pass are only freed once it commits, and compactFile skips the
+            // move when no chunk is sparse, so keep moving chunks down while a pass still changes the size
+            for (int pass = 0; pass < MAX_PASSES && System.nanoTime() < deadline; pass++) {
+                long size = file.size();
+                store.compactFile((int) Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+                if (file instanceof RandomAccessStore randomAccess) {
+                    randomAccess.compactMoveChunks(100, Long.MAX_VALUE, store);
+                }
+                if (file.size() == size) {
+                    break;
+                }
+            }
+        } finally {
+            store.setRetentionTime(retentionTime);
+        }
+        return new long[]{before, file.size()};
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+}
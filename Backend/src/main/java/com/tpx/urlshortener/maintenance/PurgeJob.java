@@ -0,0 +1,65 @@
+package com.tpx.urlshortener.maintenance;
+
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Physically deletes rows tombstoned by bulk deletes. Each run deletes at most
+ * {@code batch-size} rows in one short transaction, which caps the purge rate at one batch per
+ * {@code interval-ms} however large the backlog is.
+ */
+@Component
+public class PurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PurgeJob.class);
+
+    private final UrlMappingRepository repository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final AtomicLong purged = new AtomicLong();
+
+    public PurgeJob(UrlMappingRepository repository,
+                    @Value("${urlshortener.purge.enabled:true}") boolean enabled,
+                    @Value("${urlshortener.purge.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${urlshortener.purge.interval-ms:1000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            purgeOnce();
+        } catch (RuntimeException e) {
+            log.warn("Purging deleted mappings failed", e);
+        }
+    }
+
+    /**
+     * Deletes one batch of tombstoned rows and returns how many it removed.
+     */
+    public int purgeOnce() {
+        int deleted = repository.purgeDeleted(batchSize);
+        if (deleted > 0) {
+            purged.addAndGet(deleted);
+            log.debug("Purged {} deleted mappings", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Rows purged since startup.
+     */
+    public long getPurged() {
+        return purged.get();
+    }
+}
@@ -0,0 +1,56 @@
+package com.tpx.urlshortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Counter behind AliasPool: every value below nextValue has been handed out in some reserved range.
+// permutationKey is drawn at random when the row is created and keys the counter-to-alias permutation.
+@Entity
+@Table(name = "alias_pool_block")
+public class AliasPoolBlock {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    // Nullable only for rows created before the key was stored; AliasPool fills it in on first use
+    @Column(name = "permutation_key")
+    private Long permutationKey;
+
+    public AliasPoolBlock() {
+    }
+
+    public AliasPoolBlock(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+
+    public Long getPermutationKey() {
+        return permutationKey;
+    }
+
+    public void setPermutationKey(Long permutationKey) {
+        this.permutationKey = permutationKey;
+    }
+}
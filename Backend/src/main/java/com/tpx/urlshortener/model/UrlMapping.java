@@ -5,11 +5,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.SQLRestriction;
+
 import java.time.Instant;
 
+// Rows tombstoned by a bulk delete stay until PurgeJob removes them; JPA never sees them
 @Entity
-@Table(name = "url_mapping")
+@Table(name = "url_mapping", indexes = {
+        @Index(name = "idx_url_mapping_last_accessed_at", columnList = "last_accessed_at"),
+        @Index(name = "idx_url_mapping_deleted_at", columnList = "deleted_at")})
+@SQLRestriction("deleted_at is null")
 public class UrlMapping {
 
     @Id
@@ -25,6 +32,13 @@ public class UrlMapping {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 
+    // Maintained in batches by AccessRecorder; null for rows never read since it was introduced
+    @Column(name = "last_accessed_at")
+    private Instant lastAccessedAt;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     public UrlMapping() {
     }
 
@@ -65,6 +79,20 @@ public class UrlMapping {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public Instant getLastAccessedAt() {
+        return lastAccessedAt;
+    }
 
+    public void setLastAccessedAt(Instant lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
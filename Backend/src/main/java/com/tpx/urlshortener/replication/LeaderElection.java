@@ -0,0 +1,104 @@
+package com.tpx.urlshortener.replication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Leader election among processes on one machine through an exclusive lock on a shared file.
+ * The operating system releases the lock when the holder dies, so the next node to try takes
+ * over. The leader publishes how to reach it, and its epoch, in a sibling {@code .leader} file.
+ * Each new leader takes an epoch above both the previous leader's and the newest one in its own
+ * log, so no two leaders ever append under the same epoch.
+ */
+final class LeaderElection implements Closeable {
+
+    private final Path lockFile;
+    private final Path leaderFile;
+
+    private FileChannel channel;
+    private FileLock lock;
+    private long epoch;
+
+    LeaderElection(Path lockFile) {
+        this.lockFile = lockFile;
+        this.leaderFile = lockFile.resolveSibling(lockFile.getFileName() + ".leader");
+    }
+
+    synchronized boolean isLeader() {
+        return lock != null && lock.isValid();
+    }
+
+    /**
+     * Leader epoch taken by the last successful {@link #tryAcquire}.
+     */
+    synchronized long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Tries to become leader; on success takes a new epoch above {@code lastEpoch} and publishes
+     * it with the replication address and HTTP URL.
+     */
+    synchronized boolean tryAcquire(String replicationAddress, String httpUrl, long lastEpoch) throws IOException {
+        if (isLeader()) {
+            return true;
+        }
+        if (channel == null) {
+            Path parent = lockFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Another election in this same JVM holds it
+            lock = null;
+        }
+        if (lock == null) {
+            return false;
+        }
+        List<String> previous = readLeader();
+        long previousEpoch = previous != null && previous.size() >= 3 ? Long.parseLong(previous.get(2)) : 0;
+        epoch = Math.max(previousEpoch, lastEpoch) + 1;
+        Path temp = leaderFile.resolveSibling(leaderFile.getFileName() + ".tmp");
+        Files.write(temp, List.of(replicationAddress, httpUrl, Long.toString(epoch)), StandardCharsets.UTF_8);
+        Files.move(temp, leaderFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * The current leader's {@code host:port} replication address, HTTP URL and epoch, or null if none
+     * has been published yet. May name a leader that just died until a new one takes over.
+     */
+    List<String> readLeader() {
+        try {
+            List<String> lines = Files.readAllLines(leaderFile, StandardCharsets.UTF_8);
+            return lines.size() >= 2 ? lines : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (lock != null && lock.isValid()) {
+            lock.release();
+        }
+        lock = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.tpx.urlshortener.replication;
+
+import java.util.Set;
+
+/**
+ * The local mapping store as seen by replication: followers apply records and snapshots to
+ * it, and the leader reads snapshots from it. Applying must be idempotent, since a follower
+ * replays records it may already have applied before a crash.
+ */
+public interface ReplicaStore {
+
+    void applyCreated(String alias, String fullUrl, long createdAtMillis);
+
+    void applyDeleted(String alias);
+
+    /**
+     * Visits every mapping, hot and cold, for a snapshot.
+     */
+    void forEachMapping(MappingVisitor visitor);
+
+    /**
+     * Deletes every mapping whose alias is not in {@code aliases}; ends a snapshot load.
+     */
+    void retainOnly(Set<String> aliases);
+
+    interface MappingVisitor {
+        void visit(String alias, String fullUrl, long createdAtMillis);
+    }
+}
@@ -0,0 +1,183 @@
+package com.tpx.urlshortener.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Follower side of log shipping. Applies each record to the local store and then appends it to
+ * the local log, so the log's last sequence is always a safe resume point and this node can
+ * take over as leader with the same sequence numbers. Reconnects (to whichever node is leader
+ * by then) when the stream fails or goes silent for three heartbeats.
+ */
+final class ReplicationClient implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationClient.class);
+
+    private final ReplicationLog replicationLog;
+    private final ReplicaStore store;
+    private final Supplier<InetSocketAddress> leaderAddress;
+    private final long heartbeatMillis;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile Socket socket;
+    private volatile boolean connected;
+    private volatile long leaderSequence;
+    private volatile long lastAppliedWrittenAt;
+
+    ReplicationClient(ReplicationLog replicationLog, ReplicaStore store, Supplier<InetSocketAddress> leaderAddress,
+                      long heartbeatMillis) {
+        this.replicationLog = replicationLog;
+        this.store = store;
+        this.leaderAddress = leaderAddress;
+        this.heartbeatMillis = heartbeatMillis;
+        this.leaderSequence = replicationLog.getLastSequence();
+        this.thread = new Thread(this::run, "replication-follower");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    long getLeaderSequence() {
+        return Math.max(leaderSequence, replicationLog.getLastSequence());
+    }
+
+    long getAppliedSequence() {
+        return replicationLog.getLastSequence();
+    }
+
+    /**
+     * Age of the newest applied record while records are outstanding, zero once caught up.
+     */
+    long getLagMillis() {
+        if (getLeaderSequence() <= getAppliedSequence()) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - lastAppliedWrittenAt);
+    }
+
+    private void run() {
+        while (running) {
+            InetSocketAddress address = leaderAddress.get();
+            if (address != null) {
+                try {
+                    follow(address);
+                } catch (IOException | RuntimeException e) {
+                    if (running) {
+                        log.info("Replication stream from {} ended: {}", address, e.getMessage());
+                    }
+                } finally {
+                    connected = false;
+                }
+            }
+            try {
+                Thread.sleep(heartbeatMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void follow(InetSocketAddress address) throws IOException {
+        try (Socket connection = new Socket()) {
+            socket = connection;
+            connection.connect(address, (int) heartbeatMillis * 3);
+            connection.setSoTimeout((int) heartbeatMillis * 3);
+            connection.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            out.writeInt(ReplicationServer.MAGIC);
+            out.writeLong(replicationLog.getLastEpoch());
+            out.writeLong(replicationLog.getLastSequence());
+            out.flush();
+            connected = true;
+            log.info("Following leader {} from sequence {}", address, replicationLog.getLastSequence() + 1);
+            while (running) {
+                byte type = in.readByte();
+                switch (type) {
+                    case ReplicationServer.RECORD -> apply(ReplicationRecord.read(in));
+                    case ReplicationServer.HEARTBEAT -> {
+                        leaderSequence = in.readLong();
+                        in.readLong();
+                    }
+                    case ReplicationServer.SNAPSHOT_BEGIN -> loadSnapshot(in);
+                    default -> throw new IOException("Unexpected replication message " + type);
+                }
+            }
+        } finally {
+            socket = null;
+        }
+    }
+
+    private void apply(ReplicationRecord record) throws IOException {
+        long last = replicationLog.getLastSequence();
+        if (record.getSequence() <= last) {
+            return;
+        }
+        if (record.getSequence() != last + 1) {
+            throw new IOException("Replication gap: expected " + (last + 1) + " but received " + record.getSequence());
+        }
+        if (record.getType() == ReplicationRecord.CREATED) {
+            store.applyCreated(record.getAlias(), record.getFullUrl(), record.getCreatedAtMillis());
+        } else {
+            store.applyDeleted(record.getAlias());
+        }
+        replicationLog.append(record);
+        lastAppliedWrittenAt = record.getWrittenAtMillis();
+        leaderSequence = Math.max(leaderSequence, record.getSequence());
+    }
+
+    private void loadSnapshot(DataInputStream in) throws IOException {
+        long sequence = in.readLong();
+        long epoch = in.readLong();
+        log.info("Loading replication snapshot at sequence {} of epoch {}", sequence, epoch);
+        Set<String> aliases = new HashSet<>();
+        byte type;
+        while ((type = in.readByte()) == ReplicationServer.SNAPSHOT_ENTRY) {
+            String alias = in.readUTF();
+            store.applyCreated(alias, in.readUTF(), in.readLong());
+            aliases.add(alias);
+        }
+        if (type != ReplicationServer.SNAPSHOT_END) {
+            throw new IOException("Unexpected replication message " + type + " in snapshot");
+        }
+        store.retainOnly(aliases);
+        // Only now is the store at the snapshot's position; a crash before this replays from the old one
+        replicationLog.reset(sequence, epoch);
+        leaderSequence = Math.max(leaderSequence, sequence);
+        log.info("Loaded replication snapshot of {} mappings", aliases.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        thread.interrupt();
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        try {
+            thread.join(heartbeatMillis * 5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
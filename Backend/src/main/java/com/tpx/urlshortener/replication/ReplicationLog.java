@@ -0,0 +1,429 @@
+package com.tpx.urlshortener.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Ordered, checksummed log of {@link ReplicationRecord}s with contiguous sequence numbers.
+ *
+ * The log is a directory of segment files named after the first sequence they hold. Appends go
+ * to the newest segment; once it exceeds {@code maxSegmentBytes} a new one is started and only
+ * the newest {@code retainedSegments} are kept. A follower that asks for a sequence older than
+ * the retained log has to catch up from a snapshot instead. On open, a torn or corrupt tail
+ * left by a crash is truncated away.
+ *
+ * An {@code epochs} file next to the segments records the first sequence of every leader epoch
+ * in the log, so {@link #epochAt} can tell whether another node's last record came from the
+ * same leader as this log's record at that sequence.
+ */
+public final class ReplicationLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLog.class);
+    private static final String SUFFIX = ".log";
+    private static final String EPOCHS_FILE = "epochs";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int retainedSegments;
+    private final boolean fsync;
+    // Oldest first; readers iterate it without locking
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    // Oldest first; each epoch covers the sequences up to the next one's first sequence
+    private final List<EpochStart> epochs = new CopyOnWriteArrayList<>();
+
+    private FileChannel appendChannel;
+    private volatile long lastSequence;
+    private volatile long lastEpoch;
+
+    private ReplicationLog(Path directory, long maxSegmentBytes, int retainedSegments, boolean fsync) {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.retainedSegments = Math.max(1, retainedSegments);
+        this.fsync = fsync;
+    }
+
+    public static ReplicationLog open(Path directory, long maxSegmentBytes, int retainedSegments, boolean fsync)
+            throws IOException {
+        Files.createDirectories(directory);
+        ReplicationLog replicationLog = new ReplicationLog(directory, maxSegmentBytes, retainedSegments, fsync);
+        replicationLog.recover();
+        return replicationLog;
+    }
+
+    private void recover() throws IOException {
+        recoverSegments();
+        Path epochsFile = directory.resolve(EPOCHS_FILE);
+        if (Files.exists(epochsFile)) {
+            for (String line : Files.readAllLines(epochsFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ");
+                epochs.add(new EpochStart(Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+            }
+        }
+        // Epochs are written before their first record, so one may start in the truncated tail
+        if (epochs.removeIf(start -> start.firstSequence > lastSequence)) {
+            writeEpochs();
+        }
+        lastEpoch = epochs.isEmpty() ? 0 : epochs.get(epochs.size() - 1).epoch;
+    }
+
+    private void recoverSegments() throws IOException {
+        List<Long> firstSequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("\\d{20}\\" + SUFFIX))
+                    .forEach(name -> firstSequences.add(Long.parseLong(name.substring(0, 20))));
+        }
+        firstSequences.sort(null);
+        if (firstSequences.isEmpty()) {
+            startSegment(1);
+            lastSequence = 0;
+            return;
+        }
+        for (long first : firstSequences) {
+            LogSegment segment = new LogSegment(first, segmentPath(first));
+            segment.committedBytes = Files.size(segment.path);
+            segments.add(segment);
+        }
+        // Only the newest segment can have a partially written tail
+        LogSegment newest = segments.get(segments.size() - 1);
+        long expected = newest.firstSequence;
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(newest.path)))) {
+            while (true) {
+                ReplicationRecord record;
+                try {
+                    record = ReplicationRecord.read(in);
+                } catch (EOFException | ReplicationRecord.CorruptRecordException e) {
+                    break;
+                }
+                if (record.getSequence() != expected) {
+                    break;
+                }
+                validBytes += record.encode().length;
+                expected++;
+            }
+        }
+        if (validBytes < newest.committedBytes) {
+            log.warn("Truncating {} bytes of torn or corrupt replication log tail in {}",
+                    newest.committedBytes - validBytes, newest.path);
+        }
+        appendChannel = FileChannel.open(newest.path, StandardOpenOption.WRITE);
+        appendChannel.truncate(validBytes);
+        appendChannel.position(validBytes);
+        newest.committedBytes = validBytes;
+        lastSequence = expected - 1;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getFirstSequence() {
+        return segments.get(0).firstSequence;
+    }
+
+    /**
+     * Epoch of the last record, or of the snapshot the log was last reset to; 0 for a new log.
+     */
+    public long getLastEpoch() {
+        return lastEpoch;
+    }
+
+    /**
+     * Returns the epoch of the record at {@code sequence}, or -1 if this log does not know it:
+     * the sequence is ahead of the log or older than the snapshot it was last reset to.
+     * Sequence 0, before any record, belongs to epoch 0.
+     */
+    public long epochAt(long sequence) {
+        if (sequence > lastSequence) {
+            return -1;
+        }
+        if (sequence == 0) {
+            return 0;
+        }
+        long epoch = -1;
+        for (EpochStart start : epochs) {
+            if (start.firstSequence <= sequence) {
+                epoch = start.epoch;
+            }
+        }
+        return epoch;
+    }
+
+    /**
+     * Appends a record built for the next sequence number (leader side).
+     */
+    public synchronized ReplicationRecord append(LongFunction<ReplicationRecord> factory) throws IOException {
+        ReplicationRecord record = factory.apply(lastSequence + 1);
+        append(record);
+        return record;
+    }
+
+    /**
+     * Appends a record that must carry the next sequence number (follower side).
+     */
+    public synchronized void append(ReplicationRecord record) throws IOException {
+        if (record.getSequence() != lastSequence + 1) {
+            throw new IllegalStateException("Expected sequence " + (lastSequence + 1) + " but got "
+                    + record.getSequence());
+        }
+        if (record.getEpoch() < lastEpoch) {
+            throw new IllegalStateException("Epoch " + record.getEpoch() + " is older than " + lastEpoch);
+        }
+        if (record.getEpoch() != lastEpoch) {
+            startEpoch(record.getEpoch(), record.getSequence());
+        }
+        LogSegment current = segments.get(segments.size() - 1);
+        if (current.committedBytes >= maxSegmentBytes) {
+            roll(record.getSequence());
+            current = segments.get(segments.size() - 1);
+        }
+        ByteBuffer frame = ByteBuffer.wrap(record.encode());
+        while (frame.hasRemaining()) {
+            appendChannel.write(frame);
+        }
+        if (fsync) {
+            appendChannel.force(false);
+        }
+        current.committedBytes += frame.capacity();
+        lastSequence = record.getSequence();
+        notifyAll();
+    }
+
+    /**
+     * Discards the whole log and restarts it after {@code sequence}, e.g. once a follower has
+     * loaded a snapshot taken at that sequence in {@code epoch}.
+     */
+    public synchronized void reset(long sequence, long epoch) throws IOException {
+        appendChannel.close();
+        for (LogSegment segment : segments) {
+            Files.deleteIfExists(segment.path);
+        }
+        segments.clear();
+        startSegment(sequence + 1);
+        epochs.clear();
+        epochs.add(new EpochStart(epoch, sequence));
+        writeEpochs();
+        lastSequence = sequence;
+        lastEpoch = epoch;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until a record after {@code sequence} is appended or the timeout elapses.
+     */
+    public synchronized void awaitAfter(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (lastSequence <= sequence && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Opens a reader positioned at {@code fromSequence}, which must not be older than
+     * {@link #getFirstSequence()}.
+     */
+    public Reader reader(long fromSequence) {
+        if (fromSequence < getFirstSequence()) {
+            throw new IllegalArgumentException("Sequence " + fromSequence + " is no longer retained");
+        }
+        return new Reader(fromSequence);
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        appendChannel.close();
+        startSegment(firstSequence);
+        while (segments.size() > retainedSegments) {
+            LogSegment oldest = segments.remove(0);
+            Files.deleteIfExists(oldest.path);
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        LogSegment segment = new LogSegment(firstSequence, segmentPath(firstSequence));
+        appendChannel = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segments.add(segment);
+    }
+
+    private void startEpoch(long epoch, long firstSequence) throws IOException {
+        epochs.removeIf(start -> start.firstSequence >= firstSequence);
+        epochs.add(new EpochStart(epoch, firstSequence));
+        writeEpochs();
+        lastEpoch = epoch;
+    }
+
+    private void writeEpochs() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (EpochStart start : epochs) {
+            lines.add(start.epoch + " " + start.firstSequence);
+        }
+        Path temp = directory.resolve(EPOCHS_FILE + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        if (fsync) {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        Files.move(temp, directory.resolve(EPOCHS_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d", firstSequence) + SUFFIX);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        appendChannel.close();
+    }
+
+    private static final class EpochStart {
+        private final long epoch;
+        private final long firstSequence;
+
+        private EpochStart(long epoch, long firstSequence) {
+            this.epoch = epoch;
+            this.firstSequence = firstSequence;
+        }
+    }
+
+    private static final class LogSegment {
+        private final long firstSequence;
+        private final Path path;
+        // Bytes of complete records; readers never look past it
+        private volatile long committedBytes;
+
+        private LogSegment(long firstSequence, Path path) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Reads records in sequence order, following the log across segment rolls. Returns null
+     * from {@link #next()} when it has caught up with the last appended record.
+     */
+    public final class Reader implements Closeable {
+        private long nextSequence;
+        private LogSegment segment;
+        private FileChannel channel;
+        private long position;
+
+        private Reader(long fromSequence) {
+            this.nextSequence = fromSequence;
+        }
+
+        public ReplicationRecord next() throws IOException {
+            while (true) {
+                if (segment == null) {
+                    openSegment();
+                }
+                if (position + ReplicationRecord.FRAME_HEADER_BYTES <= segment.committedBytes) {
+                    ReplicationRecord record = readAt(position);
+                    if (record.getSequence() < nextSequence) {
+                        continue;
+                    }
+                    if (record.getSequence() != nextSequence) {
+                        throw new IOException("Replication log gap: expected " + nextSequence + " but found "
+                                + record.getSequence());
+                    }
+                    nextSequence++;
+                    return record;
+                }
+                // A newer segment means this one was rolled and will not grow any more
+                if (!hasNewerSegment()) {
+                    return null;
+                }
+                if (position < segment.committedBytes) {
+                    // Appended to just before the roll
+                    continue;
+                }
+                closeChannel();
+                segment = null;
+            }
+        }
+
+        private ReplicationRecord readAt(long offset) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(ReplicationRecord.FRAME_HEADER_BYTES);
+            readFully(header, offset);
+            int length = header.getInt(0);
+            if (length <= 0 || offset + ReplicationRecord.FRAME_HEADER_BYTES + length > segment.committedBytes) {
+                throw new IOException("Corrupt replication log frame at " + offset + " in " + segment.path);
+            }
+            ByteBuffer frame = ByteBuffer.allocate(ReplicationRecord.FRAME_HEADER_BYTES + length);
+            readFully(frame, offset);
+            position = offset + frame.capacity();
+            return ReplicationRecord.read(new DataInputStream(new ByteArrayInputStream(frame.array())));
+        }
+
+        private void readFully(ByteBuffer buffer, long offset) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of " + segment.path);
+                }
+            }
+        }
+
+        private void openSegment() throws IOException {
+            LogSegment found = null;
+            for (LogSegment candidate : segments) {
+                if (candidate.firstSequence <= nextSequence) {
+                    found = candidate;
+                }
+            }
+            if (found == null) {
+                throw new IOException("Sequence " + nextSequence + " is no longer retained");
+            }
+            try {
+                channel = FileChannel.open(found.path, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                throw new IOException("Sequence " + nextSequence + " is no longer retained", e);
+            }
+            segment = found;
+            position = 0;
+        }
+
+        private LogSegment newestSegment() {
+            return segments.get(segments.size() - 1);
+        }
+
+        private boolean hasNewerSegment() {
+            return newestSegment() != segment;
+        }
+
+        private void closeChannel() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeChannel();
+        }
+    }
+}
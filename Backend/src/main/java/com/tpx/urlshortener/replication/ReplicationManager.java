@@ -0,0 +1,268 @@
+package com.tpx.urlshortener.replication;
+
+import com.tpx.urlshortener.exception.NotLeaderException;
+import com.tpx.urlshortener.model.UrlMapping;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides this node's replication role and routes writes accordingly.
+ *
+ * With replication disabled the node is {@link Role#STANDALONE} and nothing changes. Otherwise
+ * every node starts as a follower of whoever holds the election lock and retries the lock every
+ * {@code election-interval-ms} on its own thread, so a long scheduled job cannot hold up a
+ * failover; the holder serves the replication log and is the only node that accepts writes. A follower that wins the election stops following and starts serving its own
+ * log, which already carries the leader's sequence numbers.
+ */
+@Component
+public class ReplicationManager implements ApplicationRunner {
+
+    public enum Role { STANDALONE, LEADER, FOLLOWER }
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationManager.class);
+    private static final int WRITE_STRIPES = 64;
+
+    private final ReplicaStore store;
+    private final boolean enabled;
+    private final String directory;
+    private final String lockFile;
+    private final String advertisedHost;
+    private final int port;
+    private final String advertisedHttpUrl;
+    private final long heartbeatMillis;
+    private final long electionIntervalMillis;
+    private final long segmentBytes;
+    private final int retainedSegments;
+    private final boolean fsync;
+    private final ReentrantLock[] writeStripes = new ReentrantLock[WRITE_STRIPES];
+
+    private volatile Role role;
+    private volatile long epoch;
+    private ReplicationLog replicationLog;
+    private LeaderElection election;
+    private ScheduledExecutorService electionScheduler;
+    private volatile ReplicationServer server;
+    private volatile ReplicationClient client;
+
+    public ReplicationManager(@Lazy ReplicaStore store,
+                              @Value("${urlshortener.replication.enabled:false}") boolean enabled,
+                              @Value("${urlshortener.replication.directory:./data/replication}") String directory,
+                              @Value("${urlshortener.replication.lock-file:./data/replication.lock}") String lockFile,
+                              @Value("${urlshortener.replication.host:localhost}") String advertisedHost,
+                              @Value("${urlshortener.replication.port:9090}") int port,
+                              @Value("${urlshortener.replication.http-url:http://localhost:${server.port:8080}}")
+                              String advertisedHttpUrl,
+                              @Value("${urlshortener.replication.heartbeat-ms:1000}") long heartbeatMillis,
+                              @Value("${urlshortener.replication.election-interval-ms:1000}")
+                              long electionIntervalMillis,
+                              @Value("${urlshortener.replication.segment-bytes:67108864}") long segmentBytes,
+                              @Value("${urlshortener.replication.retained-segments:8}") int retainedSegments,
+                              @Value("${urlshortener.replication.fsync:true}") boolean fsync) {
+        this.store = store;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.lockFile = lockFile;
+        this.advertisedHost = advertisedHost;
+        this.port = port;
+        this.advertisedHttpUrl = advertisedHttpUrl;
+        this.heartbeatMillis = heartbeatMillis;
+        this.electionIntervalMillis = electionIntervalMillis;
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = retainedSegments;
+        this.fsync = fsync;
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            writeStripes[i] = new ReentrantLock();
+        }
+        // Until the first election, a replicated node must not take writes
+        this.role = enabled ? Role.FOLLOWER : Role.STANDALONE;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        replicationLog = ReplicationLog.open(Paths.get(directory), segmentBytes, retainedSegments, fsync);
+        election = new LeaderElection(Paths.get(lockFile));
+        log.info("Replication log at sequence {}", replicationLog.getLastSequence());
+        elect();
+        electionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replication-election");
+            thread.setDaemon(true);
+            return thread;
+        });
+        electionScheduler.scheduleWithFixedDelay(this::elect, electionIntervalMillis, electionIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void elect() {
+        if (election == null || role == Role.LEADER) {
+            return;
+        }
+        try {
+            if (election.tryAcquire(advertisedHost + ":" + port, advertisedHttpUrl, replicationLog.getLastEpoch())) {
+                becomeLeader();
+            } else if (client == null) {
+                client = new ReplicationClient(replicationLog, store, this::leaderAddress, heartbeatMillis);
+                client.start();
+                log.info("Running as replication follower");
+            }
+        } catch (IOException | RuntimeException e) {
+            // A scheduled task that throws is never run again
+            log.warn("Leader election failed", e);
+        }
+    }
+
+    private void becomeLeader() throws IOException {
+        if (client != null) {
+            client.close();
+            client = null;
+        }
+        epoch = election.getEpoch();
+        server = new ReplicationServer(replicationLog, store, port, heartbeatMillis);
+        server.start();
+        role = Role.LEADER;
+        log.info("Became replication leader for epoch {} at sequence {}", epoch, replicationLog.getLastSequence());
+    }
+
+    private InetSocketAddress leaderAddress() {
+        List<String> leader = election.readLeader();
+        if (leader == null) {
+            return null;
+        }
+        String address = leader.get(0);
+        int colon = address.lastIndexOf(':');
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Rejects writes on followers, naming the leader's HTTP URL when it is known.
+     */
+    public void checkWritable() {
+        if (role == Role.FOLLOWER) {
+            List<String> leader = election == null ? null : election.readLeader();
+            throw new NotLeaderException(leader == null ? null : leader.get(1));
+        }
+    }
+
+    /**
+     * Runs a write together with its log append under a per-alias lock, so that the log order
+     * of two writes to the same alias matches the order they were committed in.
+     */
+    public <T> T inOrder(String alias, Supplier<T> write) {
+        if (role != Role.LEADER) {
+            return write.get();
+        }
+        ReentrantLock stripe = writeStripes[Math.floorMod(alias.hashCode(), WRITE_STRIPES)];
+        stripe.lock();
+        try {
+            return write.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #inOrder} for a write that covers many aliases: holds every stripe, taken in
+     * index order, so no single-alias write can interleave with it.
+     */
+    public <T> T exclusively(Supplier<T> write) {
+        if (role != Role.LEADER) {
+            return write.get();
+        }
+        int locked = 0;
+        try {
+            for (; locked < WRITE_STRIPES; locked++) {
+                writeStripes[locked].lock();
+            }
+            return write.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                writeStripes[i].unlock();
+            }
+        }
+    }
+
+    public void publishCreated(UrlMapping mapping) {
+        long createdAt = mapping.getCreatedAt() == null
+                ? System.currentTimeMillis()
+                : mapping.getCreatedAt().toEpochMilli();
+        append(sequence -> ReplicationRecord.created(sequence, epoch, mapping.getAlias(), mapping.getFullUrl(),
+                createdAt));
+    }
+
+    public void publishDeleted(String alias) {
+        append(sequence -> ReplicationRecord.deleted(sequence, epoch, alias));
+    }
+
+    private void append(LongFunction<ReplicationRecord> record) {
+        if (role != Role.LEADER) {
+            return;
+        }
+        try {
+            replicationLog.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to the replication log", e);
+        }
+    }
+
+    public long getLastSequence() {
+        return replicationLog == null ? 0 : replicationLog.getLastSequence();
+    }
+
+    public long getLagRecords() {
+        ReplicationClient current = client;
+        return current == null ? 0 : current.getLeaderSequence() - current.getAppliedSequence();
+    }
+
+    public double getLagSeconds() {
+        ReplicationClient current = client;
+        return current == null ? 0 : current.getLagMillis() / 1000.0;
+    }
+
+    public int getFollowerCount() {
+        ReplicationServer current = server;
+        return current == null ? 0 : current.getFollowerCount();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (electionScheduler != null) {
+            electionScheduler.shutdownNow();
+        }
+        if (client != null) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (election != null) {
+            election.close();
+        }
+        if (replicationLog != null) {
+            replicationLog.close();
+        }
+    }
+}
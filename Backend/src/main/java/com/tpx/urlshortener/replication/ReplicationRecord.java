@@ -0,0 +1,163 @@
+package com.tpx.urlshortener.replication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * One replicated change. On disk and on the wire a record is framed as
+ * {@code length(int) crc32(int) payload}, with the payload holding
+ * {@code sequence(long) epoch(long) type(byte) writtenAtMillis(long) alias(UTF) [fullUrl(UTF) createdAtMillis(long)]}.
+ * The epoch is the leadership term of the leader that first appended the record, so two logs
+ * that hold the same sequence from different leaders can be told apart.
+ */
+public final class ReplicationRecord {
+
+    public static final byte CREATED = 1;
+    public static final byte DELETED = 2;
+
+    // Frame header: payload length and CRC-32 of the payload
+    static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private final long sequence;
+    private final long epoch;
+    private final byte type;
+    private final long writtenAtMillis;
+    private final String alias;
+    private final String fullUrl;
+    private final long createdAtMillis;
+
+    public ReplicationRecord(long sequence, long epoch, byte type, long writtenAtMillis, String alias,
+                             String fullUrl, long createdAtMillis) {
+        if (type != CREATED && type != DELETED) {
+            throw new IllegalArgumentException("Unknown record type " + type);
+        }
+        this.sequence = sequence;
+        this.epoch = epoch;
+        this.type = type;
+        this.writtenAtMillis = writtenAtMillis;
+        this.alias = alias;
+        this.fullUrl = fullUrl;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public static ReplicationRecord created(long sequence, long epoch, String alias, String fullUrl,
+                                            long createdAtMillis) {
+        return new ReplicationRecord(sequence, epoch, CREATED, System.currentTimeMillis(), alias, fullUrl,
+                createdAtMillis);
+    }
+
+    public static ReplicationRecord deleted(long sequence, long epoch, String alias) {
+        return new ReplicationRecord(sequence, epoch, DELETED, System.currentTimeMillis(), alias, null, 0);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public long getWrittenAtMillis() {
+        return writtenAtMillis;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Returns the framed record, ready to be written to the log or a socket.
+     */
+    byte[] encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (fullUrl == null ? 0 : fullUrl.length()));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeLong(sequence);
+            out.writeLong(epoch);
+            out.writeByte(type);
+            out.writeLong(writtenAtMillis);
+            out.writeUTF(alias);
+            if (type == CREATED) {
+                out.writeUTF(fullUrl);
+                out.writeLong(createdAtMillis);
+            }
+            out.flush();
+            byte[] frame = bytes.toByteArray();
+            int length = frame.length - FRAME_HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(frame, FRAME_HEADER_BYTES, length);
+            writeInt(frame, 0, length);
+            writeInt(frame, 4, (int) crc.getValue());
+            return frame;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads one framed record. Throws {@link EOFException} if the stream ends before the frame
+     * is complete and {@link CorruptRecordException} if the checksum does not match.
+     */
+    static ReplicationRecord read(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length <= 0 || length > MAX_PAYLOAD_BYTES) {
+            throw new CorruptRecordException("Invalid record length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            throw new CorruptRecordException("Record checksum mismatch");
+        }
+        DataInputStream fields = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = fields.readLong();
+        long epoch = fields.readLong();
+        byte type = fields.readByte();
+        long writtenAt = fields.readLong();
+        String alias = fields.readUTF();
+        if (type == CREATED) {
+            return new ReplicationRecord(sequence, epoch, type, writtenAt, alias, fields.readUTF(),
+                    fields.readLong());
+        }
+        if (type == DELETED) {
+            return new ReplicationRecord(sequence, epoch, type, writtenAt, alias, null, 0);
+        }
+        throw new CorruptRecordException("Unknown record type " + type);
+    }
+
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    static final class CorruptRecordException extends IOException {
+        CorruptRecordException(String message) {
+            super(message);
+        }
+    }
+}
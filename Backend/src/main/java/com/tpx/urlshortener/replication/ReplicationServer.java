@@ -0,0 +1,170 @@
+package com.tpx.urlshortener.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Leader side of log shipping: streams the replication log to each connected follower.
+ *
+ * A follower opens with the epoch and sequence of the last record it applied. If the log holds
+ * that record from the same epoch and still holds the next one, the leader streams from there;
+ * otherwise (the follower is too far behind, ahead after a failover, or kept records from a
+ * deposed leader that the new one never saw) it first sends a snapshot of every mapping taken
+ * at the current log position and then the records appended since. The snapshot is read while
+ * writes continue, which is fine because every record applied on top of it is idempotent.
+ * Heartbeats carry the leader's last sequence so followers can measure their lag.
+ */
+final class ReplicationServer implements Closeable {
+
+    static final int MAGIC = 0x55524c52;
+    static final byte RECORD = 'R';
+    static final byte HEARTBEAT = 'H';
+    static final byte SNAPSHOT_BEGIN = 'S';
+    static final byte SNAPSHOT_ENTRY = 'E';
+    static final byte SNAPSHOT_END = 'F';
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationServer.class);
+
+    private final ReplicationLog replicationLog;
+    private final ReplicaStore store;
+    private final int port;
+    private final long heartbeatMillis;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionIndex = new AtomicInteger();
+
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    ReplicationServer(ReplicationLog replicationLog, ReplicaStore store, int port, long heartbeatMillis) {
+        this.replicationLog = replicationLog;
+        this.store = store;
+        this.port = port;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    void start() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        running = true;
+        Thread acceptor = new Thread(this::acceptLoop, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Replication server listening on port {}", getPort());
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getFollowerCount() {
+        return connections.size();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread sender = new Thread(() -> serve(socket), "replication-sender-" + connectionIndex.incrementAndGet());
+                sender.setDaemon(true);
+                sender.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Accepting a replication connection failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Rejecting replication connection from {}: bad handshake", socket.getRemoteSocketAddress());
+                return;
+            }
+            long appliedEpoch = in.readLong();
+            long applied = in.readLong();
+            long from = applied + 1;
+            // epochAt is -1 when the follower is ahead of this log
+            if (replicationLog.epochAt(applied) != appliedEpoch || from < replicationLog.getFirstSequence()) {
+                from = sendSnapshot(out) + 1;
+            }
+            log.info("Follower {} streaming from sequence {}", socket.getRemoteSocketAddress(), from);
+            try (ReplicationLog.Reader reader = replicationLog.reader(from)) {
+                long lastSent = from - 1;
+                while (running) {
+                    ReplicationRecord record = reader.next();
+                    if (record == null) {
+                        out.writeByte(HEARTBEAT);
+                        out.writeLong(replicationLog.getLastSequence());
+                        out.writeLong(System.currentTimeMillis());
+                        out.flush();
+                        replicationLog.awaitAfter(lastSent, heartbeatMillis);
+                        continue;
+                    }
+                    out.writeByte(RECORD);
+                    out.write(record.encode());
+                    lastSent = record.getSequence();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            if (running) {
+                log.info("Follower {} disconnected: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    // Returns the log sequence the snapshot was taken at
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        long sequence = replicationLog.getLastSequence();
+        out.writeByte(SNAPSHOT_BEGIN);
+        out.writeLong(sequence);
+        out.writeLong(replicationLog.epochAt(sequence));
+        store.forEachMapping((alias, fullUrl, createdAtMillis) -> {
+            try {
+                out.writeByte(SNAPSHOT_ENTRY);
+                out.writeUTF(alias);
+                out.writeUTF(fullUrl);
+                out.writeLong(createdAtMillis);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.writeByte(SNAPSHOT_END);
+        out.flush();
+        return sequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.tpx.urlshortener.repository;
+
+import com.tpx.urlshortener.model.AliasPoolBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface AliasPoolBlockRepository extends JpaRepository<AliasPoolBlock, String> {
+
+    // One statement; H2's delta table returns the counter before this reservation, or nothing if the row is missing
+    @Transactional
+    @Query(value = "SELECT next_value FROM OLD TABLE "
+            + "(UPDATE alias_pool_block SET next_value = next_value + :size WHERE name = :name)", nativeQuery = true)
+    List<Long> reserve(@Param("name") String name, @Param("size") long size);
+
+    // save() would merge over an existing counter and rewind it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO alias_pool_block (name, next_value, permutation_key) SELECT :name, 0, :key "
+            + "WHERE NOT EXISTS (SELECT 1 FROM alias_pool_block WHERE name = :name)", nativeQuery = true)
+    int createIfMissing(@Param("name") String name, @Param("key") long key);
+
+    // For counters created before the key was stored; the first node to get here decides it
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE alias_pool_block SET permutation_key = :key WHERE name = :name AND permutation_key IS NULL",
+            nativeQuery = true)
+    int assignKeyIfMissing(@Param("name") String name, @Param("key") long key);
+
+    @Query(value = "SELECT permutation_key FROM alias_pool_block WHERE name = :name", nativeQuery = true)
+    Long findPermutationKey(@Param("name") String name);
+}
@@ -1,14 +1,71 @@
 package com.tpx.urlshortener.repository;
 
 import com.tpx.urlshortener.model.UrlMapping;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UrlMappingRepository extends JpaRepository<UrlMapping, Long> {
     Optional<UrlMapping> findByAlias(String alias);
     boolean existsByAlias(String alias);
-    void deleteByAlias(String alias);
-}
 
+    // Single DML statement; H2's delta table returns the id of the deleted row, or nothing if the alias did not exist
+    @Transactional
+    @Query(value = "SELECT id FROM OLD TABLE (DELETE FROM url_mapping WHERE alias = :alias AND deleted_at IS NULL)",
+            nativeQuery = true)
+    List<Long> deleteByAlias(@Param("alias") String alias);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update UrlMapping m set m.deletedAt = :deletedAt where m.id in :ids and m.deletedAt is null")
+    int tombstoneByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    // Keyset pages of the rows a created-before bulk delete covers
+    List<UrlMapping> findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(Instant createdAt, Long id, Pageable pageable);
+
+    // Frees a tombstoned alias for reuse before PurgeJob gets to it
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM url_mapping WHERE alias = :alias AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeletedAlias(@Param("alias") String alias);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM url_mapping WHERE id IN (SELECT id FROM url_mapping WHERE deleted_at IS NOT NULL "
+            + "ORDER BY id FETCH FIRST :limit ROWS ONLY)", nativeQuery = true)
+    int purgeDeleted(@Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM url_mapping WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countDeleted();
+
+    @Query("select m from UrlMapping m where m.id > :afterId and lower(m.fullUrl) like :pattern escape '\\' order by m.id")
+    List<UrlMapping> findByFullUrlLikeAfter(@Param("pattern") String pattern, @Param("afterId") long afterId,
+                                            Pageable pageable);
 
+    List<UrlMapping> findByAliasIn(Collection<String> aliases);
+
+    @Query("select m.alias from UrlMapping m where m.alias in :aliases")
+    List<String> findExistingAliases(@Param("aliases") Collection<String> aliases);
+
+    // Keyset pages in id order, for streaming the whole table without holding it in memory
+    List<UrlMapping> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select m.alias from UrlMapping m")
+    List<String> findAllAliases();
+
+    @Query("select coalesce(max(m.id), 0) from UrlMapping m")
+    long findMaxId();
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("update UrlMapping m set m.lastAccessedAt = :accessedAt where m.alias in :aliases")
+    int markAccessed(@Param("aliases") Collection<String> aliases, @Param("accessedAt") Instant accessedAt);
+}
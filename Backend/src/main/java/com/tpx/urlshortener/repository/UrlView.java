@@ -0,0 +1,5 @@
+package com.tpx.urlshortener.repository;
+
+// Read-only projection of a live mapping; not attached to any persistence context
+public record UrlView(String alias, String fullUrl) {
+}
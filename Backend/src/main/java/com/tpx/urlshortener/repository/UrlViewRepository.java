@@ -0,0 +1,51 @@
+package com.tpx.urlshortener.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC reads for the redirect and list paths, which only need alias and full URL. Rows are
+ * read straight into strings or {@link UrlView} records, so no entity, persistence context or
+ * dirty-checking snapshot is created; {@link UrlMappingRepository} stays the path for writes.
+ *
+ * The SQL strings are constants, so H2 reuses the statement it compiled for each pooled
+ * connection (its per-session query cache, sized by QUERY_CACHE_SIZE in the datasource URL)
+ * instead of parsing and planning it again.
+ */
+@Repository
+public class UrlViewRepository {
+
+    private static final String FIND_FULL_URL =
+            "SELECT full_url FROM url_mapping WHERE alias = ? AND deleted_at IS NULL";
+    private static final String FIND_ALL =
+            "SELECT alias, full_url FROM url_mapping WHERE deleted_at IS NULL ORDER BY id";
+    private static final ResultSetExtractor<String> FIRST_STRING = rs -> rs.next() ? rs.getString(1) : null;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UrlViewRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The full URL of a live alias in H2, or null if there is none.
+     */
+    public String findFullUrl(String alias) {
+        return jdbcTemplate.query(FIND_FULL_URL, FIRST_STRING, alias);
+    }
+
+    /**
+     * Every live mapping in H2, in id order.
+     */
+    public List<UrlView> findAll() {
+        List<UrlView> views = new ArrayList<>();
+        RowCallbackHandler collect = rs -> views.add(new UrlView(rs.getString(1), rs.getString(2)));
+        jdbcTemplate.query(FIND_ALL, collect);
+        return views;
+    }
+}
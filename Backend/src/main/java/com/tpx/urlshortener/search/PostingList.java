@@ -0,0 +1,199 @@
+package com.tpx.urlshortener.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Ascending mapping ids stored as varint-encoded deltas in one growable byte array, with a
+ * skip entry every {@value #SKIP_INTERVAL} ids so intersections can jump over long runs.
+ * Not thread-safe; {@link TrigramIndex} guards access.
+ */
+final class PostingList {
+
+    static final int SKIP_INTERVAL = 64;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private long last;
+    // Id and byte offset of entries 0, SKIP_INTERVAL, 2 * SKIP_INTERVAL, ...
+    private long[] skipIds = new long[1];
+    private int[] skipOffsets = new int[1];
+    private int skipCount;
+
+    int size() {
+        return count;
+    }
+
+    int byteSize() {
+        return length + skipCount * (Long.BYTES + Integer.BYTES);
+    }
+
+    long last() {
+        return last;
+    }
+
+    /**
+     * Adds an id; ids at or below the last one are merged in place, which is slower but keeps
+     * the list sorted and free of duplicates.
+     */
+    void add(long id) {
+        if (count > 0 && id <= last) {
+            if (id < last) {
+                insertOutOfOrder(id);
+            }
+            return;
+        }
+        if (count % SKIP_INTERVAL == 0) {
+            if (skipCount == skipIds.length) {
+                skipIds = Arrays.copyOf(skipIds, skipCount * 2);
+                skipOffsets = Arrays.copyOf(skipOffsets, skipCount * 2);
+            }
+            skipIds[skipCount] = id;
+            skipOffsets[skipCount] = length;
+            skipCount++;
+        }
+        writeVarLong(count == 0 ? id : id - last);
+        last = id;
+        count++;
+    }
+
+    /**
+     * Appends every id of {@code other}, all of which must be greater than {@link #last()}.
+     */
+    void addAll(PostingList other) {
+        Cursor cursor = other.cursor();
+        for (long id = cursor.next(); id >= 0; id = cursor.next()) {
+            add(id);
+        }
+    }
+
+    /**
+     * Rewrites the list without the ids matched by {@code removed}; returns how many were dropped.
+     */
+    int removeIf(LongPredicate removed) {
+        PostingList kept = new PostingList();
+        Cursor cursor = cursor();
+        for (long id = cursor.next(); id >= 0; id = cursor.next()) {
+            if (!removed.test(id)) {
+                kept.add(id);
+            }
+        }
+        int dropped = count - kept.count;
+        if (dropped > 0) {
+            data = kept.data;
+            length = kept.length;
+            count = kept.count;
+            last = kept.last;
+            skipIds = kept.skipIds;
+            skipOffsets = kept.skipOffsets;
+            skipCount = kept.skipCount;
+        }
+        return dropped;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void insertOutOfOrder(long id) {
+        PostingList merged = new PostingList();
+        Cursor cursor = cursor();
+        boolean inserted = false;
+        for (long existing = cursor.next(); existing >= 0; existing = cursor.next()) {
+            if (existing == id) {
+                return;
+            }
+            if (!inserted && existing > id) {
+                merged.add(id);
+                inserted = true;
+            }
+            merged.add(existing);
+        }
+        data = merged.data;
+        length = merged.length;
+        count = merged.count;
+        last = merged.last;
+        skipIds = merged.skipIds;
+        skipOffsets = merged.skipOffsets;
+        skipCount = merged.skipCount;
+    }
+
+    private void writeVarLong(long value) {
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only iterator over the ids; {@code next} and {@code advanceTo} return -1 once exhausted.
+     */
+    final class Cursor {
+        private int offset;
+        private int index;
+        private long current = -1;
+
+        long next() {
+            if (index >= count) {
+                return -1;
+            }
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            current = index == 0 ? delta : current + delta;
+            index++;
+            return current;
+        }
+
+        /**
+         * Returns the first id at or after {@code target}, using the skip table to jump ahead.
+         */
+        long advanceTo(long target) {
+            if (index > 0 && current >= target) {
+                return current;
+            }
+            int skip = Arrays.binarySearch(skipIds, 0, skipCount, target);
+            if (skip < 0) {
+                skip = -skip - 2;
+            }
+            int skipIndex = skip * SKIP_INTERVAL;
+            if (skip >= 0 && skipIndex >= index) {
+                // Jump straight to the skip entry; its absolute id comes from the skip table
+                offset = skipOffsets[skip];
+                index = skipIndex;
+                if (index > 0) {
+                    long id = readAbsolute(skipIds[skip]);
+                    if (id >= target) {
+                        return id;
+                    }
+                }
+            }
+            long id;
+            do {
+                id = next();
+            } while (id >= 0 && id < target);
+            return id;
+        }
+
+        // Consumes the entry at a skip position, whose absolute value the skip table already holds
+        private long readAbsolute(long id) {
+            byte b;
+            do {
+                b = data[offset++];
+            } while (b < 0);
+            current = id;
+            index++;
+            return id;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.tpx.urlshortener.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from every trigram of a normalized URL to the ascending ids of the mappings
+ * containing it.
+ *
+ * Queries intersect the posting lists of the query's trigrams, so they only return candidates:
+ * every id whose URL contains all of the query's trigrams, which the caller verifies against the
+ * actual URL. Removals are recorded in a set that queries filter against and {@link #compact}
+ * later drops from the posting lists, because one common trigram's list can hold almost every id.
+ */
+public final class TrigramIndex {
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int documentCount;
+
+    /**
+     * Lower-cases a URL and strips the scheme and a leading {@code www.}, so that queries match
+     * regardless of how the URL or the query spells them.
+     */
+    public static String normalize(String url) {
+        String normalized = url.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("https://")) {
+            normalized = normalized.substring(8);
+        } else if (normalized.startsWith("http://")) {
+            normalized = normalized.substring(7);
+        }
+        if (normalized.startsWith("www.")) {
+            normalized = normalized.substring(4);
+        }
+        return normalized;
+    }
+
+    // Distinct trigrams of an already normalized string, each packed into the low 48 bits of a long
+    static long[] trigrams(String normalized) {
+        if (normalized.length() < 3) {
+            return new long[0];
+        }
+        long[] keys = new long[normalized.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    public void add(long id, String fullUrl) {
+        long[] keys = trigrams(normalize(fullUrl));
+        lock.writeLock().lock();
+        try {
+            for (long key : keys) {
+                postings.computeIfAbsent(key, k -> new PostingList()).add(id);
+            }
+            if (!removed.remove(id)) {
+                documentCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (removed.add(id)) {
+                documentCount--;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns, in ascending order, up to {@code max} ids greater than {@code afterId} whose URL
+     * contains every trigram of the normalized {@code query}.
+     */
+    public long[] candidates(String query, long afterId, int max) {
+        long[] keys = trigrams(query);
+        if (keys.length == 0 || max <= 0) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = postings.get(keys[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+            // Drive the intersection from the shortest list; the others only skip forward
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                cursors[i] = lists[i].cursor();
+            }
+            long[] result = new long[Math.min(max, lists[0].size())];
+            int found = 0;
+            long candidate = cursors[0].advanceTo(afterId + 1);
+            while (candidate >= 0 && found < result.length) {
+                long next = candidate;
+                for (int i = 1; i < cursors.length && next == candidate; i++) {
+                    next = cursors[i].advanceTo(candidate);
+                    if (next < 0) {
+                        return Arrays.copyOf(result, found);
+                    }
+                }
+                if (next == candidate) {
+                    if (!removed.contains(candidate)) {
+                        result[found++] = candidate;
+                    }
+                    candidate = cursors[0].next();
+                } else {
+                    candidate = cursors[0].advanceTo(next);
+                }
+            }
+            return Arrays.copyOf(result, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the postings of an index built over ids that are all greater than this one's.
+     * Used to combine the partitions of a parallel rebuild.
+     */
+    void append(TrigramIndex later) {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, PostingList> entry : later.postings.entrySet()) {
+                PostingList existing = postings.get(entry.getKey());
+                if (existing == null) {
+                    postings.put(entry.getKey(), entry.getValue());
+                } else {
+                    existing.addAll(entry.getValue());
+                }
+            }
+            removed.addAll(later.removed);
+            documentCount += later.documentCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops removed ids from the posting lists, a batch of lists at a time so queries are only
+     * blocked briefly. Returns how many postings were freed.
+     */
+    public long compact(int listsPerBatch) {
+        Set<Long> snapshot;
+        List<Long> keys;
+        lock.readLock().lock();
+        try {
+            if (removed.isEmpty()) {
+                return 0;
+            }
+            snapshot = new HashSet<>(removed);
+            keys = new ArrayList<>(postings.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+        long freed = 0;
+        for (int from = 0; from < keys.size(); from += listsPerBatch) {
+            lock.writeLock().lock();
+            try {
+                for (Long key : keys.subList(from, Math.min(keys.size(), from + listsPerBatch))) {
+                    PostingList list = postings.get(key);
+                    if (list != null) {
+                        freed += list.removeIf(snapshot::contains);
+                        if (list.size() == 0) {
+                            postings.remove(key);
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removed.removeAll(snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return freed;
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getRemovedCount() {
+        lock.readLock().lock();
+        try {
+            return removed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTrigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getPostingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += list.byteSize();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
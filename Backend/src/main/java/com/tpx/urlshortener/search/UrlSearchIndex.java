@@ -0,0 +1,191 @@
+package com.tpx.urlshortener.search;
+
+import com.tpx.urlshortener.model.UrlMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Keeps a {@link TrigramIndex} over the full URLs of the mappings in H2. Cold-tier mappings
+ * are not indexed: the tiering job removes the ids it moves, and a promotion adds the mapping
+ * back under its new id.
+ *
+ * At startup the id range is split into chunks that are loaded and indexed in parallel, then
+ * appended in id order. Writes made while that runs go to the live index and are also replayed
+ * onto the rebuilt one before it is swapped in.
+ */
+@Component
+public class UrlSearchIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UrlSearchIndex.class);
+    private static final int COMPACT_LISTS_PER_BATCH = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int rebuildThreads;
+    private final long rebuildChunkSize;
+    private final int compactThreshold;
+
+    private volatile TrigramIndex index = new TrigramIndex();
+    private volatile boolean loaded;
+    private List<PendingWrite> pendingWrites;
+
+    public UrlSearchIndex(JdbcTemplate jdbcTemplate,
+                          @Value("${urlshortener.search.enabled:true}") boolean enabled,
+                          @Value("${urlshortener.search.rebuild-threads:0}") int rebuildThreads,
+                          @Value("${urlshortener.search.rebuild-chunk-size:200000}") long rebuildChunkSize,
+                          @Value("${urlshortener.search.compact-threshold:50000}") int compactThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.rebuildThreads = rebuildThreads > 0 ? rebuildThreads : Runtime.getRuntime().availableProcessors();
+        this.rebuildChunkSize = rebuildChunkSize;
+        this.compactThreshold = compactThreshold;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            pendingWrites = new ArrayList<>();
+        }
+        TrigramIndex rebuilt;
+        try {
+            rebuilt = buildInParallel();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingWrites = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (PendingWrite write : pendingWrites) {
+                if (write.fullUrl != null) {
+                    rebuilt.add(write.id, write.fullUrl);
+                } else {
+                    rebuilt.remove(write.id);
+                }
+            }
+            pendingWrites = null;
+            index = rebuilt;
+            loaded = true;
+        }
+        log.info("Indexed {} URLs ({} trigrams, {} KB of postings) in {} ms", rebuilt.getDocumentCount(),
+                rebuilt.getTrigramCount(), rebuilt.getPostingBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private TrigramIndex buildInParallel() {
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT COALESCE(MIN(id), 0) AS min_id, COALESCE(MAX(id), 0) AS max_id FROM url_mapping");
+        long minId = ((Number) range.get("MIN_ID")).longValue();
+        long maxId = ((Number) range.get("MAX_ID")).longValue();
+        TrigramIndex combined = new TrigramIndex();
+        if (maxId == 0) {
+            return combined;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            List<Future<TrigramIndex>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                long chunkStart = from;
+                long chunkEnd = Math.min(maxId, from + rebuildChunkSize - 1);
+                chunks.add(executor.submit(() -> buildChunk(chunkStart, chunkEnd)));
+            }
+            // Chunks cover ascending, disjoint id ranges, so appending in order keeps every list sorted
+            for (Future<TrigramIndex> chunk : chunks) {
+                combined.append(chunk.get());
+            }
+            return combined;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search index rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TrigramIndex buildChunk(long fromId, long toId) {
+        TrigramIndex chunk = new TrigramIndex();
+        RowCallbackHandler index = rs -> chunk.add(rs.getLong(1), rs.getString(2));
+        jdbcTemplate.query(
+                "SELECT id, full_url FROM url_mapping WHERE id BETWEEN ? AND ? AND deleted_at IS NULL ORDER BY id",
+                index, fromId, toId);
+        return chunk;
+    }
+
+    public synchronized void add(UrlMapping mapping) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingWrites != null) {
+            pendingWrites.add(new PendingWrite(mapping.getId(), mapping.getFullUrl()));
+        }
+        index.add(mapping.getId(), mapping.getFullUrl());
+    }
+
+    public synchronized void remove(long id) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingWrites != null) {
+            pendingWrites.add(new PendingWrite(id, null));
+        }
+        index.remove(id);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Ids after {@code afterId} whose URL may contain the already normalized {@code query}.
+     */
+    public long[] candidates(String query, long afterId, int max) {
+        return index.candidates(query, afterId, max);
+    }
+
+    public int getDocumentCount() {
+        return index.getDocumentCount();
+    }
+
+    @Scheduled(fixedDelayString = "${urlshortener.search.compact-interval-ms:60000}")
+    public void compactIfNeeded() {
+        TrigramIndex current = index;
+        if (loaded && current.getRemovedCount() >= compactThreshold) {
+            long freed = current.compact(COMPACT_LISTS_PER_BATCH);
+            log.debug("Compacted search index, freed {} postings", freed);
+        }
+    }
+
+    private static final class PendingWrite {
+        private final long id;
+        // Null for a removal
+        private final String fullUrl;
+
+        private PendingWrite(long id, String fullUrl) {
+            this.id = id;
+            this.fullUrl = fullUrl;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tpx.urlshortener.search;
+
+import com.tpx.urlshortener.model.UrlMapping;
+
+import java.util.List;
+
+public class UrlSearchResult {
+    private final List<UrlMapping> mappings;
+    // Id to pass as the cursor for the next page; null when there are no more results
+    private final Long nextCursor;
+
+    public UrlSearchResult(List<UrlMapping> mappings, Long nextCursor) {
+        this.mappings = mappings;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UrlMapping> getMappings() {
+        return mappings;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the aliases read since the last flush and writes their last-access time in a few
+ * batched updates, so redirects (including redirect-cache hits) never write to the database.
+ */
+@Component
+public class AccessRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessRecorder.class);
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final UrlMappingRepository repository;
+
+    public AccessRecorder(UrlMappingRepository repository) {
+        this.repository = repository;
+    }
+
+    public void record(String alias) {
+        pending.add(alias);
+    }
+
+    @Scheduled(fixedDelayString = "${urlshortener.tiering.access-flush-ms:10000}")
+    public synchronized void flush() {
+        Instant now = Instant.now();
+        List<String> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        // Removing while iterating keeps aliases recorded concurrently for the next flush
+        for (Iterator<String> it = pending.iterator(); it.hasNext(); ) {
+            batch.add(it.next());
+            it.remove();
+            if (batch.size() == FLUSH_BATCH_SIZE) {
+                write(batch, now);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, now);
+        }
+    }
+
+    private void write(List<String> aliases, Instant now) {
+        try {
+            repository.markAccessed(aliases, now);
+        } catch (RuntimeException e) {
+            log.warn("Failed to record access time for {} aliases", aliases.size(), e);
+        }
+    }
+}
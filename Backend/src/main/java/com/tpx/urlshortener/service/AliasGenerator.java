@@ -1,6 +1,5 @@
 package com.tpx.urlshortener.service;
 
-import com.tpx.urlshortener.repository.UrlMappingRepository;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
@@ -12,24 +11,13 @@ public class AliasGenerator {
             "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
     private static final int DEFAULT_MIN_LENGTH = 6;
     private static final int DEFAULT_MAX_LENGTH = 8;
-    private static final int MAX_RETRIES = 20;
 
     private final SecureRandom random = new SecureRandom();
-    private final UrlMappingRepository repository;
 
-    public AliasGenerator(UrlMappingRepository repository) {
-        this.repository = repository;
-    }
-
-    public String generateUniqueAlias() {
-        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
-            int length = DEFAULT_MIN_LENGTH + random.nextInt(DEFAULT_MAX_LENGTH - DEFAULT_MIN_LENGTH + 1);
-            String candidate = randomBase62(length);
-            if (!repository.existsByAlias(candidate)) {
-                return candidate;
-            }
-        }
-        throw new IllegalStateException("Unable to generate a unique alias after retries");
+    // Candidate without an existence check; callers rely on the unique index and retry on conflict
+    public String nextCandidate() {
+        int length = DEFAULT_MIN_LENGTH + random.nextInt(DEFAULT_MAX_LENGTH - DEFAULT_MIN_LENGTH + 1);
+        return randomBase62(length);
     }
 
     private String randomBase62(int length) {
@@ -0,0 +1,315 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.tiering.ColdStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory radix tree of every alias (hot and cold) for prefix search and availability checks.
+ *
+ * Nodes are immutable. Writers serialize, copy the path from the root to the changed node and
+ * publish a new root through a volatile field, so readers never lock and always see a
+ * consistent tree. Children are kept sorted by their first character, which makes prefix
+ * results come out in alias order.
+ */
+@Component
+public class AliasIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AliasIndex.class);
+    private static final Node EMPTY = new Node("", false, new char[0], new Node[0]);
+
+    private final UrlMappingRepository repository;
+    private final ColdStore coldStore;
+
+    private volatile Node root = EMPTY;
+    private volatile boolean loaded;
+    private volatile int size;
+    // Writes that arrive while the initial load runs; replayed on top of the loaded tree
+    private List<PendingWrite> pendingWrites;
+
+    public AliasIndex(UrlMappingRepository repository, ColdStore coldStore) {
+        this.repository = repository;
+        this.coldStore = coldStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            pendingWrites = new ArrayList<>();
+        }
+        List<String> aliases = new ArrayList<>(repository.findAllAliases());
+        coldStore.forEachLive(entry -> aliases.add(entry.getAlias()));
+        load(aliases);
+        log.info("Indexed {} aliases in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replaces the tree with the given aliases, then applies writes made since {@link #run} began.
+     */
+    synchronized void load(List<String> aliases) {
+        Node built = EMPTY;
+        int count = 0;
+        for (String alias : aliases) {
+            Node next = insert(built, alias, 0);
+            if (next != built) {
+                count++;
+                built = next;
+            }
+        }
+        root = built;
+        size = count;
+        List<PendingWrite> replay = pendingWrites;
+        pendingWrites = null;
+        if (replay != null) {
+            for (PendingWrite write : replay) {
+                if (write.added) {
+                    add(write.alias);
+                } else {
+                    remove(write.alias);
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public synchronized void add(String alias) {
+        if (pendingWrites != null) {
+            pendingWrites.add(new PendingWrite(alias, true));
+        }
+        Node next = insert(root, alias, 0);
+        if (next != root) {
+            root = next;
+            size++;
+        }
+    }
+
+    public synchronized void remove(String alias) {
+        if (pendingWrites != null) {
+            pendingWrites.add(new PendingWrite(alias, false));
+        }
+        Node next = delete(root, alias, 0, true);
+        if (next != root) {
+            root = next == null ? EMPTY : next;
+            size--;
+        }
+    }
+
+    public boolean contains(String alias) {
+        Node node = root;
+        int i = 0;
+        while (i < alias.length()) {
+            Node child = node.child(alias.charAt(i));
+            if (child == null || !alias.startsWith(child.label, i)) {
+                return false;
+            }
+            i += child.label.length();
+            node = child;
+        }
+        return node.terminal;
+    }
+
+    /**
+     * Returns up to {@code limit} aliases starting with {@code prefix}, in alias order.
+     */
+    public List<String> withPrefix(String prefix, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Node node = root;
+        StringBuilder path = new StringBuilder(64);
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            int remaining = prefix.length() - i;
+            if (remaining <= child.label.length()) {
+                // The prefix ends inside (or at the end of) this edge
+                if (!child.label.startsWith(prefix.substring(i))) {
+                    return Collections.emptyList();
+                }
+            } else if (!prefix.startsWith(child.label, i)) {
+                return Collections.emptyList();
+            }
+            path.append(child.label);
+            i += child.label.length();
+            node = child;
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, 64));
+        collect(node, path, result, limit);
+        return result;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> result, int limit) {
+        if (node.terminal) {
+            result.add(path.toString());
+        }
+        for (Node child : node.children) {
+            if (result.size() >= limit) {
+                return;
+            }
+            int mark = path.length();
+            path.append(child.label);
+            collect(child, path, result, limit);
+            path.setLength(mark);
+        }
+    }
+
+    // Returns the same node instance when nothing changed
+    private static Node insert(Node node, String key, int i) {
+        if (i == key.length()) {
+            return node.terminal ? node : new Node(node.label, true, node.firstChars, node.children);
+        }
+        int slot = Arrays.binarySearch(node.firstChars, key.charAt(i));
+        if (slot < 0) {
+            Node leaf = new Node(key.substring(i), true, new char[0], new Node[0]);
+            return node.withChildAdded(-slot - 1, leaf);
+        }
+        Node child = node.children[slot];
+        int common = commonPrefix(child.label, key, i);
+        if (common == child.label.length()) {
+            Node updated = insert(child, key, i + common);
+            return updated == child ? node : node.withChildReplaced(slot, updated);
+        }
+        // Split the edge at the point where the key diverges
+        Node tail = new Node(child.label.substring(common), child.terminal, child.firstChars, child.children);
+        Node split;
+        if (i + common == key.length()) {
+            split = new Node(child.label.substring(0, common), true,
+                    new char[]{tail.label.charAt(0)}, new Node[]{tail});
+        } else {
+            Node leaf = new Node(key.substring(i + common), true, new char[0], new Node[0]);
+            boolean tailFirst = tail.label.charAt(0) < leaf.label.charAt(0);
+            split = new Node(child.label.substring(0, common), false,
+                    tailFirst ? new char[]{tail.label.charAt(0), leaf.label.charAt(0)}
+                            : new char[]{leaf.label.charAt(0), tail.label.charAt(0)},
+                    tailFirst ? new Node[]{tail, leaf} : new Node[]{leaf, tail});
+        }
+        return node.withChildReplaced(slot, split);
+    }
+
+    // Returns the same node when the key is absent, and null when the node disappears
+    private static Node delete(Node node, String key, int i, boolean isRoot) {
+        if (i == key.length()) {
+            if (!node.terminal) {
+                return node;
+            }
+            Node cleared = new Node(node.label, false, node.firstChars, node.children);
+            return isRoot ? cleared : compress(cleared);
+        }
+        int slot = Arrays.binarySearch(node.firstChars, key.charAt(i));
+        if (slot < 0) {
+            return node;
+        }
+        Node child = node.children[slot];
+        if (!key.startsWith(child.label, i)) {
+            return node;
+        }
+        Node updated = delete(child, key, i + child.label.length(), false);
+        if (updated == child) {
+            return node;
+        }
+        Node next = updated == null ? node.withChildRemoved(slot) : node.withChildReplaced(slot, updated);
+        return isRoot ? next : compress(next);
+    }
+
+    // A non-terminal node with no children goes away; one with a single child absorbs it
+    private static Node compress(Node node) {
+        if (node.terminal) {
+            return node;
+        }
+        if (node.children.length == 0) {
+            return null;
+        }
+        if (node.children.length == 1) {
+            Node only = node.children[0];
+            return new Node(node.label + only.label, only.terminal, only.firstChars, only.children);
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(offset + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static final class Node {
+        private final String label;
+        private final boolean terminal;
+        private final char[] firstChars;
+        private final Node[] children;
+
+        private Node(String label, boolean terminal, char[] firstChars, Node[] children) {
+            this.label = label;
+            this.terminal = terminal;
+            this.firstChars = firstChars;
+            this.children = children;
+        }
+
+        private Node child(char c) {
+            int slot = Arrays.binarySearch(firstChars, c);
+            return slot < 0 ? null : children[slot];
+        }
+
+        private Node withChildAdded(int slot, Node child) {
+            char[] chars = new char[firstChars.length + 1];
+            Node[] nodes = new Node[children.length + 1];
+            System.arraycopy(firstChars, 0, chars, 0, slot);
+            System.arraycopy(children, 0, nodes, 0, slot);
+            chars[slot] = child.label.charAt(0);
+            nodes[slot] = child;
+            System.arraycopy(firstChars, slot, chars, slot + 1, firstChars.length - slot);
+            System.arraycopy(children, slot, nodes, slot + 1, children.length - slot);
+            return new Node(label, terminal, chars, nodes);
+        }
+
+        private Node withChildReplaced(int slot, Node child) {
+            Node[] nodes = children.clone();
+            nodes[slot] = child;
+            return new Node(label, terminal, firstChars, nodes);
+        }
+
+        private Node withChildRemoved(int slot) {
+            char[] chars = new char[firstChars.length - 1];
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(firstChars, 0, chars, 0, slot);
+            System.arraycopy(children, 0, nodes, 0, slot);
+            System.arraycopy(firstChars, slot + 1, chars, slot, firstChars.length - slot - 1);
+            System.arraycopy(children, slot + 1, nodes, slot, children.length - slot - 1);
+            return new Node(label, terminal, chars, nodes);
+        }
+    }
+
+    private static final class PendingWrite {
+        private final String alias;
+        private final boolean added;
+
+        private PendingWrite(String alias, boolean added) {
+            this.alias = alias;
+            this.added = added;
+        }
+    }
+}
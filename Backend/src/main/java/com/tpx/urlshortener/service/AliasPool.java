@@ -0,0 +1,286 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.exception.AliasPoolExhaustedException;
+import com.tpx.urlshortener.replication.ReplicationManager;
+import com.tpx.urlshortener.repository.AliasPoolBlockRepository;
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.tiering.ColdStore;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Optional pool of generated aliases that are already known to be unused, so that
+ * {@link UrlService#shorten} only dequeues one instead of generating and checking it inline.
+ *
+ * A single producer thread reserves ranges of a persistent counter with one UPDATE each and
+ * maps every counter value through a keyed permutation of [0, 62^7) to a 7-character base62
+ * alias. The key is drawn from {@link SecureRandom} when the counter row is created and stored
+ * with it, so issued aliases are neither guessable from the source nor different per node. Values are never reserved twice, so aliases stay unique across restarts; values left in
+ * the pool at shutdown are simply skipped. Each batch is checked against H2 and the cold tier
+ * before it is queued, since custom and random aliases share the namespace. The producer tops
+ * the pool up to {@code size} whenever it drops below {@code low-watermark}.
+ */
+@Component
+public class AliasPool implements ApplicationRunner {
+
+    public enum ExhaustedPolicy { FALLBACK, FAIL }
+
+    static final int ALIAS_LENGTH = 7;
+    static final long SPACE = 3_521_614_606_208L; // 62^7
+
+    private static final Logger log = LoggerFactory.getLogger(AliasPool.class);
+    private static final String COUNTER_NAME = "default";
+    private static final char[] BASE62 =
+            "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    // 62^7 < 2^42, so a 42-bit Feistel network plus cycle walking permutes [0, SPACE)
+    private static final int HALF_BITS = 21;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+    private static final long IDLE_CHECK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AliasPoolBlockRepository blockRepository;
+    private final UrlMappingRepository mappingRepository;
+    private final ColdStore coldStore;
+    private final ReplicationManager replication;
+    private final boolean enabled;
+    private final int size;
+    private final int lowWatermark;
+    private final int reserveBlockSize;
+    private final int checkBatchSize;
+    private final ExhaustedPolicy exhaustedPolicy;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private volatile boolean running;
+    private volatile boolean counterExhausted;
+    private volatile Thread producer;
+    private volatile long refills;
+    private volatile long refillNanos;
+
+    // Owned by the producer thread: the permutation key and the unissued part of the current reserved range
+    private Long key;
+    private long nextValue;
+    private long blockEnd;
+
+    public AliasPool(AliasPoolBlockRepository blockRepository, UrlMappingRepository mappingRepository,
+                     ColdStore coldStore, ReplicationManager replication,
+                     @Value("${urlshortener.alias-pool.enabled:false}") boolean enabled,
+                     @Value("${urlshortener.alias-pool.size:10000}") int size,
+                     @Value("${urlshortener.alias-pool.low-watermark:2000}") int lowWatermark,
+                     @Value("${urlshortener.alias-pool.reserve-block-size:10000}") int reserveBlockSize,
+                     @Value("${urlshortener.alias-pool.check-batch-size:500}") int checkBatchSize,
+                     @Value("${urlshortener.alias-pool.exhausted-policy:fallback}") String exhaustedPolicy) {
+        if (lowWatermark >= size) {
+            throw new IllegalArgumentException("Alias pool low-watermark must be below size: " + lowWatermark);
+        }
+        this.blockRepository = blockRepository;
+        this.mappingRepository = mappingRepository;
+        this.coldStore = coldStore;
+        this.replication = replication;
+        this.enabled = enabled;
+        this.size = size;
+        this.lowWatermark = lowWatermark;
+        this.reserveBlockSize = reserveBlockSize;
+        this.checkBatchSize = checkBatchSize;
+        this.exhaustedPolicy = ExhaustedPolicy.valueOf(exhaustedPolicy.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            start();
+        }
+    }
+
+    synchronized void start() {
+        running = true;
+        producer = new Thread(this::produceLoop, "alias-pool-producer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Takes a pooled alias. When the pool is empty this returns null under the FALLBACK policy,
+     * so the caller generates one inline, and throws under FAIL. Also null while disabled.
+     */
+    public String poll() {
+        if (!enabled) {
+            return null;
+        }
+        String alias = queue.poll();
+        if (alias == null) {
+            exhausted.increment();
+            LockSupport.unpark(producer);
+            if (exhaustedPolicy == ExhaustedPolicy.FAIL && !counterExhausted) {
+                throw new AliasPoolExhaustedException();
+            }
+            return null;
+        }
+        if (depth.decrementAndGet() == lowWatermark - 1) {
+            LockSupport.unpark(producer);
+        }
+        return alias;
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+
+    /**
+     * Generated aliases dropped because something already used them.
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    public long getRefills() {
+        return refills;
+    }
+
+    public double getRefillSeconds() {
+        return refillNanos / 1e9;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (producer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(producer);
+        try {
+            producer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void produceLoop() {
+        while (running) {
+            long wait = IDLE_CHECK_NANOS;
+            // Followers reject writes. A promoted follower's counter may trail the old leader's, but
+            // the existence check below skips the aliases the old leader already handed out
+            if (depth.get() < lowWatermark && !counterExhausted
+                    && replication.getRole() != ReplicationManager.Role.FOLLOWER) {
+                try {
+                    refill();
+                } catch (RuntimeException e) {
+                    log.warn("Refilling the alias pool failed", e);
+                    wait = RETRY_NANOS;
+                }
+            }
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    /**
+     * Tops the pool up to {@code size}. Producer thread only (tests call it directly).
+     */
+    void refill() {
+        long start = System.nanoTime();
+        while (depth.get() < size) {
+            if (nextValue == blockEnd && !reserveBlock()) {
+                return;
+            }
+            int count = (int) Math.min(Math.min(checkBatchSize, size - depth.get()), blockEnd - nextValue);
+            List<String> candidates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                candidates.add(aliasFor(nextValue++));
+            }
+            Set<String> taken = new HashSet<>(mappingRepository.findExistingAliases(candidates));
+            for (String candidate : candidates) {
+                if (taken.contains(candidate) || coldStore.contains(candidate)) {
+                    skipped.increment();
+                } else {
+                    queue.offer(candidate);
+                    depth.incrementAndGet();
+                }
+            }
+        }
+        refillNanos += System.nanoTime() - start;
+        refills++;
+    }
+
+    private boolean reserveBlock() {
+        List<Long> reserved = blockRepository.reserve(COUNTER_NAME, reserveBlockSize);
+        if (reserved.isEmpty()) {
+            blockRepository.createIfMissing(COUNTER_NAME, permutationKey());
+            reserved = blockRepository.reserve(COUNTER_NAME, reserveBlockSize);
+        }
+        long start = reserved.get(0);
+        if (start >= SPACE) {
+            log.error("Alias pool counter is exhausted; generating aliases inline from now on");
+            counterExhausted = true;
+            return false;
+        }
+        nextValue = start;
+        blockEnd = Math.min(SPACE, start + reserveBlockSize);
+        return true;
+    }
+
+    private long permutationKey() {
+        if (key == null) {
+            long candidate = new SecureRandom().nextLong();
+            blockRepository.createIfMissing(COUNTER_NAME, candidate);
+            blockRepository.assignKeyIfMissing(COUNTER_NAME, candidate);
+            key = blockRepository.findPermutationKey(COUNTER_NAME);
+        }
+        return key;
+    }
+
+    String aliasFor(long value) {
+        long key = permutationKey();
+        long permuted = value;
+        do {
+            permuted = feistel(permuted, key);
+        } while (permuted >= SPACE);
+        char[] alias = new char[ALIAS_LENGTH];
+        for (int i = ALIAS_LENGTH - 1; i >= 0; i--) {
+            alias[i] = BASE62[(int) (permuted % 62)];
+            permuted /= 62;
+        }
+        return new String(alias);
+    }
+
+    private static long feistel(long value, long key) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ (key + round * 0x9E3779B97F4A7C15L)) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
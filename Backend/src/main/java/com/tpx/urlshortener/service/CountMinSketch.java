@@ -0,0 +1,91 @@
+package com.tpx.urlshortener.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free Count-Min sketch. Counters only ever over-estimate, and memory
+ * stays at depth x width longs however many distinct keys are added.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive");
+        }
+        this.depth = depth;
+        // Round width up to a power of two so a row index is a mask instead of a modulo
+        int rounded = 1;
+        while (rounded < width) {
+            rounded <<= 1;
+        }
+        this.width = rounded;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(depth * this.width);
+    }
+
+    public long add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long value = counters.incrementAndGet(index(row, h1, h2));
+            if (value < min) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    public long estimate(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long value = counters.get(index(row, h1, h2));
+            if (value < min) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    public void decay(double factor) {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, v -> (long) (v * factor));
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private int index(int row, int h1, int h2) {
+        // Kirsch-Mitzenmacher: derive one hash per row from two base hashes
+        int combined = h1 + row * h2;
+        return row * width + ((combined ^ (combined >>> 16)) & mask);
+    }
+
+    private static long hash64(String key) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,114 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.dto.HotAlias;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks which aliases are currently hot using an exponentially decayed Count-Min sketch
+ * plus a bounded candidate set for the top-K. Memory is fixed regardless of how many
+ * distinct aliases are seen.
+ */
+@Component
+public class HotKeyTracker {
+
+    private static final double LN2 = Math.log(2);
+
+    private final CountMinSketch sketch;
+    private final int topK;
+    private final int maxCandidates;
+    private final double halfLifeSeconds;
+    private final double decayFactor;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+    private volatile long admissionThreshold;
+
+    public HotKeyTracker(@Value("${urlshortener.hotkeys.top-k:100}") int topK,
+                         @Value("${urlshortener.hotkeys.sketch-depth:4}") int sketchDepth,
+                         @Value("${urlshortener.hotkeys.sketch-width:4096}") int sketchWidth,
+                         @Value("${urlshortener.hotkeys.half-life-seconds:60}") double halfLifeSeconds,
+                         @Value("${urlshortener.hotkeys.decay-interval-ms:5000}") long decayIntervalMs) {
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        this.topK = topK;
+        this.maxCandidates = topK * 2;
+        this.halfLifeSeconds = halfLifeSeconds;
+        this.decayFactor = Math.pow(0.5, decayIntervalMs / (halfLifeSeconds * 1000.0));
+    }
+
+    public void record(String alias) {
+        long estimate = sketch.add(alias);
+        if (estimate < admissionThreshold && !candidates.containsKey(alias)) {
+            return;
+        }
+        candidates.put(alias, estimate);
+        if (candidates.size() > maxCandidates) {
+            prune();
+        }
+    }
+
+    public boolean isHot(String alias) {
+        return candidates.containsKey(alias) && sketch.estimate(alias) >= admissionThreshold;
+    }
+
+    public List<HotAlias> topK(int limit) {
+        List<String> ranked = rankedCandidates(Math.min(limit, topK));
+        List<HotAlias> result = new ArrayList<>(ranked.size());
+        for (String alias : ranked) {
+            result.add(new HotAlias(alias, sketch.estimate(alias) * LN2 / halfLifeSeconds));
+        }
+        return result;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public List<String> hotAliases() {
+        return rankedCandidates(topK);
+    }
+
+    @Scheduled(fixedRateString = "${urlshortener.hotkeys.decay-interval-ms:5000}")
+    public void decay() {
+        sketch.decay(decayFactor);
+        candidates.replaceAll((alias, count) -> sketch.estimate(alias));
+        candidates.values().removeIf(count -> count == 0);
+        admissionThreshold = (long) (admissionThreshold * decayFactor);
+    }
+
+    private List<String> rankedCandidates(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (String alias : candidates.keySet()) {
+            entries.add(Map.entry(alias, sketch.estimate(alias)));
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        List<String> result = new ArrayList<>(Math.min(limit, entries.size()));
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            result.add(entries.get(i).getKey());
+        }
+        return result;
+    }
+
+    private void prune() {
+        // Only one request thread prunes; everyone else carries on without waiting
+        if (!pruneLock.tryLock()) {
+            return;
+        }
+        try {
+            List<String> keep = rankedCandidates(topK);
+            candidates.keySet().retainAll(keep);
+            if (!keep.isEmpty()) {
+                admissionThreshold = sketch.estimate(keep.get(keep.size() - 1));
+            }
+        } finally {
+            pruneLock.unlock();
+        }
+    }
+}
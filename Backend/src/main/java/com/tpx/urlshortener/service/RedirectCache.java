@@ -0,0 +1,153 @@
+package com.tpx.urlshortener.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory alias -> Location cache for the redirect path. Once full, only aliases
+ * the {@link HotKeyTracker} considers hot are admitted, and they displace non-hot entries.
+ *
+ * A fill after a cache miss races with deletes: the Location read from the database may be
+ * invalidated before it is cached. Readers therefore take a {@link #stamp} before the read and
+ * pass it to {@link #put(String, String, long)}, which drops the fill if the alias was
+ * invalidated in between. Stamps are per stripe of aliases, so an unrelated invalidation in the
+ * same stripe only costs a skipped fill.
+ */
+@Component
+public class RedirectCache {
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final Map<String, CachedRedirect> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final HotKeyTracker hotKeyTracker;
+    private final int capacity;
+
+    public RedirectCache(HotKeyTracker hotKeyTracker,
+                         @Value("${urlshortener.redirect-cache.capacity:10000}") int capacity) {
+        this.hotKeyTracker = hotKeyTracker;
+        this.capacity = capacity;
+    }
+
+    public String get(String alias) {
+        CachedRedirect cached = entries.get(alias);
+        return cached == null ? null : cached.getLocation();
+    }
+
+    /**
+     * Invalidation stamp to take before reading the Location that {@link #put(String, String, long)}
+     * will cache.
+     */
+    public long stamp(String alias) {
+        return invalidations.get(stripe(alias));
+    }
+
+    /**
+     * Caches a Location read after {@code stamp} was taken, unless the alias has been invalidated
+     * since. Checked under the entry's lock, so a concurrent invalidation either prevents the fill
+     * or removes it afterwards.
+     */
+    public void put(String alias, String location, long stamp) {
+        if (!admit(alias)) {
+            return;
+        }
+        CachedRedirect fresh = new CachedRedirect(location.getBytes(StandardCharsets.UTF_8));
+        entries.compute(alias, (key, current) -> invalidations.get(stripe(key)) == stamp ? fresh : current);
+    }
+
+    /**
+     * Unconditional fill, for loading the cache before the node serves traffic.
+     */
+    public void put(String alias, String location) {
+        put(alias, location.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void put(String alias, byte[] locationBytes) {
+        if (admit(alias)) {
+            entries.put(alias, new CachedRedirect(locationBytes));
+        }
+    }
+
+    public void invalidate(String alias) {
+        // Bump first: a fill that has not reached its check yet will see the new stamp
+        invalidations.incrementAndGet(stripe(alias));
+        entries.remove(alias);
+    }
+
+    public void forEach(BiConsumer<String, byte[]> consumer) {
+        entries.forEach((alias, cached) -> consumer.accept(alias, cached.getLocationBytes()));
+    }
+
+    public byte[] getLocationBytes(String alias) {
+        CachedRedirect cached = entries.get(alias);
+        return cached == null ? null : cached.getLocationBytes();
+    }
+
+    /**
+     * Returns the response bytes {@code builder} makes from the cached Location, building them
+     * once per cache entry, or null if the alias is not cached.
+     */
+    public byte[] getResponse(String alias, Function<byte[], byte[]> builder) {
+        CachedRedirect cached = entries.get(alias);
+        if (cached == null) {
+            return null;
+        }
+        byte[] response = cached.response;
+        if (response == null) {
+            // Racing builders produce equal bytes, so either may win
+            response = builder.apply(cached.getLocationBytes());
+            cached.response = response;
+        }
+        return response;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean admit(String alias) {
+        if (entries.size() >= capacity && !entries.containsKey(alias)) {
+            return hotKeyTracker.isHot(alias) && evictOneColdEntry();
+        }
+        return true;
+    }
+
+    private static int stripe(String alias) {
+        return Math.floorMod(alias.hashCode(), INVALIDATION_STRIPES);
+    }
+
+    private boolean evictOneColdEntry() {
+        for (String candidate : entries.keySet()) {
+            if (!hotKeyTracker.isHot(candidate) && entries.remove(candidate) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class CachedRedirect {
+        private final byte[] locationBytes;
+        private final String location;
+        private volatile byte[] response;
+
+        private CachedRedirect(byte[] locationBytes) {
+            this.locationBytes = locationBytes;
+            this.location = new String(locationBytes, StandardCharsets.UTF_8);
+        }
+
+        private byte[] getLocationBytes() {
+            return locationBytes;
+        }
+
+        private String getLocation() {
+            return location;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.tpx.urlshortener.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact on-disk form of the hot redirect set:
+ * <pre>
+ * magic(int) version(int) maxId(long) rowCount(long) count(int)
+ * count x [aliasLength(short) alias(UTF-8) locationLength(int) location(UTF-8)]
+ * crc32(long) of everything before it
+ * </pre>
+ */
+public final class RedirectSnapshotFile {
+
+    private static final int MAGIC = 0x55524C53;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    private static final int TRAILER_BYTES = 8;
+
+    private RedirectSnapshotFile() {
+    }
+
+    public static void write(Path path, long maxId, long rowCount, List<Entry> entries) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), crc))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(maxId);
+            out.writeLong(rowCount);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                byte[] alias = entry.getAlias().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(alias.length);
+                out.write(alias);
+                out.writeInt(entry.getLocation().length);
+                out.write(entry.getLocation());
+            }
+            out.flush();
+            // The checksum covers the bytes above, so it is appended outside the checked stream
+            DataOutputStream trailer = new DataOutputStream(file);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the snapshot read-only and decodes it. Returns null when the file is missing,
+     * truncated, from another version or fails its checksum.
+     */
+    public static Snapshot read(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_BYTES + TRAILER_BYTES) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int bodyLength = buffer.limit() - TRAILER_BYTES;
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit(bodyLength);
+            crc.update(body);
+            if (crc.getValue() != buffer.getLong(bodyLength)) {
+                return null;
+            }
+
+            buffer.limit(bodyLength);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long maxId = buffer.getLong();
+            long rowCount = buffer.getLong();
+            int count = buffer.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] alias = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(alias);
+                byte[] location = new byte[buffer.getInt()];
+                buffer.get(location);
+                entries.add(new Entry(new String(alias, StandardCharsets.UTF_8), location));
+            }
+            return new Snapshot(maxId, rowCount, entries);
+        }
+    }
+
+    public static final class Entry {
+        private final String alias;
+        private final byte[] location;
+
+        public Entry(String alias, byte[] location) {
+            this.alias = alias;
+            this.location = location;
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public byte[] getLocation() {
+            return location;
+        }
+    }
+
+    public static final class Snapshot {
+        private final long maxId;
+        private final long rowCount;
+        private final List<Entry> entries;
+
+        public Snapshot(long maxId, long rowCount, List<Entry> entries) {
+            this.maxId = maxId;
+            this.rowCount = rowCount;
+            this.entries = entries;
+        }
+
+        public long getMaxId() {
+            return maxId;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+    }
+}
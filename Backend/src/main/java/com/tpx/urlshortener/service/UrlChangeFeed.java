@@ -0,0 +1,288 @@
+package com.tpx.urlshortener.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans URL create/delete events out to many change-feed subscribers.
+ *
+ * Publishers never block: they enqueue a command for a single dispatcher thread, which owns
+ * the sequence counter, the replay history and the subscriber list. Each subscriber has a
+ * bounded buffer drained on a shared sender pool; a subscriber whose buffer overflows is
+ * evicted and has to reconnect (resuming from its last sequence).
+ *
+ * Sequences restart at zero in every process, so clients see positions of the form
+ * {@code <epoch>-<sequence>} with a random per-instance epoch. A position from another epoch
+ * (an earlier run, or another node behind the load balancer) always resolves to a reset.
+ */
+@Component
+public class UrlChangeFeed {
+
+    public static final String CREATED = "created";
+    public static final String DELETED = "deleted";
+
+    private static final Logger log = LoggerFactory.getLogger(UrlChangeFeed.class);
+    private static final Object HEARTBEAT = new Object();
+
+    private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+    private final Change[] history;
+    private final int bufferSize;
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private final LongAdder evictions = new LongAdder();
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    // Owned by the dispatcher thread
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private long lastAssigned;
+
+    private volatile long currentSequence;
+    private volatile int subscriberCount;
+    private volatile boolean running = true;
+
+    public UrlChangeFeed(@Value("${urlshortener.change-feed.history-size:10000}") int historySize,
+                         @Value("${urlshortener.change-feed.buffer-size:256}") int bufferSize,
+                         @Value("${urlshortener.change-feed.sender-threads:2}") int senderThreads) {
+        this.history = new Change[historySize];
+        this.bufferSize = bufferSize;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "url-change-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "url-change-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public interface Listener {
+        void onChange(String position, String type, String alias, String fullUrl) throws IOException;
+
+        // The requested resume point is no longer in history; the client must reload in full
+        void onReset(String position) throws IOException;
+
+        void onHeartbeat() throws IOException;
+
+        void onClosed();
+    }
+
+    public void publishCreated(String alias, String fullUrl) {
+        commands.offer(() -> dispatch(CREATED, alias, fullUrl));
+    }
+
+    public void publishDeleted(String alias) {
+        commands.offer(() -> dispatch(DELETED, alias, null));
+    }
+
+    /**
+     * Registers a listener. With a non-null {@code since} position every retained change after
+     * it is replayed first.
+     */
+    public Subscription subscribe(String since, Listener listener) {
+        Subscription subscription = new Subscription(listener, bufferSize);
+        commands.offer(() -> register(subscription, since));
+        return subscription;
+    }
+
+    public long currentSequence() {
+        return currentSequence;
+    }
+
+    public String currentPosition() {
+        return position(currentSequence);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Scheduled(fixedRateString = "${urlshortener.change-feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        commands.offer(() -> {
+            for (Subscription subscription : subscriptions) {
+                deliver(subscription, HEARTBEAT);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdownNow();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                commands.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Change feed command failed", e);
+            }
+        }
+    }
+
+    private void dispatch(String type, String alias, String fullUrl) {
+        Change change = new Change(++lastAssigned, type, alias, fullUrl);
+        history[(int) (change.sequence % history.length)] = change;
+        currentSequence = change.sequence;
+        subscriptions.removeIf(Subscription::isClosed);
+        subscriberCount = subscriptions.size();
+        for (Subscription subscription : subscriptions) {
+            deliver(subscription, change);
+        }
+    }
+
+    private void register(Subscription subscription, String position) {
+        Long since = position != null ? sequenceOf(position) : null;
+        if (position != null && since == null) {
+            deliver(subscription, new Reset(lastAssigned));
+        } else if (since != null && since != lastAssigned) {
+            long oldestRetained = Math.max(1, lastAssigned - history.length + 1);
+            // A backlog larger than the client's buffer would only get it evicted again, so it
+            // falls back to a full reload like an expired position does
+            if (since > lastAssigned || since + 1 < oldestRetained || lastAssigned - since > bufferSize) {
+                deliver(subscription, new Reset(lastAssigned));
+            } else {
+                for (long sequence = since + 1; sequence <= lastAssigned; sequence++) {
+                    deliver(subscription, history[(int) (sequence % history.length)]);
+                }
+            }
+        }
+        if (!subscription.isClosed()) {
+            subscriptions.add(subscription);
+        }
+        subscriptions.removeIf(Subscription::isClosed);
+        subscriberCount = subscriptions.size();
+    }
+
+    private String position(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // The sequence of a position issued by this instance, or null for another epoch or garbage
+    private Long sequenceOf(String position) {
+        if (!position.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(position.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void deliver(Subscription subscription, Object item) {
+        if (subscription.isClosed()) {
+            return;
+        }
+        if (!subscription.buffer.offer(item)) {
+            evictions.increment();
+            subscription.close();
+            return;
+        }
+        if (subscription.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            Object item;
+            while (!subscription.isClosed() && (item = subscription.buffer.poll()) != null) {
+                send(subscription.listener, item);
+            }
+        } catch (IOException | RuntimeException e) {
+            subscription.close();
+            return;
+        } finally {
+            subscription.draining.set(false);
+        }
+        // Items may have arrived after the last poll but before the flag was cleared
+        if (!subscription.buffer.isEmpty() && !subscription.isClosed()
+                && subscription.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscription));
+        }
+    }
+
+    private void send(Listener listener, Object item) throws IOException {
+        if (item == HEARTBEAT) {
+            listener.onHeartbeat();
+        } else if (item instanceof Reset) {
+            listener.onReset(position(((Reset) item).sequence));
+        } else {
+            Change change = (Change) item;
+            listener.onChange(position(change.sequence), change.type, change.alias, change.fullUrl);
+        }
+    }
+
+    public static final class Subscription {
+        private final Listener listener;
+        private final BlockingQueue<Object> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Listener listener, int bufferSize) {
+            this.listener = listener;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        public boolean isClosed() {
+            return closed.get();
+        }
+
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                listener.onClosed();
+            }
+        }
+    }
+
+    private static final class Change {
+        private final long sequence;
+        private final String type;
+        private final String alias;
+        private final String fullUrl;
+
+        private Change(long sequence, String type, String alias, String fullUrl) {
+            this.sequence = sequence;
+            this.type = type;
+            this.alias = alias;
+            this.fullUrl = fullUrl;
+        }
+    }
+
+    private static final class Reset {
+        private final long sequence;
+
+        private Reset(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
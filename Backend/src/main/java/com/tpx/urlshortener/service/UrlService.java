@@ -4,67 +4,575 @@ import com.tpx.urlshortener.exception.AliasAlreadyExistsException;
 import com.tpx.urlshortener.exception.InvalidInputException;
 import com.tpx.urlshortener.exception.NotFoundException;
 import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.replication.ReplicaStore;
+import com.tpx.urlshortener.replication.ReplicationManager;
 import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.repository.UrlView;
+import com.tpx.urlshortener.repository.UrlViewRepository;
+import com.tpx.urlshortener.search.TrigramIndex;
+import com.tpx.urlshortener.search.UrlSearchIndex;
+import com.tpx.urlshortener.search.UrlSearchResult;
+import com.tpx.urlshortener.tiering.ColdEntry;
+import com.tpx.urlshortener.tiering.ColdStore;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
-public class UrlService {
+public class UrlService implements ReplicaStore {
 
     private static final String ALIAS_REGEX = "^[A-Za-z0-9_-]{3,128}$";
+    private static final int MAX_ALIAS_LENGTH = 128;
+    // First path segments served by the application itself; as aliases they could never redirect
+    private static final Set<String> RESERVED_ALIASES = Set.of("aliases", "urls", "shorten", "admin", "actuator",
+            "h2-console");
+    private static final int NUMBERED_SUGGESTION_ATTEMPTS = 20;
+    private static final char[] SUGGESTION_SUFFIX_CHARS = "abcdefghijkmnpqrstuvwxyz23456789".toCharArray();
+    private static final int MAX_URL_LENGTH = 2048;
+    private static final int MAX_GENERATED_ALIAS_ATTEMPTS = 5;
+    private static final int MIN_SEARCH_QUERY_LENGTH = 3;
+    // Bounds the work of one search page when most candidates turn out not to match
+    private static final int MAX_SEARCH_CANDIDATES_PER_PAGE = 10_000;
+    private static final int SNAPSHOT_PAGE_SIZE = 1000;
+    // Aliases tombstoned per statement by a bulk delete
+    private static final int BULK_DELETE_CHUNK_SIZE = 1000;
+    // SQLSTATE for unique constraint violations (H2 and PostgreSQL)
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
 
     private final UrlMappingRepository repository;
+    private final UrlViewRepository urlViews;
     private final AliasGenerator aliasGenerator;
+    private final RedirectCache redirectCache;
+    private final UrlChangeFeed changeFeed;
+    private final ColdStore coldStore;
+    private final AccessRecorder accessRecorder;
+    private final AliasIndex aliasIndex;
+    private final UrlSearchIndex searchIndex;
+    private final ReplicationManager replication;
+    private final AliasPool aliasPool;
 
-    public UrlService(UrlMappingRepository repository, AliasGenerator aliasGenerator) {
+    public UrlService(UrlMappingRepository repository, UrlViewRepository urlViews, AliasGenerator aliasGenerator,
+                      RedirectCache redirectCache, UrlChangeFeed changeFeed, ColdStore coldStore, AccessRecorder accessRecorder,
+                      AliasIndex aliasIndex, UrlSearchIndex searchIndex, ReplicationManager replication,
+                      AliasPool aliasPool) {
         this.repository = repository;
+        this.urlViews = urlViews;
         this.aliasGenerator = aliasGenerator;
+        this.redirectCache = redirectCache;
+        this.changeFeed = changeFeed;
+        this.coldStore = coldStore;
+        this.accessRecorder = accessRecorder;
+        this.aliasIndex = aliasIndex;
+        this.searchIndex = searchIndex;
+        this.replication = replication;
+        this.aliasPool = aliasPool;
     }
 
     public UrlMapping shorten(String fullUrl, String customAlias) {
         if (!isValidHttpUrl(fullUrl)) {
             throw new InvalidInputException("fullUrl must be a valid http/https URL");
         }
+        String normalized = normalizeUrl(fullUrl);
+        if (normalized.length() > MAX_URL_LENGTH) {
+            throw new InvalidInputException("fullUrl must be at most " + MAX_URL_LENGTH + " characters");
+        }
+        replication.checkWritable();
 
-        String alias;
+        UrlMapping saved;
         if (customAlias != null && !customAlias.isBlank()) {
             validateAlias(customAlias);
-            if (repository.existsByAlias(customAlias)) {
+            // The unique index only covers H2; the cold tier's Bloom filters make this check cheap
+            if (coldStore.contains(customAlias)) {
+                throw new AliasAlreadyExistsException(customAlias);
+            }
+            saved = insertAndPublish(customAlias, normalized);
+            if (saved == null) {
                 throw new AliasAlreadyExistsException(customAlias);
             }
-            alias = customAlias;
         } else {
-            alias = aliasGenerator.generateUniqueAlias();
+            saved = null;
+            for (int attempt = 0; attempt < MAX_GENERATED_ALIAS_ATTEMPTS && saved == null; attempt++) {
+                // Pooled aliases were verified when queued; the unique index still catches a late clash
+                String candidate = aliasPool.poll();
+                if (candidate == null) {
+                    candidate = aliasGenerator.nextCandidate();
+                }
+                if (!isReserved(candidate) && !coldStore.contains(candidate)) {
+                    saved = insertAndPublish(candidate, normalized);
+                }
+            }
+            if (saved == null) {
+                throw new IllegalStateException("Unable to generate a unique alias after retries");
+            }
         }
+        return saved;
+    }
+
+    // Publishes under the alias's stripe so a concurrent delete cannot overtake the create on any feed
+    private UrlMapping insertAndPublish(String alias, String fullUrl) {
+        return replication.inOrder(alias, () -> {
+            UrlMapping saved = tryInsert(alias, fullUrl);
+            if (saved != null) {
+                replication.publishCreated(saved);
+                afterCreated(saved);
+            }
+            return saved;
+        });
+    }
+
+    private void afterCreated(UrlMapping saved) {
+        redirectCache.invalidate(saved.getAlias());
+        aliasIndex.add(saved.getAlias());
+        searchIndex.add(saved);
+        changeFeed.publishCreated(saved.getAlias(), saved.getFullUrl());
+    }
+
+    public UrlView resolve(String alias) {
+        validateAliasLookup(alias);
+        String fullUrl = findFullUrl(alias);
+        accessRecorder.record(alias);
+        return new UrlView(alias, fullUrl);
+    }
 
-        UrlMapping mapping = new UrlMapping(alias, normalizeUrl(fullUrl));
-        return repository.save(mapping);
+    /**
+     * Cache-only variant of {@link #resolveLocation} for the NIO redirect listener: returns the
+     * response {@code builder} precomputes from the cached Location, or null on a cache miss.
+     */
+    public byte[] resolveCachedResponse(String alias, Function<byte[], byte[]> builder) {
+        byte[] response = redirectCache.getResponse(alias, builder);
+        if (response != null) {
+            accessRecorder.record(alias);
+        }
+        return response;
     }
 
-    public UrlMapping resolve(String alias) {
+    public String resolveLocation(String alias) {
         validateAliasLookup(alias);
-        return repository.findByAlias(alias)
-                .orElseThrow(() -> new NotFoundException("Alias not found: " + alias));
+        String cached = redirectCache.get(alias);
+        if (cached == null) {
+            long stamp = redirectCache.stamp(alias);
+            cached = findFullUrl(alias);
+            redirectCache.put(alias, cached, stamp);
+        }
+        accessRecorder.record(alias);
+        return cached;
     }
 
     public void delete(String alias) {
         validateAliasLookup(alias);
-        boolean exists = repository.existsByAlias(alias);
-        if (!exists) {
+        replication.checkWritable();
+        boolean deleted = replication.inOrder(alias, () -> {
+            boolean removed = removeLocally(alias);
+            if (removed) {
+                replication.publishDeleted(alias);
+            }
+            return removed;
+        });
+        if (!deleted) {
             throw new NotFoundException("Alias not found: " + alias);
         }
-        repository.deleteByAlias(alias);
     }
 
-    public List<UrlMapping> listAll() {
-        return repository.findAll();
+    /**
+     * Bulk delete by alias: tombstones the rows in a few statements per chunk instead of
+     * deleting them one by one. Tombstoned rows are invisible at once; PurgeJob removes them
+     * later. Returns how many of the aliases existed.
+     */
+    public int deleteAll(Collection<String> aliases) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(aliases));
+        for (String alias : distinct) {
+            validateAliasLookup(alias);
+        }
+        replication.checkWritable();
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(distinct.size(), from + BULK_DELETE_CHUNK_SIZE));
+            deleted += replication.exclusively(() -> tombstone(repository.findByAliasIn(chunk), chunk));
+        }
+        return deleted;
+    }
+
+    /**
+     * Bulk delete of every mapping created before {@code createdBefore}, in both tiers.
+     */
+    public int deleteCreatedBefore(Instant createdBefore) {
+        replication.checkWritable();
+        int deleted = 0;
+        long after = 0;
+        List<UrlMapping> page;
+        do {
+            page = repository.findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(createdBefore, after,
+                    PageRequest.of(0, BULK_DELETE_CHUNK_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<UrlMapping> rows = page;
+            deleted += replication.exclusively(() -> tombstone(rows, List.of()));
+            after = page.get(page.size() - 1).getId();
+        } while (page.size() == BULK_DELETE_CHUNK_SIZE);
+
+        long cutoff = createdBefore.toEpochMilli();
+        List<String> cold = new ArrayList<>();
+        coldStore.forEachLive(entry -> {
+            if (entry.getCreatedAtMillis() < cutoff) {
+                cold.add(entry.getAlias());
+            }
+        });
+        for (int from = 0; from < cold.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            List<String> chunk = cold.subList(from, Math.min(cold.size(), from + BULK_DELETE_CHUNK_SIZE));
+            deleted += replication.exclusively(() -> tombstone(List.of(), chunk));
+        }
+        return deleted;
+    }
+
+    // Tombstones the rows, hides cold copies of them and of coldAliases, and returns how many mappings went
+    private int tombstone(List<UrlMapping> rows, Collection<String> coldAliases) {
+        Set<String> deleted = new LinkedHashSet<>();
+        if (!rows.isEmpty()) {
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (UrlMapping row : rows) {
+                ids.add(row.getId());
+                deleted.add(row.getAlias());
+            }
+            repository.tombstoneByIdIn(ids, Instant.now());
+            for (Long id : ids) {
+                searchIndex.remove(id);
+            }
+        }
+        Set<String> candidates = new LinkedHashSet<>(deleted);
+        candidates.addAll(coldAliases);
+        try {
+            deleted.addAll(coldStore.removeAll(candidates));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String alias : deleted) {
+            redirectCache.invalidate(alias);
+            aliasIndex.remove(alias);
+            changeFeed.publishDeleted(alias);
+            replication.publishDeleted(alias);
+        }
+        return deleted.size();
+    }
+
+    private boolean removeLocally(String alias) {
+        List<Long> deletedIds = repository.deleteByAlias(alias);
+        // A tiering run may have copied the row to a segment before this delete; hide that copy too
+        boolean deletedCold = removeCold(alias);
+        redirectCache.invalidate(alias);
+        if (deletedIds.isEmpty() && !deletedCold) {
+            return false;
+        }
+        aliasIndex.remove(alias);
+        for (Long id : deletedIds) {
+            searchIndex.remove(id);
+        }
+        changeFeed.publishDeleted(alias);
+        return true;
+    }
+
+    @Override
+    public void applyCreated(String alias, String fullUrl, long createdAtMillis) {
+        UrlMapping hot = repository.findByAlias(alias).orElse(null);
+        ColdEntry cold = hot == null ? coldStore.get(alias) : null;
+        String current = hot != null ? hot.getFullUrl() : cold != null ? cold.getFullUrl() : null;
+        if (fullUrl.equals(current)) {
+            return;
+        }
+        if (current != null) {
+            // The alias was deleted and created again on the leader
+            removeLocally(alias);
+        }
+        afterCreated(saveOverTombstone(alias, () -> {
+            UrlMapping mapping = new UrlMapping(alias, fullUrl);
+            mapping.setCreatedAt(Instant.ofEpochMilli(createdAtMillis));
+            return mapping;
+        }));
+    }
+
+    @Override
+    public void applyDeleted(String alias) {
+        removeLocally(alias);
+    }
+
+    @Override
+    public void forEachMapping(MappingVisitor visitor) {
+        long after = 0;
+        List<UrlMapping> page;
+        do {
+            page = repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, SNAPSHOT_PAGE_SIZE));
+            for (UrlMapping mapping : page) {
+                visitor.visit(mapping.getAlias(), mapping.getFullUrl(), mapping.getCreatedAt().toEpochMilli());
+                after = mapping.getId();
+            }
+        } while (page.size() == SNAPSHOT_PAGE_SIZE);
+        coldStore.forEachLive(entry -> visitor.visit(entry.getAlias(), entry.getFullUrl(), entry.getCreatedAtMillis()));
+    }
+
+    @Override
+    public void retainOnly(Set<String> aliases) {
+        List<String> stale = new ArrayList<>();
+        for (String alias : repository.findAllAliases()) {
+            if (!aliases.contains(alias)) {
+                stale.add(alias);
+            }
+        }
+        coldStore.forEachLive(entry -> {
+            if (!aliases.contains(entry.getAlias())) {
+                stale.add(entry.getAlias());
+            }
+        });
+        for (String alias : stale) {
+            removeLocally(alias);
+        }
+    }
+
+    public List<UrlView> listAll() {
+        List<UrlView> all = urlViews.findAll();
+        Set<String> hot = new HashSet<>(all.size() * 2);
+        for (UrlView view : all) {
+            hot.add(view.alias());
+        }
+        coldStore.forEachLive(entry -> {
+            if (!hot.contains(entry.getAlias())) {
+                all.add(new UrlView(entry.getAlias(), entry.getFullUrl()));
+            }
+        });
+        return all;
+    }
+
+    /**
+     * Mappings in H2 whose normalized full URL contains the normalized query, in id order,
+     * starting after {@code cursor}. Only the hot tier is searched: a mapping moved to the cold
+     * tier is left out until a read promotes it back into H2.
+     */
+    public UrlSearchResult search(String query, Long cursor, int limit) {
+        String normalized = TrigramIndex.normalize(query == null ? "" : query);
+        if (normalized.length() < MIN_SEARCH_QUERY_LENGTH) {
+            throw new InvalidInputException("q must be at least " + MIN_SEARCH_QUERY_LENGTH + " characters");
+        }
+        if (normalized.length() > MAX_URL_LENGTH) {
+            throw new InvalidInputException("q too long");
+        }
+        long after = cursor == null ? 0 : cursor;
+        if (!searchIndex.isLoaded()) {
+            return searchByScan(normalized, after, limit);
+        }
+
+        List<UrlMapping> matches = new ArrayList<>(limit);
+        int batchSize = Math.max(limit * 2, 64);
+        int scanned = 0;
+        while (scanned < MAX_SEARCH_CANDIDATES_PER_PAGE) {
+            long[] ids = searchIndex.candidates(normalized, after, batchSize);
+            if (ids.length == 0) {
+                return new UrlSearchResult(matches, null);
+            }
+            List<Long> batch = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                batch.add(id);
+            }
+            Map<Long, UrlMapping> rows = new HashMap<>(ids.length * 2);
+            for (UrlMapping mapping : repository.findAllById(batch)) {
+                rows.put(mapping.getId(), mapping);
+            }
+            // Trigrams only narrow the candidates down; the URL itself decides
+            for (long id : ids) {
+                after = id;
+                scanned++;
+                UrlMapping mapping = rows.get(id);
+                if (mapping == null) {
+                    // Left H2 through a path that did not report its id
+                    searchIndex.remove(id);
+                } else if (TrigramIndex.normalize(mapping.getFullUrl()).contains(normalized)) {
+                    matches.add(mapping);
+                    if (matches.size() == limit) {
+                        return new UrlSearchResult(matches, id);
+                    }
+                }
+            }
+            if (ids.length < batchSize) {
+                return new UrlSearchResult(matches, null);
+            }
+        }
+        return new UrlSearchResult(matches, after);
+    }
+
+    // Used until the index has been built at startup (or when it is disabled)
+    private UrlSearchResult searchByScan(String normalized, long after, int limit) {
+        String pattern = "%" + normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<UrlMapping> page = repository.findByFullUrlLikeAfter(pattern, after, PageRequest.of(0, limit));
+        Long nextCursor = page.size() < limit ? null : page.get(page.size() - 1).getId();
+        return new UrlSearchResult(page, nextCursor);
+    }
+
+    public List<String> findAliasesByPrefix(String prefix, int limit) {
+        if (prefix.length() > MAX_ALIAS_LENGTH) {
+            throw new InvalidInputException("prefix too long");
+        }
+        return aliasIndex.withPrefix(prefix, limit);
+    }
+
+    /**
+     * Whether {@code alias} could be used as a custom alias right now. Answered from the
+     * in-memory alias index once it has loaded.
+     */
+    public boolean isAliasAvailable(String alias) {
+        validateAliasFormat(alias);
+        if (isReserved(alias)) {
+            return false;
+        }
+        if (aliasIndex.isLoaded()) {
+            return !aliasIndex.contains(alias);
+        }
+        return !repository.existsByAlias(alias) && !coldStore.contains(alias);
+    }
+
+    /**
+     * Free variants of a taken alias: numbered ones first, then short random suffixes.
+     */
+    public List<String> suggestAliases(String alias, int count) {
+        validateAliasFormat(alias);
+        List<String> suggestions = new ArrayList<>(count);
+        for (int n = 2; n < NUMBERED_SUGGESTION_ATTEMPTS + 2 && suggestions.size() < count; n++) {
+            addIfAvailable(withSuffix(alias, "-" + n), suggestions);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < count * 4 && suggestions.size() < count; attempt++) {
+            StringBuilder suffix = new StringBuilder("-");
+            for (int i = 0; i < 3; i++) {
+                suffix.append(SUGGESTION_SUFFIX_CHARS[random.nextInt(SUGGESTION_SUFFIX_CHARS.length)]);
+            }
+            addIfAvailable(withSuffix(alias, suffix.toString()), suggestions);
+        }
+        return suggestions;
+    }
+
+    private void addIfAvailable(String candidate, List<String> suggestions) {
+        if (!suggestions.contains(candidate) && !isReserved(candidate) && !aliasIndex.contains(candidate)) {
+            suggestions.add(candidate);
+        }
+    }
+
+    private static String withSuffix(String alias, String suffix) {
+        String base = alias.length() + suffix.length() > MAX_ALIAS_LENGTH
+                ? alias.substring(0, MAX_ALIAS_LENGTH - suffix.length())
+                : alias;
+        return base + suffix;
+    }
+
+    private static boolean isReserved(String alias) {
+        return RESERVED_ALIASES.contains(alias.toLowerCase(Locale.ROOT));
+    }
+
+    // Reads use the JDBC projection; only promoting a cold alias back to H2 goes through the entity
+    private String findFullUrl(String alias) {
+        String hot = urlViews.findFullUrl(alias);
+        return hot != null ? hot : promote(alias);
+    }
+
+    // Called after the projection missed, so H2 is not asked again unless the cold tier says it must be
+    private String promote(String alias) {
+        ColdEntry cold = coldStore.get(alias);
+        if (cold == null) {
+            // Only an alias that left the cold tier can have been promoted by a concurrent read meanwhile
+            String promoted = coldStore.hasTombstone(alias) ? urlViews.findFullUrl(alias) : null;
+            if (promoted == null) {
+                throw new NotFoundException("Alias not found: " + alias);
+            }
+            return promoted;
+        }
+        // Promote: the row goes back to H2 first, so the alias is in at least one tier throughout
+        UrlMapping promoted = toMapping(cold);
+        promoted.setLastAccessedAt(Instant.now());
+        try {
+            promoted = repository.save(promoted);
+            searchIndex.add(promoted);
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e)) {
+                throw e;
+            }
+            // A concurrent read promoted it first
+            promoted = repository.findByAlias(alias).orElse(promoted);
+        }
+        removeCold(alias);
+        return promoted.getFullUrl();
+    }
+
+    private boolean removeCold(String alias) {
+        try {
+            return coldStore.remove(alias);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static UrlMapping toMapping(ColdEntry entry) {
+        UrlMapping mapping = new UrlMapping(entry.getAlias(), entry.getFullUrl());
+        mapping.setCreatedAt(Instant.ofEpochMilli(entry.getCreatedAtMillis()));
+        return mapping;
+    }
+
+    private UrlMapping tryInsert(String alias, String fullUrl) {
+        try {
+            return saveOverTombstone(alias, () -> new UrlMapping(alias, fullUrl));
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    // A bulk-deleted alias keeps its row until PurgeJob runs; a new mapping may take its place earlier
+    private UrlMapping saveOverTombstone(String alias, Supplier<UrlMapping> mapping) {
+        try {
+            return repository.save(mapping.get());
+        } catch (DataIntegrityViolationException e) {
+            if (!isUniqueViolation(e) || repository.purgeDeletedAlias(alias) == 0) {
+                throw e;
+            }
+            return repository.save(mapping.get());
+        }
+    }
+
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void validateAlias(String alias) {
+        validateAliasFormat(alias);
+        if (isReserved(alias)) {
+            throw new InvalidInputException("customAlias is reserved: " + alias);
+        }
+    }
+
+    private void validateAliasFormat(String alias) {
         if (!alias.matches(ALIAS_REGEX)) {
             throw new InvalidInputException("customAlias must match pattern " + ALIAS_REGEX);
         }
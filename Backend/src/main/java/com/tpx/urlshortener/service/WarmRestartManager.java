@@ -0,0 +1,132 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Persists the hot redirect set on graceful shutdown and loads it back before the
+ * application reports ready. Spring Boot only flips readiness to ACCEPTING_TRAFFIC after
+ * all runners have completed, so the load balancer never sees a cold node.
+ *
+ * The snapshot file is mapped for one sequential read and decoded into {@link RedirectCache};
+ * redirects are not served from the mapping itself, since the cache has to stay mutable for
+ * invalidations and eviction.
+ */
+@Component
+public class WarmRestartManager implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmRestartManager.class);
+    private static final int VERIFY_BATCH_SIZE = 500;
+
+    private final RedirectCache redirectCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final UrlMappingRepository repository;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final int maxEntries;
+
+    public WarmRestartManager(RedirectCache redirectCache,
+                              HotKeyTracker hotKeyTracker,
+                              UrlMappingRepository repository,
+                              @Value("${urlshortener.warm-restart.enabled:true}") boolean enabled,
+                              @Value("${urlshortener.warm-restart.snapshot-path:./data/hot-redirects.snapshot}") String snapshotPath,
+                              @Value("${urlshortener.warm-restart.max-entries:10000}") int maxEntries) {
+        this.redirectCache = redirectCache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.repository = repository;
+        this.enabled = enabled;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            RedirectSnapshotFile.Snapshot snapshot = RedirectSnapshotFile.read(snapshotPath);
+            if (snapshot == null) {
+                log.info("No usable redirect snapshot at {}, starting cold", snapshotPath);
+                return;
+            }
+            int loaded;
+            if (snapshot.getMaxId() == repository.findMaxId() && snapshot.getRowCount() == repository.count()) {
+                loaded = loadTrusted(snapshot.getEntries());
+            } else {
+                loaded = loadVerified(snapshot.getEntries());
+            }
+            log.info("Warmed redirect cache with {} of {} snapshot entries in {} ms",
+                    loaded, snapshot.getEntries().size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to load redirect snapshot {}, starting cold", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        List<RedirectSnapshotFile.Entry> entries = new ArrayList<>();
+        Set<String> written = new HashSet<>();
+        // Hottest aliases first so a truncated snapshot still keeps the most valuable entries
+        for (String alias : hotKeyTracker.hotAliases()) {
+            byte[] location = redirectCache.getLocationBytes(alias);
+            if (location != null && entries.size() < maxEntries && written.add(alias)) {
+                entries.add(new RedirectSnapshotFile.Entry(alias, location));
+            }
+        }
+        redirectCache.forEach((alias, location) -> {
+            if (entries.size() < maxEntries && written.add(alias)) {
+                entries.add(new RedirectSnapshotFile.Entry(alias, location));
+            }
+        });
+        try {
+            RedirectSnapshotFile.write(snapshotPath, repository.findMaxId(), repository.count(), entries);
+            log.info("Wrote {} hot redirects to {}", entries.size(), snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write redirect snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private int loadTrusted(List<RedirectSnapshotFile.Entry> entries) {
+        for (RedirectSnapshotFile.Entry entry : entries) {
+            redirectCache.put(entry.getAlias(), entry.getLocation());
+        }
+        return entries.size();
+    }
+
+    private int loadVerified(List<RedirectSnapshotFile.Entry> entries) {
+        // The database changed since the snapshot was taken: keep only aliases that still exist
+        int loaded = 0;
+        for (int from = 0; from < entries.size(); from += VERIFY_BATCH_SIZE) {
+            List<String> aliases = new ArrayList<>();
+            for (RedirectSnapshotFile.Entry entry : entries.subList(from, Math.min(entries.size(), from + VERIFY_BATCH_SIZE))) {
+                aliases.add(entry.getAlias());
+            }
+            for (UrlMapping mapping : repository.findByAliasIn(aliases)) {
+                redirectCache.put(mapping.getAlias(), mapping.getFullUrl().getBytes(StandardCharsets.UTF_8));
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+}
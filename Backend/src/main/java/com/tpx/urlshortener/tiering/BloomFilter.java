@@ -0,0 +1,86 @@
+package com.tpx.urlshortener.tiering;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size Bloom filter over alias strings, sized from the expected entry count and a
+ * target false-positive rate. Probe positions use double hashing of one 64-bit FNV-1a hash.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final int hashCount;
+    private final long bitCount;
+
+    private BloomFilter(long[] bits, int hashCount) {
+        this.bits = bits;
+        this.hashCount = hashCount;
+        this.bitCount = (long) bits.length * Long.SIZE;
+    }
+
+    static BloomFilter create(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + Long.SIZE - 1) / Long.SIZE);
+        int k = (int) Math.max(1, Math.round((double) words * Long.SIZE / n * Math.log(2)));
+        return new BloomFilter(new long[words], Math.min(k, 16));
+    }
+
+    void add(String alias) {
+        long hash = hash(alias);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String alias) {
+        long hash = hash(alias);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(hashCount);
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    static BloomFilter readFrom(DataInput in) throws IOException {
+        int hashCount = in.readInt();
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(bits, hashCount);
+    }
+
+    private static long hash(String alias) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : alias.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        // FNV leaves the high bits poorly mixed for short keys; finish with a murmur3 fmix
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tpx.urlshortener.tiering;
+
+/**
+ * A mapping as stored in a cold segment.
+ */
+public final class ColdEntry {
+    private final String alias;
+    private final String fullUrl;
+    private final long createdAtMillis;
+
+    public ColdEntry(String alias, String fullUrl, long createdAtMillis) {
+        this.alias = alias;
+        this.fullUrl = fullUrl;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getFullUrl() {
+        return fullUrl;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+}
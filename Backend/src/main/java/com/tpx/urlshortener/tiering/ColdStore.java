@@ -0,0 +1,440 @@
+package com.tpx.urlshortener.tiering;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cold tier: a set of immutable {@link Segment} files, newest first, plus a tombstone log.
+ *
+ * A tombstone hides an alias in every segment up to and including the segment id it was
+ * recorded against, so an alias that is promoted (or deleted) and later goes cold again is
+ * visible once more through the newer segment. Compaction merges all segments into one,
+ * applying tombstones, and keeps only those recorded while it ran.
+ *
+ * Lookups are lock-free against a volatile segment list; writers serialize on this object.
+ * Segments replaced by a compaction are unlinked at once but only closed by the next one, so
+ * readers still holding the old list can finish.
+ *
+ * Listings stream a merge of the segments and hold one inflated block per segment at a time;
+ * nothing from a listing is kept once it returns.
+ */
+@Component
+public class ColdStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdStore.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.seg");
+    private static final String TOMBSTONE_LOG = "tombstones.log";
+
+    private final Path directory;
+    private final int blockSize;
+    private final double bloomFalsePositiveRate;
+    private final Map<String, Long> tombstones = new ConcurrentHashMap<>();
+
+    private volatile List<Segment> segments;
+    private List<Segment> retired = Collections.emptyList();
+    private FileChannel tombstoneLog;
+    private long nextSegmentId;
+
+    public ColdStore(@Value("${urlshortener.tiering.directory:./data/cold}") String directory,
+                     @Value("${urlshortener.tiering.block-size:16384}") int blockSize,
+                     @Value("${urlshortener.tiering.bloom-fpp:0.01}") double bloomFalsePositiveRate) {
+        this.directory = Paths.get(directory);
+        this.blockSize = blockSize;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open cold store at " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the live cold entry for an alias, or null.
+     */
+    public ColdEntry get(String alias) {
+        try {
+            for (Segment segment : segments) {
+                ColdEntry entry = segment.get(alias);
+                if (entry != null) {
+                    return isTombstoned(alias, segment.getId()) ? null : entry;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean contains(String alias) {
+        for (Segment segment : segments) {
+            if (segment.mightContain(alias)) {
+                return get(alias) != null;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the alias was removed from the cold tier (deleted or promoted) since the last compaction.
+     */
+    public boolean hasTombstone(String alias) {
+        return tombstones.containsKey(alias);
+    }
+
+    /**
+     * Tombstones a live alias. Returns false when it is not in the cold tier.
+     */
+    public synchronized boolean remove(String alias) throws IOException {
+        if (get(alias) == null) {
+            return false;
+        }
+        appendTombstones(Collections.singletonList(alias), segments.get(0).getId());
+        return true;
+    }
+
+    /**
+     * Tombstones the live aliases among {@code aliases} with one append and returns them.
+     */
+    public synchronized List<String> removeAll(Collection<String> aliases) throws IOException {
+        List<String> live = new ArrayList<>();
+        for (String alias : aliases) {
+            if (contains(alias)) {
+                live.add(alias);
+            }
+        }
+        if (!live.isEmpty()) {
+            appendTombstones(live, segments.get(0).getId());
+        }
+        return live;
+    }
+
+    /**
+     * Hides the given aliases in segments up to {@code segmentId}.
+     */
+    public synchronized void tombstone(Collection<String> aliases, long segmentId) throws IOException {
+        if (!aliases.isEmpty()) {
+            appendTombstones(aliases, segmentId);
+        }
+    }
+
+    /**
+     * Writes strictly alias-ordered entries as a new segment, makes it visible and returns its id.
+     */
+    public synchronized long addSegment(List<ColdEntry> entries) throws IOException {
+        long id = nextSegmentId++;
+        Path path = segmentPath(id);
+        Segment.write(path, entries.iterator(), entries.size(), blockSize, bloomFalsePositiveRate);
+        List<Segment> next = new ArrayList<>(segments.size() + 1);
+        next.add(Segment.open(id, path));
+        next.addAll(segments);
+        segments = Collections.unmodifiableList(next);
+        return id;
+    }
+
+    /**
+     * Visits every live entry once, in alias order.
+     */
+    public void forEachLive(Consumer<ColdEntry> action) {
+        Iterator<ColdEntry> entries = merge(segments, tombstones);
+        while (entries.hasNext()) {
+            action.accept(entries.next());
+        }
+    }
+
+    /**
+     * Merges all current segments into one, dropping shadowed and tombstoned entries.
+     */
+    public void compact() throws IOException {
+        List<Segment> inputs;
+        Map<String, Long> appliedTombstones;
+        long id;
+        synchronized (this) {
+            inputs = segments;
+            if (inputs.isEmpty() || (inputs.size() < 2 && tombstones.isEmpty())) {
+                return;
+            }
+            appliedTombstones = new HashMap<>(tombstones);
+            id = nextSegmentId++;
+        }
+
+        long expected = 0;
+        for (Segment segment : inputs) {
+            expected += segment.getEntryCount();
+        }
+        Path path = segmentPath(id);
+        long written = Segment.write(path, merge(inputs, appliedTombstones), (int) Math.min(expected, Integer.MAX_VALUE),
+                blockSize, bloomFalsePositiveRate);
+        Segment merged = Segment.open(id, path);
+
+        synchronized (this) {
+            List<Segment> next = new ArrayList<>();
+            for (Segment segment : segments) {
+                if (!inputs.contains(segment)) {
+                    next.add(segment);
+                }
+            }
+            next.add(merged);
+
+            // Tombstones recorded during the merge still apply, now to the merged segment
+            Map<String, Long> remaining = new HashMap<>();
+            for (Map.Entry<String, Long> tombstone : tombstones.entrySet()) {
+                if (!tombstone.getValue().equals(appliedTombstones.get(tombstone.getKey()))) {
+                    remaining.put(tombstone.getKey(), Math.max(tombstone.getValue(), id));
+                }
+            }
+            rewriteTombstoneLog(remaining);
+            tombstones.keySet().retainAll(remaining.keySet());
+            tombstones.putAll(remaining);
+            segments = Collections.unmodifiableList(next);
+            for (Segment segment : retired) {
+                segment.close();
+            }
+            retired = inputs;
+        }
+
+        for (Segment segment : inputs) {
+            Files.deleteIfExists(segment.getPath());
+        }
+        log.info("Compacted {} cold segments into segment {} with {} entries", inputs.size(), id, written);
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public int getTombstoneCount() {
+        return tombstones.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        for (Segment segment : retired) {
+            segment.close();
+        }
+        tombstoneLog.close();
+    }
+
+    private boolean isTombstoned(String alias, long segmentId) {
+        Long horizon = tombstones.get(alias);
+        return horizon != null && horizon >= segmentId;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Segment> loaded = new ArrayList<>();
+        long maxId = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Left behind by a write that never completed its rename
+                    Files.delete(file);
+                    continue;
+                }
+                Matcher matcher = SEGMENT_NAME.matcher(name);
+                if (matcher.matches()) {
+                    long id = Long.parseLong(matcher.group(1));
+                    loaded.add(Segment.open(id, file));
+                    maxId = Math.max(maxId, id);
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingLong(Segment::getId).reversed());
+        segments = Collections.unmodifiableList(loaded);
+        nextSegmentId = maxId + 1;
+
+        Path logPath = directory.resolve(TOMBSTONE_LOG);
+        tombstoneLog = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        byte[] bytes = Files.readAllBytes(logPath);
+        int end = 0;
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                int space = line.indexOf(' ');
+                tombstones.merge(line.substring(space + 1), Long.parseLong(line.substring(0, space)), Math::max);
+                lineStart = i + 1;
+                end = i + 1;
+            }
+        }
+        // Drop a torn final record from a crash mid-append
+        tombstoneLog.truncate(end);
+        tombstoneLog.position(end);
+        log.info("Opened cold store {} with {} segments and {} tombstones", directory, loaded.size(), tombstones.size());
+    }
+
+    private void appendTombstones(Collection<String> aliases, long segmentId) throws IOException {
+        StringBuilder records = new StringBuilder();
+        for (String alias : aliases) {
+            records.append(segmentId).append(' ').append(alias).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            tombstoneLog.write(buffer);
+        }
+        tombstoneLog.force(false);
+        for (String alias : aliases) {
+            tombstones.merge(alias, segmentId, Math::max);
+        }
+    }
+
+    private void rewriteTombstoneLog(Map<String, Long> remaining) throws IOException {
+        Path logPath = directory.resolve(TOMBSTONE_LOG);
+        Path temp = directory.resolve(TOMBSTONE_LOG + ".tmp");
+        StringBuilder records = new StringBuilder();
+        for (Map.Entry<String, Long> tombstone : remaining.entrySet()) {
+            records.append(tombstone.getValue()).append(' ').append(tombstone.getKey()).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        tombstoneLog.close();
+        Files.move(temp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tombstoneLog = FileChannel.open(logPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("segment-%016d.seg", id));
+    }
+
+    /**
+     * K-way merge of segment iterators in alias order, skipping tombstoned entries.
+     */
+    private static Iterator<ColdEntry> merge(List<Segment> inputs, Map<String, Long> tombstones) {
+        Iterator<Newest> newest = mergeNewest(inputs);
+        return new Iterator<>() {
+            private ColdEntry next = findNext();
+
+            private ColdEntry findNext() {
+                while (newest.hasNext()) {
+                    Newest candidate = newest.next();
+                    Long horizon = tombstones.get(candidate.entry.getAlias());
+                    if (horizon == null || horizon < candidate.segmentId) {
+                        return candidate.entry;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public ColdEntry next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                ColdEntry result = next;
+                next = findNext();
+                return result;
+            }
+        };
+    }
+
+    /**
+     * K-way merge of segment iterators in alias order. For an alias present in several
+     * segments only the newest copy is returned, together with the id of its segment.
+     */
+    private static Iterator<Newest> mergeNewest(List<Segment> inputs) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator
+                .comparing((Cursor cursor) -> cursor.head.getAlias())
+                .thenComparing(cursor -> cursor.segmentId, Comparator.reverseOrder()));
+        for (Segment segment : inputs) {
+            Cursor cursor = new Cursor(segment.getId(), segment.iterator());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Newest next() {
+                if (heads.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Cursor newest = heads.poll();
+                Newest result = new Newest(newest.head, newest.segmentId);
+                if (newest.advance()) {
+                    heads.add(newest);
+                }
+                while (!heads.isEmpty() && heads.peek().head.getAlias().equals(result.entry.getAlias())) {
+                    Cursor shadowed = heads.poll();
+                    if (shadowed.advance()) {
+                        heads.add(shadowed);
+                    }
+                }
+                return result;
+            }
+        };
+    }
+
+    private static final class Newest {
+        private final ColdEntry entry;
+        private final long segmentId;
+
+        private Newest(ColdEntry entry, long segmentId) {
+            this.entry = entry;
+            this.segmentId = segmentId;
+        }
+    }
+
+    private static final class Cursor {
+        private final long segmentId;
+        private final Iterator<ColdEntry> entries;
+        private ColdEntry head;
+
+        private Cursor(long segmentId, Iterator<ColdEntry> entries) {
+            this.segmentId = segmentId;
+            this.entries = entries;
+        }
+
+        private boolean advance() {
+            head = entries.hasNext() ? entries.next() : null;
+            return head != null;
+        }
+    }
+}
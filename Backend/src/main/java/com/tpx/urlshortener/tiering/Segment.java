@@ -0,0 +1,350 @@
+package com.tpx.urlshortener.tiering;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable, alias-sorted file of cold mappings:
+ * <pre>
+ * magic(int) version(int)
+ * blocks:  deflate(n x [alias(UTF) fullUrl(UTF) createdAtMillis(long)])
+ * index:   blockCount(int) blockCount x [firstAlias(UTF) offset(long) compressedLength(int) rawLength(int) crc32(int)]
+ * bloom:   hashCount(int) words(int) words x long
+ * footer:  indexOffset(long) entryCount(long) indexCrc32(int) magic(int)
+ * </pre>
+ * Only the sparse index (first alias of each block) and the Bloom filter are held in memory;
+ * a lookup reads and inflates at most one block.
+ */
+public final class Segment implements Closeable {
+
+    private static final int MAGIC = 0x55534547;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FOOTER_BYTES = 8 + 8 + 4 + 4;
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final String[] firstAliases;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int[] checksums;
+    private final BloomFilter bloom;
+    private final long entryCount;
+
+    private Segment(long id, Path path, FileChannel channel, String[] firstAliases, long[] offsets,
+                    int[] compressedLengths, int[] rawLengths, int[] checksums, BloomFilter bloom, long entryCount) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.firstAliases = firstAliases;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.checksums = checksums;
+        this.bloom = bloom;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Writes strictly alias-ordered entries to {@code path} (via a temp file and an atomic
+     * rename, fsynced first) and returns how many were written.
+     */
+    public static long write(Path path, Iterator<ColdEntry> entries, int expectedEntries, int blockSize,
+                             double falsePositiveRate) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        BloomFilter bloom = BloomFilter.create(expectedEntries, falsePositiveRate);
+        List<String> firstAliases = new ArrayList<>();
+        List<long[]> blocks = new ArrayList<>();
+        long entryCount = 0;
+        Deflater deflater = new Deflater();
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long offset = HEADER_BYTES;
+
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(blockSize + 4096);
+            DataOutputStream rawOut = new DataOutputStream(raw);
+            String previous = null;
+            String blockFirst = null;
+            while (entries.hasNext()) {
+                ColdEntry entry = entries.next();
+                if (previous != null && previous.compareTo(entry.getAlias()) >= 0) {
+                    throw new IllegalArgumentException("Entries must be strictly ordered by alias: "
+                            + previous + " before " + entry.getAlias());
+                }
+                if (blockFirst == null) {
+                    blockFirst = entry.getAlias();
+                }
+                rawOut.writeUTF(entry.getAlias());
+                rawOut.writeUTF(entry.getFullUrl());
+                rawOut.writeLong(entry.getCreatedAtMillis());
+                bloom.add(entry.getAlias());
+                previous = entry.getAlias();
+                entryCount++;
+                if (raw.size() >= blockSize) {
+                    offset += writeBlock(out, deflater, raw, offset, blocks);
+                    firstAliases.add(blockFirst);
+                    blockFirst = null;
+                }
+            }
+            if (raw.size() > 0) {
+                offset += writeBlock(out, deflater, raw, offset, blocks);
+                firstAliases.add(blockFirst);
+            }
+
+            ByteArrayOutputStream meta = new ByteArrayOutputStream();
+            DataOutputStream metaOut = new DataOutputStream(meta);
+            metaOut.writeInt(blocks.size());
+            for (int i = 0; i < blocks.size(); i++) {
+                long[] block = blocks.get(i);
+                metaOut.writeUTF(firstAliases.get(i));
+                metaOut.writeLong(block[0]);
+                metaOut.writeInt((int) block[1]);
+                metaOut.writeInt((int) block[2]);
+                metaOut.writeInt((int) block[3]);
+            }
+            bloom.writeTo(metaOut);
+            metaOut.flush();
+            byte[] metaBytes = meta.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(metaBytes);
+
+            out.write(metaBytes);
+            out.writeLong(offset);
+            out.writeLong(entryCount);
+            out.writeInt((int) crc.getValue());
+            out.writeInt(MAGIC);
+            out.flush();
+            file.getChannel().force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        return entryCount;
+    }
+
+    private static int writeBlock(DataOutputStream out, Deflater deflater, ByteArrayOutputStream raw, long offset,
+                                  List<long[]> blocks) throws IOException {
+        byte[] input = raw.toByteArray();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(input.length / 2 + 64);
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            compressed.write(buffer, 0, n);
+        }
+        byte[] bytes = compressed.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.write(bytes);
+        blocks.add(new long[]{offset, bytes.length, input.length, (int) crc.getValue()});
+        raw.reset();
+        return bytes.length;
+    }
+
+    /**
+     * Opens a segment, verifying the footer and the checksum of the index and Bloom filter.
+     */
+    public static Segment open(long id, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES) {
+                throw new IOException("Segment too short: " + path);
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_BYTES);
+            ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            long entryCount = footer.getLong();
+            int indexCrc = footer.getInt();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || footer.getInt() != MAGIC
+                    || indexOffset < HEADER_BYTES || indexOffset > size - FOOTER_BYTES) {
+                throw new IOException("Not a segment file: " + path);
+            }
+            byte[] meta = new byte[(int) (size - FOOTER_BYTES - indexOffset)];
+            readFully(channel, indexOffset, meta.length).get(meta);
+            CRC32 crc = new CRC32();
+            crc.update(meta);
+            if ((int) crc.getValue() != indexCrc) {
+                throw new IOException("Segment index checksum mismatch: " + path);
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(meta));
+            int blockCount = in.readInt();
+            String[] firstAliases = new String[blockCount];
+            long[] offsets = new long[blockCount];
+            int[] compressedLengths = new int[blockCount];
+            int[] rawLengths = new int[blockCount];
+            int[] checksums = new int[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                firstAliases[i] = in.readUTF();
+                offsets[i] = in.readLong();
+                compressedLengths[i] = in.readInt();
+                rawLengths[i] = in.readInt();
+                checksums[i] = in.readInt();
+            }
+            BloomFilter bloom = BloomFilter.readFrom(in);
+            return new Segment(id, path, channel, firstAliases, offsets, compressedLengths, rawLengths, checksums,
+                    bloom, entryCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public boolean mightContain(String alias) {
+        return bloom.mightContain(alias);
+    }
+
+    public ColdEntry get(String alias) throws IOException {
+        if (!bloom.mightContain(alias)) {
+            return null;
+        }
+        int block = Arrays.binarySearch(firstAliases, alias);
+        if (block < 0) {
+            // Insertion point minus one is the last block starting before the alias
+            block = -block - 2;
+            if (block < 0) {
+                return null;
+            }
+        }
+        for (ColdEntry entry : readBlock(block)) {
+            int cmp = entry.getAlias().compareTo(alias);
+            if (cmp == 0) {
+                return entry;
+            }
+            if (cmp > 0) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Iterates all entries in alias order, inflating one block at a time.
+     */
+    public Iterator<ColdEntry> iterator() {
+        return new Iterator<>() {
+            private int nextBlock;
+            private Iterator<ColdEntry> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && nextBlock < offsets.length) {
+                    try {
+                        current = readBlock(nextBlock++).iterator();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public ColdEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    private List<ColdEntry> readBlock(int block) throws IOException {
+        byte[] compressed = new byte[compressedLengths[block]];
+        readFully(channel, offsets[block], compressed.length).get(compressed);
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+        if ((int) crc.getValue() != checksums[block]) {
+            throw new IOException("Block " + block + " checksum mismatch in " + path);
+        }
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int n = 0;
+            while (n < raw.length && !inflater.finished()) {
+                n += inflater.inflate(raw, n, raw.length - n);
+                if (n < raw.length && inflater.needsInput()) {
+                    throw new IOException("Truncated block " + block + " in " + path);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + block + " in " + path, e);
+        } finally {
+            inflater.end();
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        List<ColdEntry> entries = new ArrayList<>();
+        try {
+            while (in.available() > 0) {
+                entries.add(new ColdEntry(in.readUTF(), in.readUTF(), in.readLong()));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated block " + block + " in " + path, e);
+        }
+        return entries;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            // Positional reads leave the channel position alone, so concurrent lookups are safe
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of segment");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
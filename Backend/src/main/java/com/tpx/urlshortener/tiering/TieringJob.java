@@ -0,0 +1,144 @@
+package com.tpx.urlshortener.tiering;
+
+import com.tpx.urlshortener.search.UrlSearchIndex;
+import com.tpx.urlshortener.service.AccessRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves mappings that have not been read for {@code cold-after-days} out of H2 into a new
+ * cold segment.
+ *
+ * The segment is durable before any row is deleted, so a crash in between only leaves a
+ * mapping in both tiers (H2 wins). Rows are deleted only if still idle and not tombstoned by a
+ * bulk delete, and any candidate the delete did not remove (read or deleted meanwhile) is
+ * tombstoned in the new segment.
+ */
+@Component
+public class TieringJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TieringJob.class);
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ColdStore coldStore;
+    private final AccessRecorder accessRecorder;
+    private final UrlSearchIndex searchIndex;
+    private final boolean enabled;
+    private final Duration coldAfter;
+    private final int batchSize;
+    private final int maxSegments;
+    private final int maxTombstones;
+
+    public TieringJob(JdbcTemplate jdbcTemplate, ColdStore coldStore, AccessRecorder accessRecorder,
+                      UrlSearchIndex searchIndex,
+                      @Value("${urlshortener.tiering.enabled:true}") boolean enabled,
+                      @Value("${urlshortener.tiering.cold-after-days:30}") int coldAfterDays,
+                      @Value("${urlshortener.tiering.batch-size:50000}") int batchSize,
+                      @Value("${urlshortener.tiering.max-segments:16}") int maxSegments,
+                      @Value("${urlshortener.tiering.max-tombstones:100000}") int maxTombstones) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.coldStore = coldStore;
+        this.accessRecorder = accessRecorder;
+        this.searchIndex = searchIndex;
+        this.enabled = enabled;
+        this.coldAfter = Duration.ofDays(coldAfterDays);
+        this.batchSize = batchSize;
+        this.maxSegments = maxSegments;
+        this.maxTombstones = maxTombstones;
+    }
+
+    @Scheduled(initialDelayString = "${urlshortener.tiering.interval-ms:3600000}",
+            fixedDelayString = "${urlshortener.tiering.interval-ms:3600000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(coldAfter);
+            int moved;
+            int total = 0;
+            do {
+                moved = tierOnce(cutoff);
+                total += moved;
+            } while (moved == batchSize);
+            if (coldStore.getSegmentCount() > maxSegments || coldStore.getTombstoneCount() > maxTombstones) {
+                coldStore.compact();
+            }
+            if (total > 0) {
+                log.info("Moved {} idle mappings to the cold tier", total);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Tiering run failed", e);
+        }
+    }
+
+    /**
+     * Moves one batch of mappings idle since {@code cutoff} and returns how many left H2.
+     */
+    public int tierOnce(Instant cutoff) throws IOException {
+        // Recent reads must be visible before choosing what is idle
+        accessRecorder.flush();
+        Timestamp before = Timestamp.from(cutoff);
+        List<Long> ids = new ArrayList<>();
+        List<ColdEntry> candidates = jdbcTemplate.query(
+                "SELECT id, alias, full_url, created_at FROM url_mapping "
+                        + "WHERE deleted_at IS NULL "
+                        + "AND (last_accessed_at < ? OR (last_accessed_at IS NULL AND created_at < ?)) "
+                        + "ORDER BY id FETCH FIRST ? ROWS ONLY",
+                (rs, row) -> {
+                    ids.add(rs.getLong(1));
+                    return new ColdEntry(rs.getString(2), rs.getString(3), rs.getTimestamp(4).getTime());
+                },
+                before, before, batchSize);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        candidates.sort(Comparator.comparing(ColdEntry::getAlias));
+        long segmentId = coldStore.addSegment(candidates);
+
+        Set<String> moved = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            moved.addAll(deleteIdle(ids.subList(from, Math.min(ids.size(), from + DELETE_CHUNK_SIZE)), before));
+        }
+        List<String> notMoved = new ArrayList<>();
+        for (ColdEntry candidate : candidates) {
+            if (!moved.contains(candidate.getAlias())) {
+                notMoved.add(candidate.getAlias());
+            }
+        }
+        coldStore.tombstone(notMoved, segmentId);
+        return moved.size();
+    }
+
+    private List<String> deleteIdle(List<Long> ids, Timestamp before) {
+        // H2's data change delta table returns exactly the rows this DELETE removed
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids);
+        args.add(before);
+        return jdbcTemplate.query(
+                "SELECT id, alias FROM OLD TABLE (DELETE FROM url_mapping WHERE id IN (" + placeholders + ") "
+                        + "AND deleted_at IS NULL AND (last_accessed_at IS NULL OR last_accessed_at < ?))",
+                (rs, row) -> {
+                    // Search covers H2 only; the mapping becomes searchable again if promoted
+                    searchIndex.remove(rs.getLong(1));
+                    return rs.getString(2);
+                },
+                args.toArray());
+    }
+}
@@ -0,0 +1,63 @@
+package com.tpx.urlshortener.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpx.urlshortener.dto.UrlItem;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatConfigTest {
+
+    @Test
+    void smileFactory_ShouldEncodeRepeatedFieldNamesOnce() throws Exception {
+        assertFieldNamesWrittenOnceAndRoundTrip(BinaryFormatConfig.smileFactory());
+    }
+
+    @Test
+    void cborFactory_ShouldEncodeRepeatedFieldNamesOnce() throws Exception {
+        assertFieldNamesWrittenOnceAndRoundTrip(BinaryFormatConfig.cborFactory());
+    }
+
+    private static void assertFieldNamesWrittenOnceAndRoundTrip(JsonFactory factory) throws Exception {
+        // Given
+        List<UrlItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new UrlItem("alias" + i, "https://example.com/" + i, "http://localhost:8080/alias" + i));
+        }
+        ObjectMapper mapper = new ObjectMapper(factory);
+
+        // When
+        byte[] encoded = mapper.writeValueAsBytes(items);
+        List<UrlItem> decoded = mapper.readValue(encoded, new TypeReference<List<UrlItem>>() {
+        });
+
+        // Then
+        assertEquals(1, occurrences(encoded, "shortUrl"));
+        assertEquals(1, occurrences(encoded, "fullUrl"));
+        assertEquals(items.size(), decoded.size());
+        assertEquals("alias42", decoded.get(42).getAlias());
+        assertEquals("http://localhost:8080/alias99", decoded.get(99).getShortUrl());
+        assertTrue(encoded.length < new ObjectMapper().writeValueAsBytes(items).length);
+    }
+
+    private static int occurrences(byte[] haystack, String needle) {
+        byte[] pattern = needle.getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        outer:
+        for (int i = 0; i + pattern.length <= haystack.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (haystack[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+}
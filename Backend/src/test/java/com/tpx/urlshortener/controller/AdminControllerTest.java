@@ -0,0 +1,60 @@
+package com.tpx.urlshortener.controller;
+
+import com.tpx.urlshortener.dto.HotAlias;
+import com.tpx.urlshortener.service.HotKeyTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminController.class)
+class AdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private HotKeyTracker hotKeyTracker;
+
+    @BeforeEach
+    void setUp() {
+        when(hotKeyTracker.getTopK()).thenReturn(100);
+    }
+
+    @Test
+    void hotAliases_ShouldReturnRankedAliases() throws Exception {
+        // Given
+        when(hotKeyTracker.topK(20)).thenReturn(List.of(new HotAlias("summer-sale", 12.5)));
+
+        // When & Then
+        mockMvc.perform(get("/admin/hot-aliases"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].alias", is("summer-sale")));
+    }
+
+    @Test
+    void hotAliases_WithNegativeLimit_ShouldClampToOne() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/admin/hot-aliases").param("limit", "-5"))
+                .andExpect(status().isOk());
+        verify(hotKeyTracker).topK(1);
+    }
+
+    @Test
+    void hotAliases_WithLimitAboveTopK_ShouldClampToTopK() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/admin/hot-aliases").param("limit", "1000000"))
+                .andExpect(status().isOk());
+        verify(hotKeyTracker).topK(100);
+    }
+}
@@ -0,0 +1,77 @@
+package com.tpx.urlshortener.controller;
+
+import com.tpx.urlshortener.exception.InvalidInputException;
+import com.tpx.urlshortener.service.UrlService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AliasController.class)
+class AliasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UrlService urlService;
+
+    @Test
+    void search_ShouldReturnAliasesForPrefixWithCappedLimit() throws Exception {
+        // Given
+        when(urlService.findAliasesByPrefix("summer-", 1000)).thenReturn(List.of("summer-2024", "summer-sale"));
+
+        // When & Then
+        mockMvc.perform(get("/aliases").param("prefix", "summer-").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", contains("summer-2024", "summer-sale")));
+    }
+
+    @Test
+    void available_WithFreeAlias_ShouldNotSuggest() throws Exception {
+        // Given
+        when(urlService.isAliasAvailable("summer-sale")).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(get("/aliases/summer-sale/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alias", is("summer-sale")))
+                .andExpect(jsonPath("$.available", is(true)))
+                .andExpect(jsonPath("$.suggestions", hasSize(0)));
+        verify(urlService, never()).suggestAliases(anyString(), anyInt());
+    }
+
+    @Test
+    void available_WithTakenAlias_ShouldSuggestFreeVariants() throws Exception {
+        // Given
+        when(urlService.isAliasAvailable("summer-sale")).thenReturn(false);
+        when(urlService.suggestAliases("summer-sale", 5)).thenReturn(List.of("summer-sale-2", "summer-sale-3"));
+
+        // When & Then
+        mockMvc.perform(get("/aliases/summer-sale/available"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available", is(false)))
+                .andExpect(jsonPath("$.suggestions", contains("summer-sale-2", "summer-sale-3")));
+    }
+
+    @Test
+    void available_WithInvalidAlias_ShouldReturn400() throws Exception {
+        // Given
+        when(urlService.isAliasAvailable("a@b")).thenThrow(new InvalidInputException("customAlias must match pattern"));
+
+        // When & Then
+        mockMvc.perform(get("/aliases/a@b/available"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+}
@@ -1,32 +1,46 @@
 package com.tpx.urlshortener.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tpx.urlshortener.config.BinaryFormatConfig;
 import com.tpx.urlshortener.dto.ShortenRequest;
 import com.tpx.urlshortener.dto.ShortenResponse;
 import com.tpx.urlshortener.dto.UrlItem;
+import com.tpx.urlshortener.eventlog.RedirectEventLog;
 import com.tpx.urlshortener.exception.AliasAlreadyExistsException;
+import com.tpx.urlshortener.exception.AliasPoolExhaustedException;
 import com.tpx.urlshortener.exception.InvalidInputException;
 import com.tpx.urlshortener.exception.NotFoundException;
+import com.tpx.urlshortener.exception.NotLeaderException;
 import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.repository.UrlView;
+import com.tpx.urlshortener.search.UrlSearchResult;
+import com.tpx.urlshortener.service.HotKeyTracker;
+import com.tpx.urlshortener.service.UrlChangeFeed;
 import com.tpx.urlshortener.service.UrlService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(UrlController.class)
+@WebMvcTest(controllers = UrlController.class,
+        properties = {"urlshortener.batch.max-size=3", "urlshortener.bulk-delete.max-aliases=3"})
+@Import(BinaryFormatConfig.class)
 class UrlControllerTest {
 
     @Autowired
@@ -38,6 +52,15 @@ class UrlControllerTest {
     @MockBean
     private UrlService urlService;
 
+    @MockBean
+    private HotKeyTracker hotKeyTracker;
+
+    @MockBean
+    private UrlChangeFeed urlChangeFeed;
+
+    @MockBean
+    private RedirectEventLog redirectEventLog;
+
     private static final String VALID_URL = "https://example.com/very/long/url";
     private static final String VALID_ALIAS = "my-custom-alias";
 
@@ -114,25 +137,45 @@ class UrlControllerTest {
     @Test
     void redirect_WithValidAlias_ShouldReturn302() throws Exception {
         // Given
-        UrlMapping mapping = new UrlMapping(VALID_ALIAS, VALID_URL);
-        mapping.setId(1L);
-        when(urlService.resolve(VALID_ALIAS)).thenReturn(mapping);
+        when(urlService.resolveLocation(VALID_ALIAS)).thenReturn(VALID_URL);
 
         // When & Then
         mockMvc.perform(get("/" + VALID_ALIAS))
                 .andExpect(status().isFound())
                 .andExpect(header().string("Location", VALID_URL));
+        verify(hotKeyTracker).record(VALID_ALIAS);
     }
 
     @Test
     void redirect_WithNonExistentAlias_ShouldReturn404() throws Exception {
         // Given
-        when(urlService.resolve(VALID_ALIAS)).thenThrow(new NotFoundException("Alias not found: " + VALID_ALIAS));
+        when(urlService.resolveLocation(VALID_ALIAS)).thenThrow(new NotFoundException("Alias not found: " + VALID_ALIAS));
 
         // When & Then
         mockMvc.perform(get("/" + VALID_ALIAS))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message", containsString("not found")));
+        verify(hotKeyTracker, never()).record(anyString());
+        verifyNoInteractions(redirectEventLog);
+    }
+
+    @Test
+    void redirect_ShouldRecordRedirectEvent() throws Exception {
+        // Given
+        when(urlService.resolveLocation(VALID_ALIAS)).thenReturn(VALID_URL);
+
+        // When
+        mockMvc.perform(get("/" + VALID_ALIAS)
+                        .header("User-Agent", "curl/8.0")
+                        .header("Referer", "https://news.example.com/")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        }))
+                .andExpect(status().isFound());
+
+        // Then
+        verify(redirectEventLog).record(VALID_ALIAS, "10.0.0.1", "curl/8.0", "https://news.example.com/");
     }
 
     @Test
@@ -160,16 +203,15 @@ class UrlControllerTest {
     @Test
     void list_ShouldReturn200WithAllUrls() throws Exception {
         // Given
-        UrlMapping mapping1 = new UrlMapping("alias1", "https://example.com/1");
-        mapping1.setId(1L);
-        UrlMapping mapping2 = new UrlMapping("alias2", "https://example.com/2");
-        mapping2.setId(2L);
-        List<UrlMapping> mappings = Arrays.asList(mapping1, mapping2);
-        when(urlService.listAll()).thenReturn(mappings);
+        List<UrlView> views = Arrays.asList(new UrlView("alias1", "https://example.com/1"),
+                new UrlView("alias2", "https://example.com/2"));
+        when(urlService.listAll()).thenReturn(views);
+        when(urlChangeFeed.currentPosition()).thenReturn("k3x9-42");
 
         // When & Then
         mockMvc.perform(get("/urls"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Change-Sequence", "k3x9-42"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].alias", is("alias1")))
                 .andExpect(jsonPath("$[0].fullUrl", is("https://example.com/1")))
@@ -178,4 +220,195 @@ class UrlControllerTest {
                 .andExpect(jsonPath("$[1].fullUrl", is("https://example.com/2")))
                 .andExpect(jsonPath("$[1].shortUrl").exists());
     }
+
+    @Test
+    void search_ShouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        UrlMapping mapping = new UrlMapping("alias1", "https://example.com/?utm_campaign=spring");
+        mapping.setId(12L);
+        when(urlService.search("utm_campaign", 5L, 500)).thenReturn(new UrlSearchResult(List.of(mapping), 12L));
+
+        // When & Then
+        mockMvc.perform(get("/urls/search").param("q", "utm_campaign").param("cursor", "5").param("limit", "9999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].alias", is("alias1")))
+                .andExpect(jsonPath("$.items[0].shortUrl").exists())
+                .andExpect(jsonPath("$.nextCursor", is(12)));
+    }
+
+    @Test
+    void shorten_OnFollower_ShouldReturn503WithLeaderUrl() throws Exception {
+        // Given
+        ShortenRequest request = new ShortenRequest();
+        request.setFullUrl(VALID_URL);
+        when(urlService.shorten(VALID_URL, null)).thenThrow(new NotLeaderException("http://localhost:8081"));
+
+        // When & Then
+        mockMvc.perform(post("/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("X-Leader-Url", "http://localhost:8081"));
+    }
+
+    @Test
+    void shorten_WhenAliasPoolExhausted_ShouldReturn503WithRetryAfter() throws Exception {
+        // Given
+        ShortenRequest request = new ShortenRequest();
+        request.setFullUrl(VALID_URL);
+        when(urlService.shorten(VALID_URL, null)).thenThrow(new AliasPoolExhaustedException());
+
+        // When & Then
+        mockMvc.perform(post("/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void delete_OnFollowerWithoutKnownLeader_ShouldReturn503() throws Exception {
+        // Given
+        doThrow(new NotLeaderException(null)).when(urlService).delete(VALID_ALIAS);
+
+        // When & Then
+        mockMvc.perform(delete("/" + VALID_ALIAS))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist("X-Leader-Url"));
+    }
+
+    @Test
+    void deleteBulk_WithAliases_ShouldReturnDeletedCount() throws Exception {
+        // Given
+        when(urlService.deleteAll(List.of("alias1", "alias2", "missing"))).thenReturn(2);
+
+        // When & Then
+        mockMvc.perform(delete("/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"aliases\":[\"alias1\",\"alias2\",\"missing\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @Test
+    void deleteBulk_WithCreatedBefore_ShouldReturnDeletedCount() throws Exception {
+        // Given
+        Instant cutoff = Instant.parse("2025-01-01T00:00:00Z");
+        when(urlService.deleteCreatedBefore(cutoff)).thenReturn(1500);
+
+        // When & Then
+        mockMvc.perform(delete("/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"createdBefore\":\"2025-01-01T00:00:00Z\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(1500)));
+    }
+
+    @Test
+    void deleteBulk_WithBothOrNeitherPredicate_ShouldReturn400() throws Exception {
+        mockMvc.perform(delete("/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"aliases\":[\"alias1\"],\"createdBefore\":\"2025-01-01T00:00:00Z\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(urlService);
+    }
+
+    @Test
+    void deleteBulk_WithTooManyAliases_ShouldReturn400() throws Exception {
+        mockMvc.perform(delete("/urls")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"aliases\":[\"a1\",\"a2\",\"a3\",\"a4\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("1 to 3")));
+        verifyNoInteractions(urlService);
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldReturn400() throws Exception {
+        // Given
+        when(urlService.search("ab", null, 50)).thenThrow(new InvalidInputException("q must be at least 3 characters"));
+
+        // When & Then
+        mockMvc.perform(get("/urls/search").param("q", "ab"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("q must be at least 3 characters")));
+    }
+
+    @Test
+    void changes_WithLastEventId_ShouldResumeFromIt() throws Exception {
+        // Given
+        when(urlChangeFeed.subscribe(any(), any())).thenReturn(mock(UrlChangeFeed.Subscription.class));
+
+        // When & Then
+        mockMvc.perform(get("/urls/changes").header("Last-Event-ID", "k3x9-7").param("since", "k3x9-3"))
+                .andExpect(request().asyncStarted());
+        verify(urlChangeFeed).subscribe(eq("k3x9-7"), any(UrlChangeFeed.Listener.class));
+    }
+
+    @Test
+    void list_WithSmileAccept_ShouldReturnSmile() throws Exception {
+        // Given
+        when(urlService.listAll()).thenReturn(List.of(new UrlView("alias1", "https://example.com/1")));
+
+        // When
+        byte[] body = mockMvc.perform(get("/urls").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        List<UrlItem> items = new ObjectMapper(BinaryFormatConfig.smileFactory())
+                .readValue(body, new TypeReference<List<UrlItem>>() {
+                });
+        assertEquals(1, items.size());
+        assertEquals("alias1", items.get(0).getAlias());
+        assertEquals("https://example.com/1", items.get(0).getFullUrl());
+    }
+
+    @Test
+    void shortenBatch_WithCborBody_ShouldReportEachItem() throws Exception {
+        // Given
+        ShortenRequest first = new ShortenRequest();
+        first.setFullUrl(VALID_URL);
+        first.setCustomAlias("first");
+        ShortenRequest second = new ShortenRequest();
+        second.setFullUrl(VALID_URL);
+        second.setCustomAlias("taken");
+        when(urlService.shorten(VALID_URL, "first")).thenReturn(new UrlMapping("first", VALID_URL));
+        when(urlService.shorten(VALID_URL, "taken"))
+                .thenThrow(new AliasAlreadyExistsException("Alias already exists: taken"));
+        byte[] body = new ObjectMapper(BinaryFormatConfig.cborFactory()).writeValueAsBytes(List.of(first, second));
+
+        // When & Then
+        mockMvc.perform(post("/shorten/batch")
+                        .contentType("application/cbor")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].shortUrl", org.hamcrest.Matchers.endsWith("/first")))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].alias", is("taken")))
+                .andExpect(jsonPath("$[1].error", containsString("taken")));
+    }
+
+    @Test
+    void shortenBatch_OverMaxSize_ShouldReturn400() throws Exception {
+        // Given
+        ShortenRequest request = new ShortenRequest();
+        request.setFullUrl(VALID_URL);
+
+        // When & Then
+        mockMvc.perform(post("/shorten/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request, request, request))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("3")));
+        verifyNoInteractions(urlService);
+    }
 }
@@ -0,0 +1,154 @@
+package com.tpx.urlshortener.eventlog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectEventLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void record_ShouldBeWrittenToRotatedSegmentsOnShutdown() throws Exception {
+        // Given
+        RedirectEventLog eventLog = open(2);
+
+        // When
+        eventLog.record("alias1", "10.0.0.1", "curl/8.0", null);
+        eventLog.record("alias2", "10.0.0.2", "curl/8.0", "https://news.example.com/");
+        eventLog.record("alias1", "10.0.0.1", null, null);
+        eventLog.shutdown();
+
+        // Then
+        List<RedirectEvent> events = readAll();
+        assertEquals(List.of("alias1", "alias2", "alias1"), events.stream().map(RedirectEvent::getAlias).toList());
+        assertEquals(events.get(0).getIpHash(), events.get(2).getIpHash());
+        assertNotEquals(events.get(0).getIpHash(), events.get(1).getIpHash());
+        assertEquals(0, events.get(0).getRefererHash());
+        assertEquals(0, events.get(2).getUserAgentHash());
+        assertEquals(3, eventLog.getWritten());
+        assertEquals(0, eventLog.getDropped());
+        assertTrue(segments().size() >= 2);
+    }
+
+    @Test
+    void hash_ShouldDependOnSalt() {
+        assertEquals(0, RedirectEventLog.hash(null, 7));
+        assertEquals(RedirectEventLog.hash("10.0.0.1", 7), RedirectEventLog.hash("10.0.0.1", 7));
+        assertNotEquals(RedirectEventLog.hash("10.0.0.1", 7), RedirectEventLog.hash("10.0.0.1", 8));
+    }
+
+    @Test
+    void open_ShouldSealSegmentLeftOpenByCrash() throws Exception {
+        // Given
+        Files.write(tempDir.resolve("redirects-0000000000000-0000000000000000000.log.gz.part"), new byte[0]);
+
+        // When
+        RedirectEventLog eventLog = open(100);
+        eventLog.shutdown();
+
+        // Then
+        assertEquals(1, segments().size());
+        assertTrue(readAll().isEmpty());
+    }
+
+    @Test
+    void truncateAbandoned_ShouldKeepOnlyReleasedRecords() throws Exception {
+        // Given a segment with two released records and a third from a batch that then failed
+        Path part = tempDir.resolve("redirects-0000000000000-0000000000000000000.log.gz.part");
+        long releasedBytes;
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(part), 512, true)) {
+            RedirectLogFormat.writeHeader(out);
+            out.write(record("alias1"));
+            out.write(record("alias2"));
+            out.flush();
+            releasedBytes = Files.size(part);
+            out.write(record("alias3"));
+            out.flush();
+        }
+
+        // When
+        RedirectEventLog.truncateAbandoned(part, releasedBytes);
+
+        // Then
+        assertFalse(Files.exists(part));
+        assertEquals(List.of("alias1", "alias2"), readAll().stream().map(RedirectEvent::getAlias).toList());
+    }
+
+    @Test
+    void truncateAbandoned_WithNothingReleased_ShouldDeleteSegment() throws Exception {
+        // Given
+        Path part = tempDir.resolve("redirects-0000000000000-0000000000000000000.log.gz.part");
+        Files.write(part, new byte[]{1, 2, 3});
+
+        // When
+        RedirectEventLog.truncateAbandoned(part, 0);
+
+        // Then
+        assertFalse(Files.exists(part));
+        assertTrue(segments().isEmpty());
+    }
+
+    @Test
+    void report_ShouldCountClicksAndUniqueVisitorsPerAlias() throws Exception {
+        // Given
+        RedirectEventLog eventLog = open(100);
+        eventLog.record("alias1", "10.0.0.1", "curl/8.0", null);
+        eventLog.record("alias1", "10.0.0.2", "curl/8.0", null);
+        eventLog.record("alias1", "10.0.0.1", "curl/8.0", null);
+        eventLog.record("alias2", "10.0.0.1", "curl/8.0", null);
+        eventLog.shutdown();
+
+        // When
+        RedirectLogReport report = new RedirectLogReport(false, null, null);
+        report.add(tempDir);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\\R");
+        assertEquals("alias,clicks,uniqueIps,uniqueReferers,firstSeen,lastSeen", lines[0]);
+        assertTrue(lines[1].startsWith("alias1,3,2,0,"));
+        assertTrue(lines[2].startsWith("alias2,1,1,0,"));
+    }
+
+    private RedirectEventLog open(long segmentRecords) {
+        return new RedirectEventLog(true, tempDir.toString(), 64, segmentRecords, 3_600_000, 1, "test-salt");
+    }
+
+    private static byte[] record(String alias) {
+        byte[] record = new byte[RedirectLogFormat.RECORD_BYTES];
+        RedirectLogFormat.writeRecord(record, 1_000L, 1, 2, 3);
+        record[RedirectLogFormat.ALIAS_LENGTH_OFFSET] = (byte) alias.length();
+        System.arraycopy(alias.getBytes(StandardCharsets.US_ASCII), 0, record, RedirectLogFormat.ALIAS_OFFSET,
+                alias.length());
+        return record;
+    }
+
+    private List<RedirectEvent> readAll() throws Exception {
+        List<RedirectEvent> events = new ArrayList<>();
+        for (Path segment : segments()) {
+            RedirectLogFormat.read(segment, events::add);
+        }
+        return events;
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(RedirectLogFormat.SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+}
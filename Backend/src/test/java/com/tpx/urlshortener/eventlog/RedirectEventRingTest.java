@@ -0,0 +1,155 @@
+package com.tpx.urlshortener.eventlog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectEventRingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RedirectEventRing ring;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (ring != null) {
+            ring.close();
+        }
+    }
+
+    @Test
+    void offer_WhenFull_ShouldRejectUntilConsumerReleases() throws Exception {
+        // Given
+        ring = RedirectEventRing.open(tempDir.resolve("ring.dat"), 4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer("alias" + i, i, 1, 2, 3));
+        }
+
+        // When & Then
+        assertFalse(ring.offer("alias4", 4, 1, 2, 3));
+        byte[] record = new byte[RedirectLogFormat.RECORD_BYTES];
+        assertTrue(ring.read(0, record));
+        ring.release(1);
+        assertTrue(ring.offer("alias4", 4, 1, 2, 3));
+        assertEquals(4, ring.getPending());
+    }
+
+    @Test
+    void read_ShouldReturnPublishedFields() throws Exception {
+        // Given
+        ring = RedirectEventRing.open(tempDir.resolve("ring.dat"), 8);
+        ring.offer("summer-sale", 1_700_000_000_000L, 11, 22, 0);
+
+        // When
+        byte[] record = new byte[RedirectLogFormat.RECORD_BYTES];
+        assertTrue(ring.read(0, record));
+        RedirectEvent event = RedirectLogFormat.decode(record);
+
+        // Then
+        assertEquals("summer-sale", event.getAlias());
+        assertEquals(1_700_000_000_000L, event.getTimestampMillis());
+        assertEquals(11, event.getIpHash());
+        assertEquals(22, event.getUserAgentHash());
+        assertEquals(0, event.getRefererHash());
+        assertFalse(ring.read(1, record));
+    }
+
+    @Test
+    void offer_FromManyThreads_ShouldDeliverEveryAcceptedRecordOnce() throws Exception {
+        // Given
+        ring = RedirectEventRing.open(tempDir.resolve("ring.dat"), 1024);
+        int producers = 4;
+        int perProducer = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        long[] accepted = new long[producers];
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    if (ring.offer("p" + producer, i, producer, 0, 0)) {
+                        accepted[producer]++;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // When
+        start.countDown();
+        Set<String> seen = new HashSet<>();
+        byte[] record = new byte[RedirectLogFormat.RECORD_BYTES];
+        long next = 0;
+        while (threads.stream().anyMatch(Thread::isAlive) || ring.getPending() > 0) {
+            if (ring.read(next, record)) {
+                RedirectEvent event = RedirectLogFormat.decode(record);
+                assertEquals("p" + event.getIpHash(), event.getAlias());
+                assertTrue(seen.add(event.getAlias() + ":" + event.getTimestampMillis()));
+                ring.release(++next);
+            }
+        }
+
+        // Then
+        long total = 0;
+        for (long count : accepted) {
+            total += count;
+        }
+        assertEquals(total, next);
+        assertEquals(total, seen.size());
+    }
+
+    @Test
+    void open_ShouldKeepUnconsumedRecordsAcrossRestart() throws Exception {
+        // Given
+        Path file = tempDir.resolve("ring.dat");
+        ring = RedirectEventRing.open(file, 8);
+        ring.offer("alias0", 0, 0, 0, 0);
+        ring.offer("alias1", 1, 0, 0, 0);
+        byte[] record = new byte[RedirectLogFormat.RECORD_BYTES];
+        ring.read(0, record);
+        ring.release(1);
+        ring.close();
+
+        // When
+        ring = RedirectEventRing.open(file, 8);
+
+        // Then
+        assertEquals(1, ring.head());
+        assertEquals(1, ring.getPending());
+        assertEquals(0, ring.getLostOnRecovery());
+        assertTrue(ring.read(1, record));
+        assertEquals("alias1", RedirectLogFormat.decode(record).getAlias());
+    }
+
+    @Test
+    void open_WithDifferentCapacity_ShouldStartEmpty() throws Exception {
+        // Given
+        Path file = tempDir.resolve("ring.dat");
+        ring = RedirectEventRing.open(file, 8);
+        ring.offer("alias0", 0, 0, 0, 0);
+        ring.close();
+
+        // When
+        ring = RedirectEventRing.open(file, 16);
+
+        // Then
+        assertEquals(0, ring.getPending());
+        assertFalse(ring.read(0, new byte[RedirectLogFormat.RECORD_BYTES]));
+    }
+}
@@ -0,0 +1,94 @@
+package com.tpx.urlshortener.fastpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpRequestHeadTest {
+
+    private final HttpRequestHead head = new HttpRequestHead();
+
+    @Test
+    void parse_ShouldExtractAliasAndLoggedHeaders() {
+        // Given
+        byte[] request = bytes("GET /summer-sale?utm=x HTTP/1.1\r\nHost: sho.rt\r\nuser-agent: curl/8.0\r\n"
+                + "REFERER: https://news.example.com/\r\n\r\n");
+
+        // When
+        int end = head.parse(request, 0, request.length);
+
+        // Then
+        assertEquals(request.length, end);
+        assertFalse(head.isMalformed());
+        assertTrue(head.isGet());
+        assertTrue(head.isKeepAlive());
+        assertFalse(head.hasBody());
+        assertEquals("summer-sale", head.getAlias());
+        assertEquals("/summer-sale?utm=x", head.getTarget());
+        assertEquals("curl/8.0", head.getUserAgent());
+        assertEquals("https://news.example.com/", head.getReferer());
+    }
+
+    @Test
+    void parse_WithPipelinedRequests_ShouldReturnEndOfEachHead() {
+        // Given
+        byte[] requests = bytes("GET /first HTTP/1.1\r\n\r\nGET /second HTTP/1.1\r\nConnection: close\r\n\r\nGET /th");
+
+        // When
+        int first = head.parse(requests, 0, requests.length);
+        String firstAlias = head.getAlias();
+        int second = head.parse(requests, first, requests.length);
+
+        // Then
+        assertEquals("first", firstAlias);
+        assertEquals("second", head.getAlias());
+        assertFalse(head.isKeepAlive());
+        assertEquals(-1, head.parse(requests, second, requests.length));
+    }
+
+    @Test
+    void parse_WithHttp10_ShouldCloseUnlessKeepAliveRequested() {
+        byte[] plain = bytes("GET /abc HTTP/1.0\r\n\r\n");
+        head.parse(plain, 0, plain.length);
+        assertFalse(head.isKeepAlive());
+
+        byte[] keepAlive = bytes("GET /abc HTTP/1.0\r\nConnection: Keep-Alive\r\n\r\n");
+        head.parse(keepAlive, 0, keepAlive.length);
+        assertTrue(head.isKeepAlive());
+    }
+
+    @Test
+    void parse_WithNonAliasTargets_ShouldNotReturnAlias() {
+        for (String target : new String[]{"/", "/urls/search?q=x", "/favicon.ico", "/a%20b", "*"}) {
+            byte[] request = bytes("GET " + target + " HTTP/1.1\r\n\r\n");
+            head.parse(request, 0, request.length);
+            assertNull(head.getAlias(), target);
+            assertEquals(target, head.getTarget());
+        }
+    }
+
+    @Test
+    void parse_WithBody_ShouldFlagIt() {
+        byte[] request = bytes("POST /shorten HTTP/1.1\r\nContent-Length: 25\r\n\r\n");
+        head.parse(request, 0, request.length);
+        assertFalse(head.isGet());
+        assertTrue(head.hasBody());
+    }
+
+    @Test
+    void parse_WithMalformedRequestLine_ShouldFlagIt() {
+        byte[] request = bytes("NONSENSE\r\n\r\n");
+        assertEquals(request.length, head.parse(request, 0, request.length));
+        assertTrue(head.isMalformed());
+
+        byte[] unknownVersion = bytes("GET /abc HTTP/2.0\r\n\r\n");
+        head.parse(unknownVersion, 0, unknownVersion.length);
+        assertTrue(head.isMalformed());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
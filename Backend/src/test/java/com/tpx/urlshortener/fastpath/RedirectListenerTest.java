@@ -0,0 +1,163 @@
+package com.tpx.urlshortener.fastpath;
+
+import com.tpx.urlshortener.eventlog.RedirectEventLog;
+import com.tpx.urlshortener.exception.NotFoundException;
+import com.tpx.urlshortener.service.HotKeyTracker;
+import com.tpx.urlshortener.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectListenerTest {
+
+    @Mock
+    private UrlService urlService;
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    @Mock
+    private RedirectEventLog redirectEventLog;
+
+    private RedirectListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        listener = new RedirectListener(urlService, hotKeyTracker, redirectEventLog, true, "127.0.0.1", 0, 1, 2,
+                16, 60_000, 302, "http://localhost:8080/");
+        listener.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listener.stop();
+    }
+
+    @Test
+    void constructor_WhenEnabledWithoutFallbackUrl_ShouldFail() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new RedirectListener(urlService, hotKeyTracker,
+                redirectEventLog, true, "127.0.0.1", 0, 1, 2, 16, 60_000, 302, ""));
+        assertDoesNotThrow(() -> new RedirectListener(urlService, hotKeyTracker, redirectEventLog, false,
+                "127.0.0.1", 0, 1, 2, 16, 60_000, 302, ""));
+    }
+
+    @Test
+    void pipelinedRequests_ShouldBeAnsweredInOrder() throws Exception {
+        // Given
+        when(urlService.resolveCachedResponse(anyString(), any())).thenReturn(null);
+        when(urlService.resolveCachedResponse(eq("cached"), any())).thenAnswer(invocation ->
+                invocation.<Function<byte[], byte[]>>getArgument(1)
+                        .apply("https://example.com/cached".getBytes(StandardCharsets.UTF_8)));
+        when(urlService.resolveLocation("stored")).thenReturn("https://example.com/stored");
+        when(urlService.resolveLocation("unknown")).thenThrow(new NotFoundException("Alias not found: unknown"));
+
+        try (Socket socket = new Socket("127.0.0.1", listener.getPort())) {
+            // When
+            send(socket, "GET /stored HTTP/1.1\r\nUser-Agent: curl/8.0\r\n\r\n"
+                    + "GET /cached HTTP/1.1\r\n\r\n"
+                    + "GET /unknown HTTP/1.1\r\n\r\n"
+                    + "GET /urls/search?q=x HTTP/1.1\r\n\r\n");
+            String[] responses = readResponses(socket.getInputStream(), 4);
+
+            // Then
+            assertEquals("HTTP/1.1 302 Found\r\nLocation: https://example.com/stored\r\nContent-Length: 0\r\n",
+                    responses[0]);
+            assertEquals("HTTP/1.1 302 Found\r\nLocation: https://example.com/cached\r\nContent-Length: 0\r\n",
+                    responses[1]);
+            assertTrue(responses[2].startsWith("HTTP/1.1 307 Temporary Redirect\r\n"
+                    + "Location: http://localhost:8080/unknown\r\n"));
+            assertTrue(responses[3].contains("Location: http://localhost:8080/urls/search?q=x\r\n"));
+        }
+        verify(redirectEventLog).record("stored", "127.0.0.1", "curl/8.0", null);
+        verify(redirectEventLog).record("cached", "127.0.0.1", null, null);
+        verify(redirectEventLog, never()).record(eq("unknown"), any(), any(), any());
+        verify(hotKeyTracker).record("cached");
+        assertEquals(1, listener.getCacheHits());
+        assertEquals(2, listener.getCacheMisses());
+        assertEquals(2, listener.getFallbacks());
+    }
+
+    @Test
+    void connectionClose_ShouldCloseAfterResponse() throws Exception {
+        // Given
+        when(urlService.resolveCachedResponse(eq("cached"), any())).thenAnswer(invocation ->
+                invocation.<Function<byte[], byte[]>>getArgument(1)
+                        .apply("https://example.com/cached".getBytes(StandardCharsets.UTF_8)));
+
+        try (Socket socket = new Socket("127.0.0.1", listener.getPort())) {
+            // When
+            send(socket, "GET /cached HTTP/1.1\r\nConnection: close\r\n\r\nGET /cached HTTP/1.1\r\n\r\n");
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+
+            // Then
+            assertEquals("HTTP/1.1 302 Found\r\nLocation: https://example.com/cached\r\nContent-Length: 0\r\n"
+                    + "Connection: close\r\n\r\n", response);
+        }
+    }
+
+    @Test
+    void nonGetRequest_ShouldRedirectToSpringAndClose() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", listener.getPort())) {
+            // When
+            send(socket, "POST /shorten HTTP/1.1\r\nContent-Length: 2\r\n\r\n{}");
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+
+            // Then
+            assertTrue(response.startsWith("HTTP/1.1 307 Temporary Redirect\r\nLocation: http://localhost:8080/shorten\r\n"));
+            assertTrue(response.endsWith("Connection: close\r\n\r\n"));
+        }
+        verifyNoInteractions(urlService);
+    }
+
+    @Test
+    void malformedRequest_ShouldGet400() throws Exception {
+        try (Socket socket = new Socket("127.0.0.1", listener.getPort())) {
+            send(socket, "NONSENSE\r\n\r\n");
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+            assertTrue(response.startsWith("HTTP/1.1 400 Bad Request\r\n"));
+        }
+    }
+
+    private static void send(Socket socket, String requests) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(requests.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+
+    // Responses have no body, so each ends at its blank line
+    private static String[] readResponses(InputStream in, int count) throws IOException {
+        String[] responses = new String[count];
+        StringBuilder current = new StringBuilder();
+        int found = 0;
+        while (found < count) {
+            int c = in.read();
+            if (c < 0) {
+                throw new IOException("Connection closed after " + found + " responses");
+            }
+            current.append((char) c);
+            if (current.length() >= 4 && current.substring(current.length() - 4).equals("\r\n\r\n")) {
+                responses[found++] = current.substring(0, current.length() - 2);
+                current.setLength(0);
+            }
+        }
+        return responses;
+    }
+}
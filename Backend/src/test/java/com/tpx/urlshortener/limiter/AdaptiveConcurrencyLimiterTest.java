@@ -0,0 +1,85 @@
+package com.tpx.urlshortener.limiter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void tryAcquire_ShouldShedLowPriorityBeforeRedirects() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.5, 0.2, 500, 1, 0.5, 0.8);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        }
+
+        // When & Then
+        assertFalse(limiter.tryAcquire(RequestPriority.LOW));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        assertFalse(limiter.tryAcquire(RequestPriority.HIGH));
+        assertEquals(1, limiter.getRejected(RequestPriority.LOW));
+        assertEquals(1, limiter.getRejected(RequestPriority.NORMAL));
+        assertEquals(1, limiter.getRejected(RequestPriority.HIGH));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WhenLatencyRises_ShouldShrinkLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000, 1.5, 0.5, 500, 1, 0.5, 0.8);
+        long now = System.nanoTime() + 1_000 * MS;
+        runWindow(limiter, now, 60, 2 * MS);
+        runWindow(limiter, now + 600 * MS, 60, 2 * MS);
+        runWindow(limiter, now + 1_200 * MS, 60, 20 * MS);
+        int beforeSlowWindow = limiter.getLimit();
+
+        // When
+        runWindow(limiter, now + 1_800 * MS, 60, 20 * MS);
+
+        // Then
+        assertTrue(limiter.getLimit() < beforeSlowWindow);
+        assertTrue(limiter.getLimit() >= 10);
+    }
+
+    @Test
+    void release_WhenLatencyStaysFlatUnderLoad_ShouldGrowLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 1000, 1.5, 0.5, 500, 1, 0.5, 0.8);
+        long now = System.nanoTime() + 1_000 * MS;
+
+        // When
+        runWindow(limiter, now, 20, 2 * MS);
+        runWindow(limiter, now + 600 * MS, 20, 2 * MS);
+
+        // Then
+        assertTrue(limiter.getLimit() > 20);
+    }
+
+    @Test
+    void classify_ShouldProtectRedirectsAndDeprioritiseListing() {
+        assertEquals(RequestPriority.HIGH, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/abc123")));
+        assertEquals(RequestPriority.LOW, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/urls")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("POST", "/shorten")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("DELETE", "/abc123")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/aliases")));
+    }
+
+    // A window is evaluated by the first release that lands after it closes
+    private void runWindow(AdaptiveConcurrencyLimiter limiter, long endNanos, int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.HIGH));
+        }
+        for (int i = 0; i < requests; i++) {
+            limiter.release(endNanos - latencyNanos, endNanos);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.tpx.urlshortener.maintenance;
+
+import com.tpx.urlshortener.limiter.AdaptiveConcurrencyLimiter;
+import org.h2.Driver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompactionJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PurgeJob purgeJob;
+
+    @Mock
+    private ObjectProvider<AdaptiveConcurrencyLimiter> limiterProvider;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter limiter;
+
+    private CompactionJob job;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        job = new CompactionJob(jdbcTemplate, purgeJob, limiterProvider, true, 100, 4, 10_000);
+    }
+
+    @Test
+    void compactIfDue_WithFewPurgedRows_ShouldSkip() {
+        // Given
+        when(purgeJob.getPurged()).thenReturn(99L);
+
+        // When & Then
+        assertFalse(job.compactIfDue());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void compactIfDue_UnderLoad_ShouldSkip() {
+        // Given
+        when(purgeJob.getPurged()).thenReturn(500L);
+        when(limiterProvider.getIfAvailable()).thenReturn(limiter);
+        when(limiter.getInFlight()).thenReturn(10);
+
+        // When & Then
+        assertFalse(job.compactIfDue());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void compactIfDue_WhenDue_ShouldCompactOnceUntilMoreRowsArePurged() {
+        // Given
+        when(purgeJob.getPurged()).thenReturn(500L, 550L, 600L);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenReturn("H2", new long[]{2, 1}, "H2", new long[]{2, 1});
+        when(limiterProvider.getIfAvailable()).thenReturn(limiter);
+        when(limiter.getInFlight()).thenReturn(1);
+
+        // When
+        boolean first = job.compactIfDue();
+        boolean second = job.compactIfDue();
+        boolean third = job.compactIfDue();
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(third);
+        verify(jdbcTemplate, times(4)).execute(any(ConnectionCallback.class));
+        assertEquals(2, job.getRuns());
+    }
+
+    @Test
+    void compactIfDue_AfterPurge_ShouldShrinkTheDatabaseFile(@TempDir Path dir) {
+        // Given
+        String url = "jdbc:h2:file:" + dir.resolve("compaction") + ";DB_CLOSE_DELAY=-1";
+        JdbcTemplate h2 = new JdbcTemplate(new SimpleDriverDataSource(new Driver(), url, "sa", ""));
+        h2.execute("CREATE TABLE url_mapping (id BIGINT PRIMARY KEY, full_url VARCHAR(2048))");
+        h2.execute("INSERT INTO url_mapping SELECT X, REPEAT('https://example.com/', 50) || X"
+                + " FROM SYSTEM_RANGE(1, 10000)");
+        h2.execute("DELETE FROM url_mapping WHERE id > 1000");
+        h2.execute("CHECKPOINT SYNC");
+        Path file = dir.resolve("compaction.mv.db");
+        long before = size(file);
+        when(purgeJob.getPurged()).thenReturn(9000L);
+        CompactionJob realJob = new CompactionJob(h2, purgeJob, limiterProvider, true, 100, 4, 10_000);
+
+        // When
+        boolean compacted = realJob.compactIfDue();
+
+        // Then
+        try {
+            assertTrue(compacted);
+            assertTrue(size(file) < before / 2, "file did not shrink from " + before + " to " + size(file));
+            assertEquals(1000, h2.queryForObject("SELECT COUNT(*) FROM url_mapping", Integer.class));
+        } finally {
+            h2.execute("SHUTDOWN");
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void compactIfDue_OnOtherDatabase_ShouldSkip() {
+        // Given
+        when(purgeJob.getPurged()).thenReturn(500L);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+
+        // When & Then
+        assertFalse(job.compactIfDue());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
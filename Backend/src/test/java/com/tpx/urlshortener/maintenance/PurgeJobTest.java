@@ -0,0 +1,42 @@
+package com.tpx.urlshortener.maintenance;
+
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurgeJobTest {
+
+    @Mock
+    private UrlMappingRepository repository;
+
+    @Test
+    void run_ShouldPurgeOneBatchPerRunAndCountRows() {
+        // Given
+        when(repository.purgeDeleted(1000)).thenReturn(1000, 250, 0);
+        PurgeJob job = new PurgeJob(repository, true, 1000);
+
+        // When
+        job.run();
+        job.run();
+        job.run();
+
+        // Then
+        verify(repository, times(3)).purgeDeleted(1000);
+        assertEquals(1250, job.getPurged());
+    }
+
+    @Test
+    void run_WhenDisabled_ShouldNotTouchTheDatabase() {
+        // When
+        new PurgeJob(repository, false, 1000).run();
+
+        // Then
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,36 @@
+package com.tpx.urlshortener.replication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderElectionTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void tryAcquire_ShouldAllowOnlyOneLeaderUntilItCloses() throws Exception {
+        // Given
+        Path lockFile = tempDir.resolve("replication.lock");
+        try (LeaderElection first = new LeaderElection(lockFile);
+             LeaderElection second = new LeaderElection(lockFile)) {
+
+            // When & Then
+            assertNull(second.readLeader());
+            assertTrue(first.tryAcquire("localhost:9090", "http://localhost:8080", 0));
+            assertFalse(second.tryAcquire("localhost:9091", "http://localhost:8081", 0));
+            assertEquals(List.of("localhost:9090", "http://localhost:8080", "1"), second.readLeader());
+
+            first.close();
+            assertTrue(second.tryAcquire("localhost:9091", "http://localhost:8081", 0));
+            assertTrue(second.isLeader());
+            assertEquals(2L, second.getEpoch());
+            assertEquals(List.of("localhost:9091", "http://localhost:8081", "2"), first.readLeader());
+        }
+    }
+}
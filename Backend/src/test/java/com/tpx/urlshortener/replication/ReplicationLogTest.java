@@ -0,0 +1,183 @@
+package com.tpx.urlshortener.replication;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ReplicationLog replicationLog;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (replicationLog != null) {
+            replicationLog.close();
+        }
+    }
+
+    @Test
+    void reader_ShouldReturnRecordsInOrderAndNullWhenCaughtUp() throws Exception {
+        // Given
+        replicationLog = open(1 << 20, 4);
+        appendCreated(3);
+
+        // When
+        List<ReplicationRecord> read = readAll(replicationLog.reader(2));
+
+        // Then
+        assertEquals(List.of(2L, 3L), read.stream().map(ReplicationRecord::getSequence).toList());
+        assertEquals("alias3", read.get(1).getAlias());
+        assertEquals("https://example.com/3", read.get(1).getFullUrl());
+    }
+
+    @Test
+    void reader_ShouldFollowRecordsAppendedAfterCatchingUp() throws Exception {
+        // Given
+        replicationLog = open(1 << 20, 4);
+        appendCreated(1);
+
+        try (ReplicationLog.Reader reader = replicationLog.reader(1)) {
+            assertEquals(1L, reader.next().getSequence());
+            assertNull(reader.next());
+
+            // When
+            replicationLog.append(sequence -> ReplicationRecord.deleted(sequence, 1, "alias1"));
+
+            // Then
+            ReplicationRecord record = reader.next();
+            assertEquals(2L, record.getSequence());
+            assertEquals(ReplicationRecord.DELETED, record.getType());
+        }
+    }
+
+    @Test
+    void append_ShouldRollSegmentsAndDropOldestBeyondRetention() throws Exception {
+        // Given
+        replicationLog = open(200, 2);
+
+        // When
+        appendCreated(20);
+
+        // Then
+        assertEquals(20L, replicationLog.getLastSequence());
+        assertTrue(replicationLog.getFirstSequence() > 1);
+        assertEquals(2, segmentFiles().size());
+        assertThrows(IllegalArgumentException.class, () -> replicationLog.reader(1));
+        List<ReplicationRecord> read = readAll(replicationLog.reader(replicationLog.getFirstSequence()));
+        assertEquals(20L, read.get(read.size() - 1).getSequence());
+    }
+
+    @Test
+    void append_WithSequenceGap_ShouldThrowIllegalStateException() throws Exception {
+        // Given
+        replicationLog = open(1 << 20, 4);
+        appendCreated(1);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> replicationLog.append(ReplicationRecord.deleted(3, 1, "alias1")));
+    }
+
+    @Test
+    void open_ShouldTruncateTornTail() throws Exception {
+        // Given
+        replicationLog = open(1 << 20, 4);
+        appendCreated(3);
+        replicationLog.close();
+        Path segment = segmentFiles().get(0);
+        byte[] partial = ReplicationRecord.created(4, 1, "alias4", "https://example.com/4", 0).encode();
+        Files.write(segment, Arrays.copyOf(partial, partial.length / 2), StandardOpenOption.APPEND);
+
+        // When
+        replicationLog = open(1 << 20, 4);
+        appendCreated(1);
+
+        // Then
+        assertEquals(4L, replicationLog.getLastSequence());
+        List<ReplicationRecord> read = readAll(replicationLog.reader(1));
+        assertEquals(4, read.size());
+        assertEquals("alias4", read.get(3).getAlias());
+    }
+
+    @Test
+    void reset_ShouldRestartLogAfterGivenSequence() throws Exception {
+        // Given
+        replicationLog = open(1 << 20, 4);
+        appendCreated(3);
+
+        // When
+        replicationLog.reset(100, 1);
+        replicationLog.append(ReplicationRecord.deleted(101, 1, "alias1"));
+
+        // Then
+        assertEquals(101L, replicationLog.getFirstSequence());
+        assertEquals(101L, replicationLog.getLastSequence());
+        assertEquals(1, segmentFiles().size());
+    }
+
+    @Test
+    void epochAt_ShouldSurviveReopenAndReset() throws Exception {
+        // Given
+        replicationLog = open(1 << 20, 4);
+        appendCreated(2);
+        replicationLog.append(sequence -> ReplicationRecord.deleted(sequence, 2, "alias1"));
+        replicationLog.close();
+
+        // When
+        replicationLog = open(1 << 20, 4);
+
+        // Then
+        assertEquals(2L, replicationLog.getLastEpoch());
+        assertEquals(0L, replicationLog.epochAt(0));
+        assertEquals(1L, replicationLog.epochAt(2));
+        assertEquals(2L, replicationLog.epochAt(3));
+        assertEquals(-1L, replicationLog.epochAt(4));
+        assertThrows(IllegalStateException.class,
+                () -> replicationLog.append(ReplicationRecord.deleted(4, 1, "alias2")));
+
+        replicationLog.reset(100, 3);
+        assertEquals(3L, replicationLog.epochAt(100));
+        assertEquals(-1L, replicationLog.epochAt(3));
+    }
+
+    private ReplicationLog open(long segmentBytes, int retainedSegments) throws Exception {
+        return ReplicationLog.open(tempDir, segmentBytes, retainedSegments, false);
+    }
+
+    private void appendCreated(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            replicationLog.append(sequence -> ReplicationRecord.created(sequence, 1, "alias" + sequence,
+                    "https://example.com/" + sequence, 1_700_000_000_000L));
+        }
+    }
+
+    private static List<ReplicationRecord> readAll(ReplicationLog.Reader reader) throws Exception {
+        List<ReplicationRecord> records = new ArrayList<>();
+        try (reader) {
+            ReplicationRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.tpx.urlshortener.replication;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ReplicationManager first;
+    private ReplicationManager second;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (second != null) {
+            second.stop();
+        }
+        if (first != null) {
+            first.stop();
+        }
+    }
+
+    @Test
+    void follower_ShouldTakeOverOnItsOwnElectionThreadWhenTheLeaderStops() throws Exception {
+        // Given
+        first = manager("first");
+        first.run(null);
+        second = manager("second");
+        second.run(null);
+        assertEquals(ReplicationManager.Role.LEADER, first.getRole());
+        assertEquals(ReplicationManager.Role.FOLLOWER, second.getRole());
+
+        // When
+        first.stop();
+
+        // Then
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (second.getRole() != ReplicationManager.Role.LEADER) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the election");
+            Thread.sleep(10);
+        }
+    }
+
+    private ReplicationManager manager(String name) {
+        return new ReplicationManager(new NoOpStore(), true, tempDir.resolve(name).toString(),
+                tempDir.resolve("replication.lock").toString(), "localhost", 0, "http://localhost:8080",
+                100, 50, 1 << 20, 4, false);
+    }
+
+    private static final class NoOpStore implements ReplicaStore {
+        @Override
+        public void applyCreated(String alias, String fullUrl, long createdAtMillis) {
+        }
+
+        @Override
+        public void applyDeleted(String alias) {
+        }
+
+        @Override
+        public void forEachMapping(MappingVisitor visitor) {
+        }
+
+        @Override
+        public void retainOnly(Set<String> aliases) {
+        }
+    }
+}
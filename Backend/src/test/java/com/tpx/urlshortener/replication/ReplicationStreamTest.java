@@ -0,0 +1,169 @@
+package com.tpx.urlshortener.replication;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationStreamTest {
+
+    private static final long HEARTBEAT_MILLIS = 100;
+
+    @TempDir
+    Path tempDir;
+
+    private final MapStore leaderStore = new MapStore();
+    private final MapStore followerStore = new MapStore();
+    private ReplicationLog leaderLog;
+    private ReplicationLog followerLog;
+    private ReplicationServer server;
+    private ReplicationClient client;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        if (followerLog != null) {
+            followerLog.close();
+        }
+        if (leaderLog != null) {
+            leaderLog.close();
+        }
+    }
+
+    @Test
+    void follower_ShouldReplayLogAndThenFollowLiveWrites() throws Exception {
+        // Given
+        leaderLog = ReplicationLog.open(tempDir.resolve("leader"), 1 << 20, 4, false);
+        followerLog = ReplicationLog.open(tempDir.resolve("follower"), 1 << 20, 4, false);
+        create("alias1", "https://example.com/1");
+        create("alias2", "https://example.com/2");
+        startReplication();
+        awaitTrue(() -> followerLog.getLastSequence() == 2);
+
+        // When
+        delete("alias1");
+        create("alias3", "https://example.com/3");
+
+        // Then
+        awaitTrue(() -> followerLog.getLastSequence() == 4);
+        assertEquals(Map.of("alias2", "https://example.com/2", "alias3", "https://example.com/3"),
+                followerStore.urls);
+        assertTrue(client.isConnected());
+        assertEquals(1, server.getFollowerCount());
+        assertEquals(0, client.getLeaderSequence() - client.getAppliedSequence());
+    }
+
+    @Test
+    void follower_BehindRetainedLog_ShouldCatchUpFromSnapshot() throws Exception {
+        // Given
+        leaderLog = ReplicationLog.open(tempDir.resolve("leader"), 200, 1, false);
+        followerLog = ReplicationLog.open(tempDir.resolve("follower"), 1 << 20, 4, false);
+        for (int i = 0; i < 20; i++) {
+            create("alias" + i, "https://example.com/" + i);
+        }
+        assertTrue(leaderLog.getFirstSequence() > 1);
+        followerStore.urls.put("stale", "https://example.com/stale");
+
+        // When
+        startReplication();
+        awaitTrue(() -> followerLog.getLastSequence() == 20);
+        create("alias20", "https://example.com/20");
+
+        // Then
+        awaitTrue(() -> followerLog.getLastSequence() == 21);
+        assertEquals(leaderStore.urls, followerStore.urls);
+        assertFalse(followerStore.urls.containsKey("stale"));
+    }
+
+    @Test
+    void follower_WithRecordsFromDeposedLeader_ShouldCatchUpFromSnapshot() throws Exception {
+        // Given
+        leaderLog = ReplicationLog.open(tempDir.resolve("leader"), 1 << 20, 4, false);
+        followerLog = ReplicationLog.open(tempDir.resolve("follower"), 1 << 20, 4, false);
+        for (int i = 1; i <= 2; i++) {
+            append(leaderLog, leaderStore, 1, "alias" + i, "https://example.com/" + i);
+            append(followerLog, followerStore, 1, "alias" + i, "https://example.com/" + i);
+        }
+        // Sequence 3 was written twice: by the old leader, and by the new one in the next epoch
+        append(followerLog, followerStore, 1, "lost", "https://example.com/lost");
+        append(leaderLog, leaderStore, 2, "alias3", "https://example.com/3");
+
+        // When
+        startReplication();
+
+        // Then
+        awaitTrue(() -> followerLog.getLastEpoch() == 2);
+        assertEquals(3L, followerLog.getLastSequence());
+        assertEquals(leaderStore.urls, followerStore.urls);
+        assertFalse(followerStore.urls.containsKey("lost"));
+    }
+
+    private void startReplication() throws Exception {
+        server = new ReplicationServer(leaderLog, leaderStore, 0, HEARTBEAT_MILLIS);
+        server.start();
+        InetSocketAddress address = new InetSocketAddress("localhost", server.getPort());
+        client = new ReplicationClient(followerLog, followerStore, () -> address, HEARTBEAT_MILLIS);
+        client.start();
+    }
+
+    private void create(String alias, String fullUrl) throws Exception {
+        append(leaderLog, leaderStore, 1, alias, fullUrl);
+    }
+
+    private static void append(ReplicationLog replicationLog, MapStore store, long epoch, String alias,
+                               String fullUrl) throws Exception {
+        store.applyCreated(alias, fullUrl, 1_700_000_000_000L);
+        replicationLog.append(sequence -> ReplicationRecord.created(sequence, epoch, alias, fullUrl,
+                1_700_000_000_000L));
+    }
+
+    private void delete(String alias) throws Exception {
+        leaderStore.applyDeleted(alias);
+        leaderLog.append(sequence -> ReplicationRecord.deleted(sequence, 1, alias));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for replication");
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class MapStore implements ReplicaStore {
+        private final Map<String, String> urls = new ConcurrentHashMap<>();
+
+        @Override
+        public void applyCreated(String alias, String fullUrl, long createdAtMillis) {
+            urls.put(alias, fullUrl);
+        }
+
+        @Override
+        public void applyDeleted(String alias) {
+            urls.remove(alias);
+        }
+
+        @Override
+        public void forEachMapping(MappingVisitor visitor) {
+            urls.forEach((alias, fullUrl) -> visitor.visit(alias, fullUrl, 1_700_000_000_000L));
+        }
+
+        @Override
+        public void retainOnly(Set<String> aliases) {
+            urls.keySet().retainAll(aliases);
+        }
+    }
+}
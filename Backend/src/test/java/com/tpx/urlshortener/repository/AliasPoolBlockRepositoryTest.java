@@ -0,0 +1,66 @@
+package com.tpx.urlshortener.repository;
+
+import com.tpx.urlshortener.model.AliasPoolBlock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AliasPoolBlockRepositoryTest {
+
+    @Autowired
+    private AliasPoolBlockRepository repository;
+
+    @Test
+    void reserve_ShouldReturnConsecutiveNonOverlappingRanges() {
+        // Given
+        repository.saveAndFlush(new AliasPoolBlock("default", 0));
+
+        // When
+        List<Long> first = repository.reserve("default", 100);
+        List<Long> second = repository.reserve("default", 100);
+
+        // Then
+        assertEquals(List.of(0L), first);
+        assertEquals(List.of(100L), second);
+    }
+
+    @Test
+    void createIfMissing_ShouldKeepTheFirstKey() {
+        // When
+        repository.createIfMissing("default", 11L);
+        repository.createIfMissing("default", 22L);
+
+        // Then
+        assertEquals(11L, repository.findPermutationKey("default"));
+        assertEquals(List.of(0L), repository.reserve("default", 100));
+    }
+
+    @Test
+    void assignKeyIfMissing_ShouldOnlyFillAnEmptyKey() {
+        // Given
+        repository.saveAndFlush(new AliasPoolBlock("default", 500));
+
+        // When
+        int first = repository.assignKeyIfMissing("default", 11L);
+        int second = repository.assignKeyIfMissing("default", 22L);
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(11L, repository.findPermutationKey("default"));
+    }
+
+    @Test
+    void reserve_WithMissingCounter_ShouldReturnNothing() {
+        // When
+        List<Long> reserved = repository.reserve("missing", 100);
+
+        // Then
+        assertTrue(reserved.isEmpty());
+    }
+}
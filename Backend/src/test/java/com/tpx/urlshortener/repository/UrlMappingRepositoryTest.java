@@ -5,7 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -91,12 +96,152 @@ class UrlMappingRepositoryTest {
     void deleteByAlias_WithExistingAlias_ShouldDelete() {
         // Given
         UrlMapping mapping = new UrlMapping("test-alias", "https://example.com");
-        repository.save(mapping);
+        UrlMapping saved = repository.save(mapping);
 
         // When
-        repository.deleteByAlias("test-alias");
+        List<Long> deleted = repository.deleteByAlias("test-alias");
 
         // Then
+        assertEquals(List.of(saved.getId()), deleted);
         assertFalse(repository.existsByAlias("test-alias"));
     }
+
+    @Test
+    void deleteByAlias_WithNonExistentAlias_ShouldAffectNoRows() {
+        // When
+        List<Long> deleted = repository.deleteByAlias("non-existent");
+
+        // Then
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    void markAccessed_ShouldUpdateOnlyGivenAliases() {
+        // Given
+        repository.save(new UrlMapping("read-alias", "https://example.com/1"));
+        repository.save(new UrlMapping("idle-alias", "https://example.com/2"));
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // When
+        int updated = repository.markAccessed(List.of("read-alias", "missing-alias"), now);
+
+        // Then
+        assertEquals(1, updated);
+        assertEquals(now, repository.findByAlias("read-alias").orElseThrow().getLastAccessedAt());
+        assertNull(repository.findByAlias("idle-alias").orElseThrow().getLastAccessedAt());
+    }
+
+    @Test
+    void findByFullUrlLikeAfter_ShouldMatchCaseInsensitivelyInIdOrder() {
+        // Given
+        UrlMapping first = repository.save(new UrlMapping("first", "https://Example.com/?utm_campaign=spring"));
+        repository.save(new UrlMapping("other", "https://other.org/"));
+        UrlMapping second = repository.save(new UrlMapping("second", "https://example.com/docs"));
+
+        // When
+        List<UrlMapping> all = repository.findByFullUrlLikeAfter("%example.com%", 0, PageRequest.of(0, 10));
+        List<UrlMapping> afterFirst = repository.findByFullUrlLikeAfter("%example.com%", first.getId(),
+                PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("first", "second"), all.stream().map(UrlMapping::getAlias).toList());
+        assertEquals(List.of(second.getId()), afterFirst.stream().map(UrlMapping::getId).toList());
+    }
+
+    @Test
+    void tombstoneByIdIn_ShouldHideRowsUntilPurged() {
+        // Given
+        UrlMapping deleted = repository.save(new UrlMapping("deleted-alias", "https://example.com/1"));
+        repository.save(new UrlMapping("live-alias", "https://example.com/2"));
+
+        // When
+        int tombstoned = repository.tombstoneByIdIn(List.of(deleted.getId()), Instant.now());
+
+        // Then
+        assertEquals(1, tombstoned);
+        assertFalse(repository.findByAlias("deleted-alias").isPresent());
+        assertFalse(repository.existsByAlias("deleted-alias"));
+        assertEquals(List.of("live-alias"), repository.findAllAliases());
+        assertEquals(1, repository.count());
+        assertEquals(1, repository.countDeleted());
+        assertTrue(repository.deleteByAlias("deleted-alias").isEmpty());
+    }
+
+    @Test
+    void purgeDeletedAlias_ShouldFreeTombstonedAliasForReuse() {
+        // Given
+        UrlMapping deleted = repository.save(new UrlMapping("test-alias", "https://example.com/1"));
+        repository.tombstoneByIdIn(List.of(deleted.getId()), Instant.now());
+
+        // When
+        int purged = repository.purgeDeletedAlias("test-alias");
+        UrlMapping reused = repository.save(new UrlMapping("test-alias", "https://example.com/2"));
+
+        // Then
+        assertEquals(1, purged);
+        assertEquals("https://example.com/2", repository.findByAlias("test-alias").orElseThrow().getFullUrl());
+        assertNotEquals(deleted.getId(), reused.getId());
+    }
+
+    @Test
+    void purgeDeleted_ShouldDeleteAtMostLimitTombstonedRows() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(repository.save(new UrlMapping("alias-" + i, "https://example.com/" + i)).getId());
+        }
+        repository.save(new UrlMapping("live-alias", "https://example.com/live"));
+        repository.tombstoneByIdIn(ids, Instant.now());
+
+        // When
+        int first = repository.purgeDeleted(3);
+        int second = repository.purgeDeleted(3);
+        int third = repository.purgeDeleted(3);
+
+        // Then
+        assertEquals(3, first);
+        assertEquals(2, second);
+        assertEquals(0, third);
+        assertEquals(0, repository.countDeleted());
+        assertTrue(repository.existsByAlias("live-alias"));
+    }
+
+    @Test
+    void findByCreatedAtBefore_ShouldPageLiveRowsInIdOrder() {
+        // Given
+        Instant cutoff = Instant.now();
+        UrlMapping old1 = new UrlMapping("old-1", "https://example.com/1");
+        old1.setCreatedAt(cutoff.minusSeconds(60));
+        UrlMapping old2 = new UrlMapping("old-2", "https://example.com/2");
+        old2.setCreatedAt(cutoff.minusSeconds(30));
+        UrlMapping recent = new UrlMapping("recent", "https://example.com/3");
+        recent.setCreatedAt(cutoff.plusSeconds(30));
+        old1 = repository.save(old1);
+        old2 = repository.save(old2);
+        repository.save(recent);
+
+        // When
+        List<UrlMapping> firstPage = repository.findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(cutoff, 0L,
+                PageRequest.of(0, 1));
+        List<UrlMapping> secondPage = repository.findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(cutoff,
+                old1.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("old-1"), firstPage.stream().map(UrlMapping::getAlias).toList());
+        assertEquals(List.of(old2.getId()), secondPage.stream().map(UrlMapping::getId).toList());
+    }
+
+    @Test
+    void findExistingAliases_ShouldReturnOnlyTakenAliases() {
+        // Given
+        repository.save(new UrlMapping("taken-1", "https://example.com/1"));
+        repository.save(new UrlMapping("taken-2", "https://example.com/2"));
+
+        // When
+        List<String> existing = repository.findExistingAliases(List.of("taken-1", "free-1", "taken-2"));
+
+        // Then
+        assertEquals(2, existing.size());
+        assertTrue(existing.containsAll(List.of("taken-1", "taken-2")));
+    }
 }
@@ -0,0 +1,62 @@
+package com.tpx.urlshortener.repository;
+
+import com.tpx.urlshortener.model.UrlMapping;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(UrlViewRepository.class)
+class UrlViewRepositoryTest {
+
+    @Autowired
+    private UrlMappingRepository repository;
+
+    @Autowired
+    private UrlViewRepository urlViews;
+
+    @Test
+    void findFullUrl_WithLiveAlias_ShouldReturnUrl() {
+        // Given
+        repository.saveAndFlush(new UrlMapping("test-alias", "https://example.com"));
+
+        // When
+        String fullUrl = urlViews.findFullUrl("test-alias");
+
+        // Then
+        assertEquals("https://example.com", fullUrl);
+    }
+
+    @Test
+    void findFullUrl_WithMissingOrTombstonedAlias_ShouldReturnNull() {
+        // Given
+        UrlMapping deleted = repository.saveAndFlush(new UrlMapping("deleted-alias", "https://example.com"));
+        repository.tombstoneByIdIn(List.of(deleted.getId()), Instant.now());
+
+        // When & Then
+        assertNull(urlViews.findFullUrl("deleted-alias"));
+        assertNull(urlViews.findFullUrl("missing-alias"));
+    }
+
+    @Test
+    void findAll_ShouldReturnLiveMappingsInIdOrder() {
+        // Given
+        repository.saveAndFlush(new UrlMapping("first", "https://example.com/1"));
+        UrlMapping deleted = repository.saveAndFlush(new UrlMapping("deleted", "https://example.com/2"));
+        repository.saveAndFlush(new UrlMapping("second", "https://example.com/3"));
+        repository.tombstoneByIdIn(List.of(deleted.getId()), Instant.now());
+
+        // When
+        List<UrlView> views = urlViews.findAll();
+
+        // Then
+        assertEquals(List.of(new UrlView("first", "https://example.com/1"),
+                new UrlView("second", "https://example.com/3")), views);
+    }
+}
@@ -0,0 +1,76 @@
+package com.tpx.urlshortener.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingListTest {
+
+    @Test
+    void add_ShouldKeepIdsSortedAndDistinct() {
+        // Given
+        PostingList list = new PostingList();
+
+        // When
+        list.add(10);
+        list.add(300_000);
+        list.add(5);
+        list.add(300_000);
+        list.add(10);
+        list.add(300_001);
+
+        // Then
+        assertEquals(List.of(5L, 10L, 300_000L, 300_001L), ids(list));
+        assertEquals(4, list.size());
+    }
+
+    @Test
+    void advanceTo_ShouldUseSkipTableAcrossManyIds() {
+        // Given
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 10_000; id++) {
+            list.add(id * 3);
+        }
+        PostingList.Cursor cursor = list.cursor();
+
+        // When & Then
+        assertEquals(3, cursor.advanceTo(1));
+        assertEquals(6_000, cursor.advanceTo(5_999));
+        assertEquals(6_000, cursor.advanceTo(6_000));
+        assertEquals(6_003, cursor.next());
+        assertEquals(19_200, cursor.advanceTo(19_200));
+        assertEquals(30_000, cursor.advanceTo(29_998));
+        assertEquals(-1, cursor.next());
+        assertEquals(-1, list.cursor().advanceTo(30_001));
+    }
+
+    @Test
+    void removeIf_ShouldDropMatchingIds() {
+        // Given
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 200; id++) {
+            list.add(id);
+        }
+
+        // When
+        int dropped = list.removeIf(id -> id % 2 == 0);
+
+        // Then
+        assertEquals(100, dropped);
+        assertEquals(100, list.size());
+        assertEquals(199, list.last());
+        assertEquals(101, list.cursor().advanceTo(100));
+    }
+
+    private static List<Long> ids(PostingList list) {
+        List<Long> ids = new ArrayList<>();
+        PostingList.Cursor cursor = list.cursor();
+        for (long id = cursor.next(); id >= 0; id = cursor.next()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
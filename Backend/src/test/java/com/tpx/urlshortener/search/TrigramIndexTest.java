@@ -0,0 +1,76 @@
+package com.tpx.urlshortener.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void normalize_ShouldIgnoreCaseSchemeAndWww() {
+        assertEquals("example.com/path", TrigramIndex.normalize("https://www.Example.com/Path"));
+        assertEquals("example.com", TrigramIndex.normalize(" http://example.com "));
+        assertEquals("utm_campaign=spring", TrigramIndex.normalize("UTM_Campaign=spring"));
+    }
+
+    @Test
+    void candidates_ShouldReturnIdsContainingAllQueryTrigrams() {
+        // Given
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "https://example.com/docs");
+        index.add(2, "https://other.org/?utm_campaign=spring");
+        index.add(3, "https://www.example.com/?utm_campaign=spring");
+        index.add(4, "https://example.org/");
+
+        // When & Then
+        assertArrayEquals(new long[]{1, 3}, index.candidates("example.com", 0, 10));
+        assertArrayEquals(new long[]{2, 3}, index.candidates("utm_campaign", 0, 10));
+        assertArrayEquals(new long[]{3}, index.candidates("utm_campaign", 2, 10));
+        assertArrayEquals(new long[]{1}, index.candidates("example", 0, 1));
+        assertArrayEquals(new long[0], index.candidates("missing", 0, 10));
+        assertArrayEquals(new long[0], index.candidates("ex", 0, 10));
+    }
+
+    @Test
+    void remove_ShouldHideIdsUntilCompactedAway() {
+        // Given
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "https://example.com/a");
+        index.add(2, "https://example.com/b");
+
+        // When
+        index.remove(1);
+
+        // Then
+        assertArrayEquals(new long[]{2}, index.candidates("example", 0, 10));
+        assertEquals(1, index.getRemovedCount());
+        assertEquals(1, index.getDocumentCount());
+
+        long bytesBefore = index.getPostingBytes();
+        assertTrue(index.compact(2) > 0);
+        assertEquals(0, index.getRemovedCount());
+        assertTrue(index.getPostingBytes() < bytesBefore);
+        assertArrayEquals(new long[]{2}, index.candidates("example", 0, 10));
+    }
+
+    @Test
+    void append_ShouldCombinePartitionsInIdOrder() {
+        // Given
+        TrigramIndex first = new TrigramIndex();
+        first.add(1, "https://example.com/1");
+        first.add(2, "https://foo.org/");
+        TrigramIndex second = new TrigramIndex();
+        second.add(10, "https://example.com/10");
+        second.add(11, "https://bar.net/");
+
+        // When
+        TrigramIndex combined = new TrigramIndex();
+        combined.append(first);
+        combined.append(second);
+        combined.add(12, "https://example.com/12");
+
+        // Then
+        assertArrayEquals(new long[]{1, 10, 12}, combined.candidates("example.com", 0, 10));
+        assertEquals(5, combined.getDocumentCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.tpx.urlshortener.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasIndexTest {
+
+    private final AliasIndex index = new AliasIndex(null, null);
+
+    @Test
+    void withPrefix_ShouldReturnMatchesInAliasOrderUpToLimit() {
+        // Given
+        index.load(List.of("summer-sale", "summer-2024", "summit", "sum", "winter-sale"));
+
+        // When & Then
+        assertEquals(List.of("summer-2024", "summer-sale"), index.withPrefix("summer-", 10));
+        assertEquals(List.of("sum", "summer-2024", "summer-sale", "summit"), index.withPrefix("sum", 10));
+        assertEquals(List.of("sum", "summer-2024"), index.withPrefix("su", 2));
+        assertEquals(List.of("summit"), index.withPrefix("summi", 10));
+        assertTrue(index.withPrefix("summers", 10).isEmpty());
+        assertTrue(index.withPrefix("autumn", 10).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void contains_ShouldOnlyMatchWholeAliases() {
+        // Given
+        index.load(List.of("summer-sale", "summit"));
+
+        // When & Then
+        assertTrue(index.contains("summit"));
+        assertTrue(index.contains("summer-sale"));
+        assertFalse(index.contains("sum"));
+        assertFalse(index.contains("summer"));
+        assertFalse(index.contains("summer-sales"));
+    }
+
+    @Test
+    void remove_ShouldMergeEdgesAndKeepSiblings() {
+        // Given
+        index.load(List.of("abc", "abcd", "abxy"));
+
+        // When
+        index.remove("abc");
+        index.remove("abxy");
+        index.remove("missing");
+
+        // Then
+        assertEquals(1, index.size());
+        assertFalse(index.contains("abc"));
+        assertTrue(index.contains("abcd"));
+        assertEquals(List.of("abcd"), index.withPrefix("ab", 10));
+    }
+
+    @Test
+    void add_ShouldNotDisturbReadersHoldingEarlierResults() {
+        // Given
+        index.load(List.of("alpha"));
+        List<String> before = index.withPrefix("", 10);
+
+        // When
+        index.add("alpine");
+        index.add("alpha");
+
+        // Then
+        assertEquals(List.of("alpha"), before);
+        assertEquals(List.of("alpha", "alpine"), index.withPrefix("alp", 10));
+        assertEquals(2, index.size());
+    }
+}
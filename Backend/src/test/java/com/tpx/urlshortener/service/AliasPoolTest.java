@@ -0,0 +1,181 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.exception.AliasPoolExhaustedException;
+import com.tpx.urlshortener.replication.ReplicationManager;
+import com.tpx.urlshortener.repository.AliasPoolBlockRepository;
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.tiering.ColdStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AliasPoolTest {
+
+    @Mock
+    private AliasPoolBlockRepository blockRepository;
+
+    @Mock
+    private UrlMappingRepository mappingRepository;
+
+    @Mock
+    private ColdStore coldStore;
+
+    @Mock
+    private ReplicationManager replication;
+
+    private long counter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(blockRepository.reserve(eq("default"), anyLong())).thenAnswer(invocation -> {
+            long start = counter;
+            counter += invocation.<Long>getArgument(1);
+            return List.of(start);
+        });
+        lenient().when(mappingRepository.findExistingAliases(anyCollection())).thenReturn(List.of());
+        lenient().when(blockRepository.findPermutationKey("default")).thenReturn(42L);
+    }
+
+    private AliasPool pool(boolean enabled, int size, String policy) {
+        return new AliasPool(blockRepository, mappingRepository, coldStore, replication, enabled, size, size / 4,
+                100, 50, policy);
+    }
+
+    @Test
+    void aliasFor_ShouldMapDistinctValuesToDistinctSevenCharAliases() {
+        // Given
+        AliasPool pool = pool(true, 100, "fallback");
+        Set<String> aliases = new HashSet<>();
+
+        // When
+        for (long value = 0; value < 100_000; value++) {
+            aliases.add(pool.aliasFor(value));
+        }
+
+        // Then
+        assertEquals(100_000, aliases.size());
+        assertTrue(aliases.stream().allMatch(alias -> alias.matches("^[A-Za-z0-9]{7}$")));
+    }
+
+    @Test
+    void aliasFor_ShouldUseTheKeyStoredWithTheCounter() {
+        // Given
+        AliasPool pool = pool(true, 100, "fallback");
+        String withStoredKey = pool.aliasFor(0);
+        when(blockRepository.findPermutationKey("default")).thenReturn(43L);
+
+        // When
+        String withOtherKey = pool(true, 100, "fallback").aliasFor(0);
+
+        // Then
+        assertNotEquals(withStoredKey, withOtherKey);
+        assertEquals(withStoredKey, pool.aliasFor(0));
+        verify(blockRepository, times(2)).createIfMissing(eq("default"), anyLong());
+        verify(blockRepository, times(2)).assignKeyIfMissing(eq("default"), anyLong());
+        verify(blockRepository, times(2)).findPermutationKey("default");
+    }
+
+    @Test
+    void refill_ShouldFillToSizeFromConsecutiveReservedRanges() {
+        // Given
+        AliasPool pool = pool(true, 250, "fallback");
+
+        // When
+        pool.refill();
+
+        // Then
+        assertEquals(250, pool.getDepth());
+        assertEquals(1, pool.getRefills());
+        verify(blockRepository, times(3)).reserve("default", 100);
+    }
+
+    @Test
+    void refill_WithMissingCounter_ShouldCreateItAndRetry() {
+        // Given
+        when(blockRepository.reserve("default", 100)).thenReturn(List.of()).thenReturn(List.of(0L));
+        AliasPool pool = pool(true, 100, "fallback");
+
+        // When
+        pool.refill();
+
+        // Then
+        verify(blockRepository).createIfMissing("default", 42L);
+        assertEquals(100, pool.getDepth());
+    }
+
+    @Test
+    void refill_ShouldSkipAliasesTakenInDatabaseOrColdTier() {
+        // Given
+        AliasPool pool = pool(true, 20, "fallback");
+        String inDatabase = pool.aliasFor(0);
+        String inColdTier = pool.aliasFor(1);
+        when(mappingRepository.findExistingAliases(anyCollection())).thenAnswer(invocation ->
+                invocation.<List<String>>getArgument(0).contains(inDatabase) ? List.of(inDatabase) : List.of());
+        when(coldStore.contains(anyString())).thenAnswer(invocation -> inColdTier.equals(invocation.getArgument(0)));
+
+        // When
+        pool.refill();
+        List<String> polled = new ArrayList<>();
+        while (pool.getDepth() > 0) {
+            polled.add(pool.poll());
+        }
+
+        // Then
+        assertEquals(20, polled.size());
+        assertFalse(polled.contains(inDatabase));
+        assertFalse(polled.contains(inColdTier));
+        assertEquals(2, pool.getSkipped());
+    }
+
+    @Test
+    void poll_WhenEmptyUnderFallbackPolicy_ShouldReturnNull() {
+        // Given
+        AliasPool pool = pool(true, 100, "fallback");
+
+        // When
+        String alias = pool.poll();
+
+        // Then
+        assertNull(alias);
+        assertEquals(1, pool.getExhausted());
+    }
+
+    @Test
+    void poll_WhenEmptyUnderFailPolicy_ShouldThrow() {
+        // Given
+        AliasPool pool = pool(true, 100, "fail");
+
+        // When & Then
+        assertThrows(AliasPoolExhaustedException.class, pool::poll);
+        assertEquals(1, pool.getExhausted());
+    }
+
+    @Test
+    void poll_WhenDisabled_ShouldReturnNullWithoutCountingExhaustion() {
+        // Given
+        AliasPool pool = pool(false, 100, "fail");
+
+        // When
+        String alias = pool.poll();
+
+        // Then
+        assertNull(alias);
+        assertEquals(0, pool.getExhausted());
+        verifyNoInteractions(blockRepository);
+    }
+}
@@ -0,0 +1,77 @@
+package com.tpx.urlshortener.service;
+
+import com.tpx.urlshortener.dto.HotAlias;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyTrackerTest {
+
+    private HotKeyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HotKeyTracker(3, 4, 1024, 60, 5000);
+    }
+
+    @Test
+    void topK_ShouldRankMostRequestedAliasesFirst() {
+        // Given
+        hit("hot", 100);
+        hit("warm", 50);
+        hit("mild", 20);
+        for (int i = 0; i < 200; i++) {
+            hit("cold-" + i, 1);
+        }
+
+        // When
+        List<HotAlias> top = tracker.topK(3);
+
+        // Then
+        assertEquals(3, top.size());
+        assertEquals("hot", top.get(0).getAlias());
+        assertEquals("warm", top.get(1).getAlias());
+        assertEquals("mild", top.get(2).getAlias());
+        assertTrue(top.get(0).getRequestsPerSecond() > top.get(1).getRequestsPerSecond());
+        assertTrue(tracker.isHot("hot"));
+        assertFalse(tracker.isHot("cold-7"));
+    }
+
+    @Test
+    void decay_ShouldReduceEstimatedRates() {
+        // Given
+        hit("hot", 100);
+        double before = tracker.topK(1).get(0).getRequestsPerSecond();
+
+        // When
+        tracker.decay();
+
+        // Then
+        double after = tracker.topK(1).get(0).getRequestsPerSecond();
+        assertTrue(after < before);
+    }
+
+    @Test
+    void sketch_ShouldNeverUnderestimate() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key-" + (i % 100));
+        }
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 10);
+        }
+        assertEquals(64, sketch.getWidth());
+    }
+
+    private void hit(String alias, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(alias);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tpx.urlshortener.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectCacheTest {
+
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    private RedirectCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RedirectCache(hotKeyTracker, 100);
+    }
+
+    @Test
+    void put_WithCurrentStamp_ShouldCache() {
+        // Given
+        long stamp = cache.stamp("abc123");
+
+        // When
+        cache.put("abc123", "https://example.com", stamp);
+
+        // Then
+        assertEquals("https://example.com", cache.get("abc123"));
+    }
+
+    @Test
+    void put_AfterInvalidationSinceStamp_ShouldNotCache() {
+        // Given
+        long stamp = cache.stamp("abc123");
+        cache.invalidate("abc123");
+
+        // When
+        cache.put("abc123", "https://example.com", stamp);
+
+        // Then
+        assertNull(cache.get("abc123"));
+    }
+
+    @Test
+    void put_WithStampTakenAfterInvalidation_ShouldCache() {
+        // Given
+        cache.invalidate("abc123");
+        long stamp = cache.stamp("abc123");
+
+        // When
+        cache.put("abc123", "https://example.com/new", stamp);
+
+        // Then
+        assertEquals("https://example.com/new", cache.get("abc123"));
+    }
+
+    @Test
+    void invalidate_AfterFill_ShouldRemoveEntry() {
+        // Given
+        cache.put("abc123", "https://example.com", cache.stamp("abc123"));
+
+        // When
+        cache.invalidate("abc123");
+
+        // Then
+        assertNull(cache.get("abc123"));
+    }
+}
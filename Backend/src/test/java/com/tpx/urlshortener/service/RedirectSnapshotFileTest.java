@@ -0,0 +1,60 @@
+package com.tpx.urlshortener.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeThenRead_ShouldRoundTripEntriesAndWatermark() throws Exception {
+        // Given
+        Path path = tempDir.resolve("hot.snapshot");
+        List<RedirectSnapshotFile.Entry> entries = List.of(
+                new RedirectSnapshotFile.Entry("alias1", bytes("https://example.com/1")),
+                new RedirectSnapshotFile.Entry("alias2", bytes("https://example.com/\u00fc")));
+
+        // When
+        RedirectSnapshotFile.write(path, 42L, 7L, entries);
+        RedirectSnapshotFile.Snapshot snapshot = RedirectSnapshotFile.read(path);
+
+        // Then
+        assertNotNull(snapshot);
+        assertEquals(42L, snapshot.getMaxId());
+        assertEquals(7L, snapshot.getRowCount());
+        assertEquals(2, snapshot.getEntries().size());
+        assertEquals("alias2", snapshot.getEntries().get(1).getAlias());
+        assertEquals("https://example.com/\u00fc", new String(snapshot.getEntries().get(1).getLocation(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void read_WithCorruptedFile_ShouldReturnNull() throws Exception {
+        // Given
+        Path path = tempDir.resolve("hot.snapshot");
+        RedirectSnapshotFile.write(path, 1L, 1L, List.of(new RedirectSnapshotFile.Entry("alias1", bytes("https://example.com"))));
+        byte[] content = Files.readAllBytes(path);
+        content[30] ^= 0x7F;
+        Files.write(path, content);
+
+        // When & Then
+        assertNull(RedirectSnapshotFile.read(path));
+    }
+
+    @Test
+    void read_WithMissingFile_ShouldReturnNull() throws Exception {
+        assertNull(RedirectSnapshotFile.read(tempDir.resolve("missing.snapshot")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
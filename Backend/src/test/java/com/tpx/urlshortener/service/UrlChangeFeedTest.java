@@ -0,0 +1,180 @@
+package com.tpx.urlshortener.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UrlChangeFeedTest {
+
+    private UrlChangeFeed feed = new UrlChangeFeed(4, 8, 1);
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void subscribe_ShouldReceiveChangesPublishedAfterwards() throws Exception {
+        // Given
+        RecordingListener listener = new RecordingListener();
+        feed.subscribe(null, listener);
+
+        // When
+        feed.publishCreated("alias1", "https://example.com/1");
+        feed.publishDeleted("alias1");
+
+        // Then
+        await(() -> listener.events.size() == 2);
+        assertEquals(List.of("1:created:alias1", "2:deleted:alias1"), listener.events);
+        assertEquals(2, feed.currentSequence());
+        assertTrue(feed.currentPosition().endsWith("-2"));
+    }
+
+    @Test
+    void subscribe_WithRetainedSequence_ShouldReplayMissedChanges() throws Exception {
+        // Given
+        feed.publishCreated("alias1", "https://example.com/1");
+        feed.publishCreated("alias2", "https://example.com/2");
+        feed.publishCreated("alias3", "https://example.com/3");
+        await(() -> feed.currentSequence() == 3);
+        String position = feed.currentPosition().replaceAll("-3$", "-1");
+
+        // When
+        RecordingListener listener = new RecordingListener();
+        feed.subscribe(position, listener);
+
+        // Then
+        await(() -> listener.events.size() == 2);
+        assertEquals(List.of("2:created:alias2", "3:created:alias3"), listener.events);
+    }
+
+    @Test
+    void subscribe_WithSequenceOlderThanHistory_ShouldRequestReset() throws Exception {
+        // Given
+        for (int i = 1; i <= 6; i++) {
+            feed.publishCreated("alias" + i, "https://example.com/" + i);
+        }
+        await(() -> feed.currentSequence() == 6);
+        String position = feed.currentPosition().replaceAll("-6$", "-0");
+
+        // When
+        RecordingListener listener = new RecordingListener();
+        feed.subscribe(position, listener);
+
+        // Then
+        await(() -> listener.events.size() == 1);
+        assertEquals(List.of("6:reset"), listener.events);
+    }
+
+    @Test
+    void subscribe_WithPositionFromBeforeRestart_ShouldRequestReset() throws Exception {
+        // Given
+        feed.publishCreated("alias1", "https://example.com/1");
+        feed.publishCreated("alias2", "https://example.com/2");
+        await(() -> feed.currentSequence() == 2);
+        String beforeRestart = feed.currentPosition();
+        feed.shutdown();
+
+        // A fresh instance reaches the same sequence with different changes
+        feed = new UrlChangeFeed(4, 8, 1);
+        feed.publishCreated("alias3", "https://example.com/3");
+        feed.publishCreated("alias4", "https://example.com/4");
+        await(() -> feed.currentSequence() == 2);
+
+        // When
+        RecordingListener listener = new RecordingListener();
+        feed.subscribe(beforeRestart, listener);
+
+        // Then
+        await(() -> listener.events.size() == 1);
+        assertEquals(List.of("2:reset"), listener.events);
+        assertNotEquals(beforeRestart, feed.currentPosition());
+    }
+
+    @Test
+    void subscribe_WithMalformedPosition_ShouldRequestReset() throws Exception {
+        // Given
+        feed.publishCreated("alias1", "https://example.com/1");
+        await(() -> feed.currentSequence() == 1);
+
+        // When
+        RecordingListener listener = new RecordingListener();
+        feed.subscribe("1", listener);
+
+        // Then
+        await(() -> listener.events.size() == 1);
+        assertEquals(List.of("1:reset"), listener.events);
+    }
+
+    @Test
+    void publish_WhenSubscriberCannotKeepUp_ShouldEvictIt() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener slow = new RecordingListener() {
+            @Override
+            public void onChange(String position, String type, String alias, String fullUrl) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        feed.subscribe(null, slow);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            feed.publishCreated("alias" + i, "https://example.com/" + i);
+        }
+
+        // Then
+        await(() -> slow.closed);
+        release.countDown();
+        assertEquals(1, feed.getEvictions());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static class RecordingListener implements UrlChangeFeed.Listener {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public void onChange(String position, String type, String alias, String fullUrl) {
+            events.add(sequenceOf(position) + ":" + type + ":" + alias);
+        }
+
+        @Override
+        public void onReset(String position) {
+            events.add(sequenceOf(position) + ":reset");
+        }
+
+        private static String sequenceOf(String position) {
+            return position.substring(position.indexOf('-') + 1);
+        }
+
+        @Override
+        public void onHeartbeat() {
+        }
+
+        @Override
+        public void onClosed() {
+            closed = true;
+        }
+    }
+}
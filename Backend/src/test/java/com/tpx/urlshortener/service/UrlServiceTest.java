@@ -1,24 +1,43 @@
 package com.tpx.urlshortener.service;
 
 import com.tpx.urlshortener.exception.AliasAlreadyExistsException;
+import com.tpx.urlshortener.exception.AliasPoolExhaustedException;
 import com.tpx.urlshortener.exception.InvalidInputException;
 import com.tpx.urlshortener.exception.NotFoundException;
+import com.tpx.urlshortener.exception.NotLeaderException;
 import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.replication.ReplicationManager;
 import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.repository.UrlView;
+import com.tpx.urlshortener.repository.UrlViewRepository;
+import com.tpx.urlshortener.search.UrlSearchIndex;
+import com.tpx.urlshortener.search.UrlSearchResult;
+import com.tpx.urlshortener.tiering.ColdEntry;
+import com.tpx.urlshortener.tiering.ColdStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
-import java.util.Arrays;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,9 +46,36 @@ class UrlServiceTest {
     @Mock
     private UrlMappingRepository repository;
 
+    @Mock
+    private UrlViewRepository urlViews;
+
     @Mock
     private AliasGenerator aliasGenerator;
 
+    @Mock
+    private RedirectCache redirectCache;
+
+    @Mock
+    private UrlChangeFeed changeFeed;
+
+    @Mock
+    private ColdStore coldStore;
+
+    @Mock
+    private AccessRecorder accessRecorder;
+
+    @Mock
+    private AliasIndex aliasIndex;
+
+    @Mock
+    private UrlSearchIndex searchIndex;
+
+    @Mock
+    private ReplicationManager replication;
+
+    @Mock
+    private AliasPool aliasPool;
+
     @InjectMocks
     private UrlService urlService;
 
@@ -38,14 +84,16 @@ class UrlServiceTest {
 
     @BeforeEach
     void setUp() {
-        // Setup common mocks
+        lenient().when(replication.inOrder(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(replication.exclusively(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
     }
 
     @Test
     void shorten_WithValidUrl_ShouldGenerateAlias() {
         // Given
-        when(repository.existsByAlias(anyString())).thenReturn(false);
-        when(aliasGenerator.generateUniqueAlias()).thenReturn("abc123");
+        when(aliasGenerator.nextCandidate()).thenReturn("abc123");
         when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> {
             UrlMapping mapping = invocation.getArgument(0);
             mapping.setId(1L);
@@ -60,13 +108,12 @@ class UrlServiceTest {
         assertEquals("abc123", result.getAlias());
         assertEquals(VALID_URL.trim(), result.getFullUrl());
         verify(repository).save(any(UrlMapping.class));
-        verify(aliasGenerator).generateUniqueAlias();
+        verify(aliasGenerator).nextCandidate();
     }
 
     @Test
     void shorten_WithCustomAlias_ShouldUseCustomAlias() {
         // Given
-        when(repository.existsByAlias(VALID_ALIAS)).thenReturn(false);
         when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> {
             UrlMapping mapping = invocation.getArgument(0);
             mapping.setId(1L);
@@ -81,7 +128,34 @@ class UrlServiceTest {
         assertEquals(VALID_ALIAS, result.getAlias());
         assertEquals(VALID_URL.trim(), result.getFullUrl());
         verify(repository).save(any(UrlMapping.class));
-        verify(aliasGenerator, never()).generateUniqueAlias();
+        verify(aliasGenerator, never()).nextCandidate();
+        verify(repository, never()).existsByAlias(anyString());
+        verify(changeFeed).publishCreated(VALID_ALIAS, VALID_URL);
+    }
+
+    @Test
+    void shorten_ShouldPublishChangeInsideTheAliasStripe() {
+        // Given
+        AtomicBoolean insideStripe = new AtomicBoolean();
+        doAnswer(invocation -> {
+            insideStripe.set(true);
+            try {
+                return invocation.<Supplier<?>>getArgument(1).get();
+            } finally {
+                insideStripe.set(false);
+            }
+        }).when(replication).inOrder(anyString(), any());
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            assertTrue(insideStripe.get(), "create published after the stripe was released");
+            return null;
+        }).when(changeFeed).publishCreated(VALID_ALIAS, VALID_URL);
+
+        // When
+        urlService.shorten(VALID_URL, VALID_ALIAS);
+
+        // Then
+        verify(changeFeed).publishCreated(VALID_ALIAS, VALID_URL);
     }
 
     @Test
@@ -95,85 +169,606 @@ class UrlServiceTest {
     @Test
     void shorten_WithDuplicateAlias_ShouldThrowAliasAlreadyExistsException() {
         // Given
-        when(repository.existsByAlias(VALID_ALIAS)).thenReturn(true);
+        when(repository.save(any(UrlMapping.class))).thenThrow(uniqueViolation());
 
         // When & Then
         assertThrows(AliasAlreadyExistsException.class, () -> urlService.shorten(VALID_URL, VALID_ALIAS));
+        verify(repository, times(1)).save(any(UrlMapping.class));
+    }
+
+    @Test
+    void shorten_WithGeneratedAliasCollision_ShouldRetryWithNewCandidate() {
+        // Given
+        when(aliasGenerator.nextCandidate()).thenReturn("taken1", "free12");
+        when(repository.save(any(UrlMapping.class)))
+                .thenThrow(uniqueViolation())
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UrlMapping result = urlService.shorten(VALID_URL, null);
+
+        // Then
+        assertEquals("free12", result.getAlias());
+        verify(repository, times(2)).save(any(UrlMapping.class));
+    }
+
+    @Test
+    void shorten_WithPooledAlias_ShouldUseItWithoutGenerating() {
+        // Given
+        when(aliasPool.poll()).thenReturn("pooled1");
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UrlMapping result = urlService.shorten(VALID_URL, null);
+
+        // Then
+        assertEquals("pooled1", result.getAlias());
+        verify(aliasGenerator, never()).nextCandidate();
+    }
+
+    @Test
+    void shorten_WhenPoolExhaustedUnderFailPolicy_ShouldPropagate() {
+        // Given
+        when(aliasPool.poll()).thenThrow(new AliasPoolExhaustedException());
+
+        // When & Then
+        assertThrows(AliasPoolExhaustedException.class, () -> urlService.shorten(VALID_URL, null));
         verify(repository, never()).save(any());
     }
 
     @Test
-    void shorten_WithInvalidAliasPattern_ShouldThrowInvalidInputException() {
+    void shorten_WithOtherIntegrityViolation_ShouldPropagate() {
         // Given
-        when(repository.existsByAlias(anyString())).thenReturn(false);
+        when(repository.save(any(UrlMapping.class)))
+                .thenThrow(new DataIntegrityViolationException("other", new SQLException("other", "23502")));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> urlService.shorten(VALID_URL, VALID_ALIAS));
+    }
 
+    @Test
+    void shorten_WithTooLongUrl_ShouldThrowInvalidInputException() {
+        // When & Then
+        String longUrl = "https://example.com/" + "a".repeat(2048);
+        assertThrows(InvalidInputException.class, () -> urlService.shorten(longUrl, null));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shorten_WithInvalidAliasPattern_ShouldThrowInvalidInputException() {
         // When & Then
         assertThrows(InvalidInputException.class, () -> urlService.shorten(VALID_URL, "ab")); // too short
         assertThrows(InvalidInputException.class, () -> urlService.shorten(VALID_URL, "a@b")); // invalid char
     }
 
     @Test
-    void resolve_WithValidAlias_ShouldReturnMapping() {
+    void resolve_WithValidAlias_ShouldReturnProjectionWithoutLoadingEntity() {
         // Given
-        UrlMapping mapping = new UrlMapping(VALID_ALIAS, VALID_URL);
-        mapping.setId(1L);
-        when(repository.findByAlias(VALID_ALIAS)).thenReturn(Optional.of(mapping));
+        when(urlViews.findFullUrl(VALID_ALIAS)).thenReturn(VALID_URL);
 
         // When
-        UrlMapping result = urlService.resolve(VALID_ALIAS);
+        UrlView result = urlService.resolve(VALID_ALIAS);
 
         // Then
         assertNotNull(result);
-        assertEquals(VALID_ALIAS, result.getAlias());
-        assertEquals(VALID_URL, result.getFullUrl());
+        assertEquals(VALID_ALIAS, result.alias());
+        assertEquals(VALID_URL, result.fullUrl());
+        verify(repository, never()).findByAlias(anyString());
+        verify(accessRecorder).record(VALID_ALIAS);
     }
 
     @Test
     void resolve_WithNonExistentAlias_ShouldThrowNotFoundException() {
+        // When & Then
+        assertThrows(NotFoundException.class, () -> urlService.resolve(VALID_ALIAS));
+        verify(urlViews).findFullUrl(VALID_ALIAS);
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void resolveLocation_WithCachedAlias_ShouldNotQueryRepository() {
         // Given
-        when(repository.findByAlias(VALID_ALIAS)).thenReturn(Optional.empty());
+        when(redirectCache.get(VALID_ALIAS)).thenReturn(VALID_URL);
+
+        // When
+        String location = urlService.resolveLocation(VALID_ALIAS);
+
+        // Then
+        assertEquals(VALID_URL, location);
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void resolveLocation_WithUncachedAlias_ShouldLoadProjectionAndCache() {
+        // Given
+        when(urlViews.findFullUrl(VALID_ALIAS)).thenReturn(VALID_URL);
+
+        // When
+        String location = urlService.resolveLocation(VALID_ALIAS);
 
+        // Then
+        assertEquals(VALID_URL, location);
+        verify(redirectCache).put(VALID_ALIAS, VALID_URL, 0L);
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void resolveLocation_WhenDeletedDuringLookup_ShouldNotCacheStaleLocation() {
+        // Given
+        RedirectCache realCache = new RedirectCache(mock(HotKeyTracker.class), 100);
+        UrlService service = new UrlService(repository, urlViews, aliasGenerator, realCache, changeFeed, coldStore,
+                accessRecorder, aliasIndex, searchIndex, replication, aliasPool);
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of(1L));
+        when(urlViews.findFullUrl(VALID_ALIAS)).thenAnswer(invocation -> {
+            // The delete commits and invalidates after the row was read, before the cache fill
+            service.delete(VALID_ALIAS);
+            return VALID_URL;
+        });
+
+        // When
+        String location = service.resolveLocation(VALID_ALIAS);
+
+        // Then
+        assertEquals(VALID_URL, location);
+        assertNull(realCache.get(VALID_ALIAS));
+    }
+
+    @Test
+    void resolveLocation_WithNonExistentAlias_ShouldThrowNotFoundException() {
         // When & Then
-        assertThrows(NotFoundException.class, () -> urlService.resolve(VALID_ALIAS));
+        assertThrows(NotFoundException.class, () -> urlService.resolveLocation(VALID_ALIAS));
+        verify(redirectCache, never()).put(anyString(), anyString(), anyLong());
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void resolveLocation_WhenPromotedConcurrently_ShouldReadItBackFromH2() {
+        // Given
+        when(urlViews.findFullUrl(VALID_ALIAS)).thenReturn(null).thenReturn(VALID_URL);
+        when(coldStore.hasTombstone(VALID_ALIAS)).thenReturn(true);
+
+        // When
+        String location = urlService.resolveLocation(VALID_ALIAS);
+
+        // Then
+        assertEquals(VALID_URL, location);
+        verify(repository, never()).save(any(UrlMapping.class));
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void resolveCachedResponse_WithCachedAlias_ShouldRecordAccess() {
+        // Given
+        byte[] response = new byte[]{1, 2, 3};
+        when(redirectCache.getResponse(eq(VALID_ALIAS), any())).thenReturn(response);
+
+        // When
+        byte[] result = urlService.resolveCachedResponse(VALID_ALIAS, location -> location);
+
+        // Then
+        assertSame(response, result);
+        verify(accessRecorder).record(VALID_ALIAS);
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void resolveCachedResponse_WithUncachedAlias_ShouldReturnNullWithoutLoading() {
+        // When
+        byte[] result = urlService.resolveCachedResponse(VALID_ALIAS, location -> location);
+
+        // Then
+        assertNull(result);
+        verify(repository, never()).findByAlias(anyString());
+        verify(accessRecorder, never()).record(anyString());
     }
 
     @Test
     void delete_WithValidAlias_ShouldDelete() {
         // Given
-        when(repository.existsByAlias(VALID_ALIAS)).thenReturn(true);
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of(7L));
 
         // When
         urlService.delete(VALID_ALIAS);
 
         // Then
         verify(repository).deleteByAlias(VALID_ALIAS);
+        verify(redirectCache).invalidate(VALID_ALIAS);
+        verify(changeFeed).publishDeleted(VALID_ALIAS);
+        verify(aliasIndex).remove(VALID_ALIAS);
+        verify(searchIndex).remove(7L);
     }
 
     @Test
     void delete_WithNonExistentAlias_ShouldThrowNotFoundException() {
         // Given
-        when(repository.existsByAlias(VALID_ALIAS)).thenReturn(false);
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of());
 
         // When & Then
         assertThrows(NotFoundException.class, () -> urlService.delete(VALID_ALIAS));
-        verify(repository, never()).deleteByAlias(anyString());
+        verify(repository, never()).existsByAlias(anyString());
+        verify(changeFeed, never()).publishDeleted(anyString());
     }
 
     @Test
     void listAll_ShouldReturnAllMappings() {
         // Given
-        UrlMapping mapping1 = new UrlMapping("alias1", "https://example.com/1");
-        mapping1.setId(1L);
-        UrlMapping mapping2 = new UrlMapping("alias2", "https://example.com/2");
-        mapping2.setId(2L);
-        when(repository.findAll()).thenReturn(Arrays.asList(mapping1, mapping2));
+        when(urlViews.findAll()).thenReturn(new ArrayList<>(List.of(new UrlView("alias1", "https://example.com/1"),
+                new UrlView("alias2", "https://example.com/2"))));
 
         // When
-        List<UrlMapping> result = urlService.listAll();
+        List<UrlView> result = urlService.listAll();
 
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(repository).findAll();
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void shorten_WithAliasInColdTier_ShouldThrowAliasAlreadyExistsException() {
+        // Given
+        when(coldStore.contains(VALID_ALIAS)).thenReturn(true);
+
+        // When & Then
+        assertThrows(AliasAlreadyExistsException.class, () -> urlService.shorten(VALID_URL, VALID_ALIAS));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void resolveLocation_WithColdAlias_ShouldPromoteItBackToH2() throws Exception {
+        // Given
+        when(coldStore.get(VALID_ALIAS)).thenReturn(new ColdEntry(VALID_ALIAS, VALID_URL, 1_000L));
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        String location = urlService.resolveLocation(VALID_ALIAS);
+
+        // Then
+        assertEquals(VALID_URL, location);
+        verify(repository).save(argThat(m -> VALID_ALIAS.equals(m.getAlias())
+                && m.getCreatedAt().toEpochMilli() == 1_000L && m.getLastAccessedAt() != null));
+        verify(coldStore).remove(VALID_ALIAS);
+        verify(redirectCache).put(VALID_ALIAS, VALID_URL, 0L);
+        verify(accessRecorder).record(VALID_ALIAS);
+        // Search covers the hot tier only, so the promoted mapping becomes searchable again
+        verify(searchIndex).add(argThat(m -> VALID_ALIAS.equals(m.getAlias())));
+        verify(repository, never()).findByAlias(anyString());
+    }
+
+    @Test
+    void delete_WithColdOnlyAlias_ShouldTombstoneIt() throws Exception {
+        // Given
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of());
+        when(coldStore.remove(VALID_ALIAS)).thenReturn(true);
+
+        // When
+        urlService.delete(VALID_ALIAS);
+
+        // Then
+        verify(redirectCache).invalidate(VALID_ALIAS);
+        verify(changeFeed).publishDeleted(VALID_ALIAS);
+    }
+
+    @Test
+    void deleteAll_ShouldTombstoneHotRowsAndHideColdCopies() throws Exception {
+        // Given
+        List<String> aliases = List.of("hot-alias", "cold-alias", "missing");
+        when(repository.findByAliasIn(aliases)).thenReturn(List.of(mappingWithId(7L, "hot-alias", VALID_URL)));
+        when(coldStore.removeAll(Set.of("hot-alias", "cold-alias", "missing"))).thenReturn(List.of("cold-alias"));
+
+        // When
+        int deleted = urlService.deleteAll(aliases);
+
+        // Then
+        assertEquals(2, deleted);
+        verify(repository).tombstoneByIdIn(eq(List.of(7L)), any());
+        verify(repository, never()).deleteByAlias(anyString());
+        verify(searchIndex).remove(7L);
+        for (String alias : List.of("hot-alias", "cold-alias")) {
+            verify(redirectCache).invalidate(alias);
+            verify(aliasIndex).remove(alias);
+            verify(changeFeed).publishDeleted(alias);
+            verify(replication).publishDeleted(alias);
+        }
+        verify(replication, never()).publishDeleted("missing");
+    }
+
+    @Test
+    void deleteAll_OnFollower_ShouldNotTombstone() {
+        // Given
+        doThrow(new NotLeaderException("http://localhost:8081")).when(replication).checkWritable();
+
+        // When & Then
+        assertThrows(NotLeaderException.class, () -> urlService.deleteAll(List.of(VALID_ALIAS)));
+        verify(repository, never()).tombstoneByIdIn(any(), any());
+    }
+
+    @Test
+    void deleteCreatedBefore_ShouldTombstoneOldRowsInBothTiers() throws Exception {
+        // Given
+        Instant cutoff = Instant.ofEpochMilli(10_000L);
+        when(repository.findByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(eq(cutoff), eq(0L), any()))
+                .thenReturn(List.of(mappingWithId(3L, "old-hot", VALID_URL)));
+        doAnswer(invocation -> {
+            Consumer<ColdEntry> action = invocation.getArgument(0);
+            action.accept(new ColdEntry("old-cold", "https://example.com/old", 5_000L));
+            action.accept(new ColdEntry("new-cold", "https://example.com/new", 20_000L));
+            return null;
+        }).when(coldStore).forEachLive(any());
+        when(coldStore.removeAll(Set.of("old-hot"))).thenReturn(List.of());
+        when(coldStore.removeAll(Set.of("old-cold"))).thenReturn(List.of("old-cold"));
+
+        // When
+        int deleted = urlService.deleteCreatedBefore(cutoff);
+
+        // Then
+        assertEquals(2, deleted);
+        verify(repository).tombstoneByIdIn(eq(List.of(3L)), any());
+        verify(replication).publishDeleted("old-hot");
+        verify(replication).publishDeleted("old-cold");
+        verify(replication, never()).publishDeleted("new-cold");
+    }
+
+    @Test
+    void shorten_OverTombstonedAlias_ShouldPurgeItAndRetry() {
+        // Given
+        when(repository.save(any(UrlMapping.class)))
+                .thenThrow(uniqueViolation())
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.purgeDeletedAlias(VALID_ALIAS)).thenReturn(1);
+
+        // When
+        UrlMapping result = urlService.shorten(VALID_URL, VALID_ALIAS);
+
+        // Then
+        assertEquals(VALID_ALIAS, result.getAlias());
+        verify(repository, times(2)).save(any(UrlMapping.class));
+    }
+
+    @Test
+    void listAll_ShouldIncludeColdMappingsNotInH2() {
+        // Given
+        when(urlViews.findAll()).thenReturn(new ArrayList<>(List.of(new UrlView("alias1", "https://example.com/1"))));
+        doAnswer(invocation -> {
+            Consumer<ColdEntry> action = invocation.getArgument(0);
+            action.accept(new ColdEntry("alias1", "https://example.com/stale", 0L));
+            action.accept(new ColdEntry("alias2", "https://example.com/2", 0L));
+            return null;
+        }).when(coldStore).forEachLive(any());
+
+        // When
+        List<UrlView> result = urlService.listAll();
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals("https://example.com/1", result.get(0).fullUrl());
+        assertEquals("alias2", result.get(1).alias());
+    }
+
+    @Test
+    void shorten_WithReservedAlias_ShouldThrowInvalidInputException() {
+        assertThrows(InvalidInputException.class, () -> urlService.shorten(VALID_URL, "aliases"));
+        assertThrows(InvalidInputException.class, () -> urlService.shorten(VALID_URL, "URLS"));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shorten_ShouldAddAliasToIndex() {
+        // Given
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UrlMapping saved = urlService.shorten(VALID_URL, VALID_ALIAS);
+
+        // Then
+        verify(aliasIndex).add(VALID_ALIAS);
+        verify(searchIndex).add(saved);
+    }
+
+    @Test
+    void isAliasAvailable_ShouldAnswerFromIndexOnceLoaded() {
+        // Given
+        when(aliasIndex.isLoaded()).thenReturn(true);
+        when(aliasIndex.contains(VALID_ALIAS)).thenReturn(true);
+
+        // When & Then
+        assertFalse(urlService.isAliasAvailable(VALID_ALIAS));
+        assertTrue(urlService.isAliasAvailable("another-alias"));
+        assertFalse(urlService.isAliasAvailable("admin"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void suggestAliases_ShouldSkipTakenVariants() {
+        // Given
+        when(aliasIndex.contains(VALID_ALIAS + "-2")).thenReturn(true);
+
+        // When
+        List<String> suggestions = urlService.suggestAliases(VALID_ALIAS, 3);
+
+        // Then
+        assertEquals(List.of(VALID_ALIAS + "-3", VALID_ALIAS + "-4", VALID_ALIAS + "-5"), suggestions);
+    }
+
+    @Test
+    void search_ShouldVerifyCandidatesAgainstStoredUrls() {
+        // Given
+        when(searchIndex.isLoaded()).thenReturn(true);
+        when(searchIndex.candidates("example.com", 0, 64)).thenReturn(new long[]{1, 2, 3});
+        when(repository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                mappingWithId(1L, "alias1", "https://www.Example.com/docs"),
+                // Has every trigram of the query, but not the query itself
+                mappingWithId(3L, "alias3", "https://example.net/com.x")));
+
+        // When
+        UrlSearchResult result = urlService.search("https://example.com", null, 10);
+
+        // Then
+        assertEquals(List.of("alias1"), result.getMappings().stream().map(UrlMapping::getAlias).toList());
+        assertNull(result.getNextCursor());
+        verify(searchIndex).remove(2L);
+    }
+
+    @Test
+    void search_WithFullPage_ShouldReturnCursorOfLastMatch() {
+        // Given
+        when(searchIndex.isLoaded()).thenReturn(true);
+        when(searchIndex.candidates("example", 5, 64)).thenReturn(new long[]{6, 7});
+        when(repository.findAllById(List.of(6L, 7L))).thenReturn(List.of(
+                mappingWithId(6L, "alias6", "https://example.com/6"),
+                mappingWithId(7L, "alias7", "https://example.com/7")));
+
+        // When
+        UrlSearchResult result = urlService.search("example", 5L, 1);
+
+        // Then
+        assertEquals(1, result.getMappings().size());
+        assertEquals(6L, result.getNextCursor());
+    }
+
+    @Test
+    void search_BeforeIndexIsLoaded_ShouldScanWithEscapedPattern() {
+        // Given
+        when(searchIndex.isLoaded()).thenReturn(false);
+        when(repository.findByFullUrlLikeAfter(eq("%utm\\_campaign%"), eq(0L), any()))
+                .thenReturn(List.of(mappingWithId(1L, "alias1", "https://example.com/?utm_campaign=x")));
+
+        // When
+        UrlSearchResult result = urlService.search("UTM_campaign", null, 10);
+
+        // Then
+        assertEquals(1, result.getMappings().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldThrowInvalidInputException() {
+        assertThrows(InvalidInputException.class, () -> urlService.search("https://ab", null, 10));
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void shorten_OnFollower_ShouldThrowNotLeaderException() {
+        // Given
+        doThrow(new NotLeaderException("http://localhost:8081")).when(replication).checkWritable();
+
+        // When & Then
+        assertThrows(NotLeaderException.class, () -> urlService.shorten(VALID_URL, VALID_ALIAS));
+        verify(repository, never()).save(any(UrlMapping.class));
+    }
+
+    @Test
+    void shorten_ShouldPublishCreatedMapping() {
+        // Given
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        UrlMapping result = urlService.shorten(VALID_URL, VALID_ALIAS);
+
+        // Then
+        verify(replication).publishCreated(result);
+    }
+
+    @Test
+    void delete_ShouldPublishDeletedAlias() {
+        // Given
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of(7L));
+
+        // When
+        urlService.delete(VALID_ALIAS);
+
+        // Then
+        verify(replication).publishDeleted(VALID_ALIAS);
+    }
+
+    @Test
+    void delete_WithNonExistentAlias_ShouldNotPublish() {
+        // Given
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of());
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> urlService.delete(VALID_ALIAS));
+        verify(replication, never()).publishDeleted(anyString());
+    }
+
+    @Test
+    void applyCreated_ShouldStoreMappingWithLeaderTimestamp() {
+        // Given
+        when(repository.findByAlias(VALID_ALIAS)).thenReturn(Optional.empty());
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        urlService.applyCreated(VALID_ALIAS, VALID_URL, 1_700_000_000_000L);
+
+        // Then
+        verify(repository).save(argThat(mapping -> VALID_ALIAS.equals(mapping.getAlias())
+                && mapping.getCreatedAt().toEpochMilli() == 1_700_000_000_000L));
+        verify(aliasIndex).add(VALID_ALIAS);
+        verify(changeFeed).publishCreated(VALID_ALIAS, VALID_URL);
+        verify(replication, never()).publishCreated(any());
+    }
+
+    @Test
+    void applyCreated_WithSameMappingAlreadyStored_ShouldDoNothing() {
+        // Given
+        when(repository.findByAlias(VALID_ALIAS)).thenReturn(Optional.of(new UrlMapping(VALID_ALIAS, VALID_URL)));
+
+        // When
+        urlService.applyCreated(VALID_ALIAS, VALID_URL, 1_700_000_000_000L);
+
+        // Then
+        verify(repository, never()).save(any(UrlMapping.class));
+        verify(repository, never()).deleteByAlias(anyString());
+    }
+
+    @Test
+    void applyCreated_WithDifferentUrlStored_ShouldReplaceIt() {
+        // Given
+        when(repository.findByAlias(VALID_ALIAS))
+                .thenReturn(Optional.of(new UrlMapping(VALID_ALIAS, "https://example.com/old")));
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of(3L));
+        when(repository.save(any(UrlMapping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        urlService.applyCreated(VALID_ALIAS, VALID_URL, 1_700_000_000_000L);
+
+        // Then
+        verify(searchIndex).remove(3L);
+        verify(repository).save(argThat(mapping -> VALID_URL.equals(mapping.getFullUrl())));
+    }
+
+    @Test
+    void applyDeleted_WithUnknownAlias_ShouldBeIgnored() {
+        // Given
+        when(repository.deleteByAlias(VALID_ALIAS)).thenReturn(List.of());
+
+        // When & Then
+        assertDoesNotThrow(() -> urlService.applyDeleted(VALID_ALIAS));
+        verify(changeFeed, never()).publishDeleted(anyString());
+    }
+
+    @Test
+    void retainOnly_ShouldRemoveAliasesMissingFromSnapshot() {
+        // Given
+        when(repository.findAllAliases()).thenReturn(List.of("keep-me", "drop-me"));
+        when(repository.deleteByAlias("drop-me")).thenReturn(List.of(9L));
+
+        // When
+        urlService.retainOnly(Set.of("keep-me"));
+
+        // Then
+        verify(repository).deleteByAlias("drop-me");
+        verify(repository, never()).deleteByAlias("keep-me");
+    }
+
+    private static UrlMapping mappingWithId(Long id, String alias, String fullUrl) {
+        UrlMapping mapping = new UrlMapping(alias, fullUrl);
+        mapping.setId(id);
+        return mapping;
+    }
+
+    private static DataIntegrityViolationException uniqueViolation() {
+        return new DataIntegrityViolationException("duplicate alias",
+                new SQLException("Unique index or primary key violation", "23505"));
     }
 }
@@ -0,0 +1,149 @@
+package com.tpx.urlshortener.tiering;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColdStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ColdStore store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void get_ShouldPreferNewestSegment() throws Exception {
+        // Given
+        store = open();
+        store.addSegment(List.of(entry("alias1", "https://example.com/old"), entry("alias2", "https://example.com/2")));
+        store.addSegment(List.of(entry("alias1", "https://example.com/new")));
+
+        // When & Then
+        assertEquals("https://example.com/new", store.get("alias1").getFullUrl());
+        assertEquals("https://example.com/2", store.get("alias2").getFullUrl());
+        assertNull(store.get("alias3"));
+    }
+
+    @Test
+    void remove_ShouldHideAliasAndSurviveReopen() throws Exception {
+        // Given
+        store = open();
+        store.addSegment(List.of(entry("alias1", "https://example.com/1"), entry("alias2", "https://example.com/2")));
+
+        // When
+        assertTrue(store.remove("alias1"));
+        assertFalse(store.remove("alias1"));
+        store.close();
+        store = open();
+
+        // Then
+        assertNull(store.get("alias1"));
+        assertFalse(store.contains("alias1"));
+        assertTrue(store.contains("alias2"));
+    }
+
+    @Test
+    void removeAll_ShouldHideOnlyLiveAliasesAndReturnThem() throws Exception {
+        // Given
+        store = open();
+        store.addSegment(List.of(entry("alias1", "https://example.com/1"), entry("alias2", "https://example.com/2"),
+                entry("alias3", "https://example.com/3")));
+
+        // When
+        List<String> removed = store.removeAll(List.of("alias1", "alias3", "missing"));
+
+        // Then
+        assertEquals(List.of("alias1", "alias3"), removed);
+        assertNull(store.get("alias1"));
+        assertNull(store.get("alias3"));
+        assertNotNull(store.get("alias2"));
+        assertTrue(store.removeAll(List.of("alias1")).isEmpty());
+    }
+
+    @Test
+    void tombstone_ShouldNotHideCopiesInNewerSegments() throws Exception {
+        // Given
+        store = open();
+        long first = store.addSegment(List.of(entry("alias1", "https://example.com/1")));
+        store.tombstone(List.of("alias1"), first);
+
+        // When
+        store.addSegment(List.of(entry("alias1", "https://example.com/again")));
+
+        // Then
+        assertEquals("https://example.com/again", store.get("alias1").getFullUrl());
+    }
+
+    @Test
+    void compact_ShouldMergeSegmentsAndDropDeadEntries() throws Exception {
+        // Given
+        store = open();
+        store.addSegment(List.of(entry("alias1", "https://example.com/1"), entry("alias2", "https://example.com/2")));
+        store.addSegment(List.of(entry("alias2", "https://example.com/2b"), entry("alias3", "https://example.com/3")));
+        store.remove("alias3");
+
+        // When
+        store.compact();
+
+        // Then
+        assertEquals(1, store.getSegmentCount());
+        assertEquals(0, store.getTombstoneCount());
+        List<String> live = new ArrayList<>();
+        store.forEachLive(entry -> live.add(entry.getAlias() + "=" + entry.getFullUrl()));
+        assertEquals(List.of("alias1=https://example.com/1", "alias2=https://example.com/2b"), live);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.filter(p -> p.getFileName().toString().endsWith(".seg")).count());
+        }
+
+        store.close();
+        store = open();
+        assertEquals("https://example.com/2b", store.get("alias2").getFullUrl());
+        assertNull(store.get("alias3"));
+    }
+
+    @Test
+    void forEachLive_ShouldApplyChangesMadeAfterTheListingWasBuilt() throws Exception {
+        // Given
+        store = open();
+        store.addSegment(List.of(entry("alias1", "https://example.com/1"), entry("alias2", "https://example.com/2")));
+        assertEquals(List.of("alias1", "alias2"), liveAliases());
+
+        // When
+        store.remove("alias1");
+        store.addSegment(List.of(entry("alias3", "https://example.com/3")));
+
+        // Then
+        assertEquals(List.of("alias2", "alias3"), liveAliases());
+        store.remove("alias3");
+        assertEquals(List.of("alias2"), liveAliases());
+    }
+
+    private List<String> liveAliases() {
+        List<String> aliases = new ArrayList<>();
+        store.forEachLive(entry -> aliases.add(entry.getAlias()));
+        return aliases;
+    }
+
+    private ColdStore open() {
+        return new ColdStore(tempDir.toString(), 256, 0.01);
+    }
+
+    private static ColdEntry entry(String alias, String fullUrl) {
+        return new ColdEntry(alias, fullUrl, 0L);
+    }
+}
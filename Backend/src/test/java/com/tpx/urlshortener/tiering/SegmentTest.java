@@ -0,0 +1,125 @@
+package com.tpx.urlshortener.tiering;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeThenOpen_ShouldFindEveryEntryAcrossBlocks() throws Exception {
+        // Given
+        List<ColdEntry> entries = entries(2000);
+        Path path = tempDir.resolve("segment-1.seg");
+
+        // When
+        long written = Segment.write(path, entries.iterator(), entries.size(), 1024, 0.01);
+
+        // Then
+        assertEquals(2000, written);
+        try (Segment segment = Segment.open(1, path)) {
+            assertEquals(2000, segment.getEntryCount());
+            for (ColdEntry expected : entries) {
+                ColdEntry actual = segment.get(expected.getAlias());
+                assertNotNull(actual, expected.getAlias());
+                assertEquals(expected.getFullUrl(), actual.getFullUrl());
+                assertEquals(expected.getCreatedAtMillis(), actual.getCreatedAtMillis());
+            }
+            assertNull(segment.get("alias-00000-missing"));
+            assertNull(segment.get("aaa"));
+            assertNull(segment.get("zzz"));
+        }
+    }
+
+    @Test
+    void iterator_ShouldReturnEntriesInAliasOrder() throws Exception {
+        // Given
+        List<ColdEntry> entries = entries(500);
+        Path path = tempDir.resolve("segment-1.seg");
+        Segment.write(path, entries.iterator(), entries.size(), 512, 0.01);
+
+        // When
+        List<String> aliases = new ArrayList<>();
+        try (Segment segment = Segment.open(1, path)) {
+            for (Iterator<ColdEntry> it = segment.iterator(); it.hasNext(); ) {
+                aliases.add(it.next().getAlias());
+            }
+        }
+
+        // Then
+        assertEquals(500, aliases.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(entries.get(i).getAlias(), aliases.get(i));
+        }
+    }
+
+    @Test
+    void bloomFilter_ShouldRejectMostAbsentAliases() throws Exception {
+        // Given
+        List<ColdEntry> entries = entries(5000);
+        Path path = tempDir.resolve("segment-1.seg");
+        Segment.write(path, entries.iterator(), entries.size(), 4096, 0.01);
+
+        // When
+        int falsePositives = 0;
+        try (Segment segment = Segment.open(1, path)) {
+            for (int i = 0; i < 10_000; i++) {
+                if (segment.mightContain("absent-" + i)) {
+                    falsePositives++;
+                }
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void write_WithUnsortedEntries_ShouldFail() {
+        // Given
+        List<ColdEntry> entries = List.of(new ColdEntry("b", "https://example.com/b", 0),
+                new ColdEntry("a", "https://example.com/a", 0));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> Segment.write(tempDir.resolve("segment-1.seg"), entries.iterator(), 2, 1024, 0.01));
+    }
+
+    @Test
+    void open_WithCorruptedIndex_ShouldFail() throws Exception {
+        // Given
+        List<ColdEntry> entries = entries(100);
+        Path path = tempDir.resolve("segment-1.seg");
+        Segment.write(path, entries.iterator(), entries.size(), 1024, 0.01);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            long position = file.length() - 40;
+            file.seek(position);
+            int original = file.read();
+            file.seek(position);
+            file.write(original ^ 0xFF);
+        }
+
+        // When & Then
+        assertThrows(IOException.class, () -> Segment.open(1, path));
+    }
+
+    static List<ColdEntry> entries(int count) {
+        List<ColdEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new ColdEntry(String.format("alias-%05d", i),
+                    "https://example.com/articles/" + i + "?ref=\u00fc", 1_700_000_000_000L + i));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,75 @@
+package com.tpx.urlshortener.tiering;
+
+import com.tpx.urlshortener.model.UrlMapping;
+import com.tpx.urlshortener.repository.UrlMappingRepository;
+import com.tpx.urlshortener.search.TrigramIndex;
+import com.tpx.urlshortener.search.UrlSearchIndex;
+import com.tpx.urlshortener.service.AccessRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TieringJobTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UrlMappingRepository repository;
+
+    private ColdStore coldStore;
+    private UrlSearchIndex searchIndex;
+    private TieringJob job;
+
+    @BeforeEach
+    void setUp() {
+        coldStore = new ColdStore(tempDir.toString(), 256, 0.01);
+        searchIndex = new UrlSearchIndex(jdbcTemplate, true, 1, 1000, 50000);
+        job = new TieringJob(jdbcTemplate, coldStore, new AccessRecorder(repository), searchIndex, true, 30,
+                1000, 16, 100000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        coldStore.close();
+    }
+
+    @Test
+    void tierOnce_ShouldMoveIdleMappingsOutOfSearch() throws Exception {
+        // Given
+        UrlMapping idle = new UrlMapping("idle", "https://example.com/idle-page");
+        idle.setCreatedAt(Instant.now().minus(60, ChronoUnit.DAYS));
+        searchIndex.add(repository.saveAndFlush(idle));
+        UrlMapping fresh = repository.saveAndFlush(new UrlMapping("fresh", "https://example.com/fresh-page"));
+        searchIndex.add(fresh);
+        assertEquals(1, candidates("example.com/idle-page").length);
+
+        // When
+        int moved = job.tierOnce(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(1, moved);
+        assertEquals("https://example.com/idle-page", coldStore.get("idle").getFullUrl());
+        // Search covers the hot tier only
+        assertEquals(0, candidates("example.com/idle-page").length);
+        assertArrayEquals(new long[]{fresh.getId()}, candidates("example.com/fresh-page"));
+    }
+
+    private long[] candidates(String query) {
+        return searchIndex.candidates(TrigramIndex.normalize(query), 0, 10);
+    }
+}
@@ -1,5 +1,14 @@
 import { describe, it, expect, vi, beforeEach, afterEach } from 'vitest'
-import { shortenUrl, listUrls, deleteAlias } from '../client'
+import {
+  shortenUrl,
+  listUrls,
+  deleteAlias,
+  applyUrlChange,
+  getLastChangeSequence,
+  searchAliases,
+  searchUrls,
+  checkAliasAvailability
+} from '../client'
 import { ApiError } from '../../types'
 
 describe('API Client', () => {
@@ -204,5 +213,107 @@ describe('API Client', () => {
       await expect(deleteAlias('test')).resolves.toBeUndefined()
     })
   })
-})
 
+  describe('change feed', () => {
+    const items = [
+      { alias: 'test1', fullUrl: 'https://example.com/1', shortUrl: 'http://localhost:8080/test1' }
+    ]
+
+    it('should remember the change sequence returned with the list', async () => {
+      global.fetch = vi.fn().mockResolvedValue({
+        ok: true,
+        status: 200,
+        headers: new Headers({ 'X-Change-Sequence': 'k3x9-41' }),
+        json: async () => [],
+        text: async () => '[]'
+      })
+
+      await listUrls()
+
+      expect(getLastChangeSequence()).toBe('k3x9-41')
+    })
+
+    it('should append created aliases and replace existing ones', () => {
+      const created = applyUrlChange(items, {
+        sequence: 'k3x9-2',
+        type: 'created',
+        alias: 'test2',
+        fullUrl: 'https://example.com/2',
+        shortUrl: 'http://localhost:8080/test2'
+      })
+      expect(created.map((i) => i.alias)).toEqual(['test1', 'test2'])
+
+      const replaced = applyUrlChange(created, {
+        sequence: 'k3x9-3',
+        type: 'created',
+        alias: 'test1',
+        fullUrl: 'https://example.com/new',
+        shortUrl: 'http://localhost:8080/test1'
+      })
+      expect(replaced).toHaveLength(2)
+      expect(replaced[0].fullUrl).toBe('https://example.com/new')
+    })
+
+    it('should remove deleted aliases and ignore unknown ones', () => {
+      expect(applyUrlChange(items, { sequence: 'k3x9-4', type: 'deleted', alias: 'test1' })).toEqual([])
+      expect(applyUrlChange(items, { sequence: 'k3x9-5', type: 'deleted', alias: 'missing' })).toBe(items)
+    })
+  })
+
+  describe('aliases', () => {
+    it('should search aliases by prefix', async () => {
+      global.fetch = vi.fn().mockResolvedValue({
+        ok: true,
+        status: 200,
+        json: async () => ['summer-2024', 'summer-sale'],
+        text: async () => JSON.stringify(['summer-2024', 'summer-sale'])
+      })
+
+      const result = await searchAliases('summer-', 5)
+
+      expect(result).toEqual(['summer-2024', 'summer-sale'])
+      expect(global.fetch).toHaveBeenCalledWith(
+        expect.stringContaining('/aliases?prefix=summer-&limit=5'),
+        expect.objectContaining({ method: 'GET' })
+      )
+    })
+
+    it('should check alias availability', async () => {
+      const availability = { alias: 'my alias', available: false, suggestions: ['my-alias-2'] }
+      global.fetch = vi.fn().mockResolvedValue({
+        ok: true,
+        status: 200,
+        json: async () => availability,
+        text: async () => JSON.stringify(availability)
+      })
+
+      const result = await checkAliasAvailability('my alias')
+
+      expect(result).toEqual(availability)
+      expect(global.fetch).toHaveBeenCalledWith(
+        expect.stringContaining('/aliases/my%20alias/available'),
+        expect.any(Object)
+      )
+    })
+  })
+
+  describe('searchUrls', () => {
+    it('should pass the query, cursor and limit', async () => {
+      const page = { items: [], nextCursor: null }
+      global.fetch = vi.fn().mockResolvedValue({
+        ok: true,
+        status: 200,
+        json: async () => page,
+        text: async () => JSON.stringify(page)
+      })
+
+      const result = await searchUrls('utm_campaign=spring', 42, 20)
+
+      expect(result).toEqual(page)
+      expect(global.fetch).toHaveBeenCalledWith(
+        expect.stringContaining('/urls/search?q=utm_campaign%3Dspring&limit=20&cursor=42'),
+        expect.objectContaining({ method: 'GET' })
+      )
+    })
+  })
+})
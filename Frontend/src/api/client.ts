@@ -1,4 +1,15 @@
-import { ApiError, ShortenRequest, ShortenResponse, UrlItem } from '../types'
+import {
+  AliasAvailability,
+  ApiError,
+  ShortenRequest,
+  ShortenResponse,
+  UrlChangeEvent,
+  UrlItem,
+  UrlSearchPage
+} from '../types'
+
+// Last change-feed position the client has caught up to (from GET /urls or a feed event)
+let lastChangeSequence: string | null = null
 
 /**
  * Gets the API base URL based on environment.
@@ -23,7 +34,7 @@ function getApiBaseUrl(): string {
   return base
 }
 
-async function request<T>(path: string, init?: RequestInit): Promise<T> {
+async function request<T>(path: string, init?: RequestInit, onResponse?: (response: Response) => void): Promise<T> {
   const baseUrl = getApiBaseUrl()
   const url = `${baseUrl}${path}`
 
@@ -55,6 +66,8 @@ async function request<T>(path: string, init?: RequestInit): Promise<T> {
     throw new ApiError(message, response.status)
   }
 
+  onResponse?.(response)
+
   // Some endpoints return no content (204)
   if (response.status === 204) {
     return undefined as unknown as T
@@ -74,11 +87,88 @@ export async function shortenUrl(params: ShortenRequest): Promise<ShortenRespons
 }
 
 export async function listUrls(): Promise<UrlItem[]> {
-  return request<UrlItem[]>('/urls', { method: 'GET' })
+  return request<UrlItem[]>('/urls', { method: 'GET' }, (response) => {
+    const sequence = response.headers?.get('X-Change-Sequence')
+    if (sequence) {
+      lastChangeSequence = sequence
+    }
+  })
+}
+
+export async function searchUrls(q: string, cursor?: number | null, limit = 50): Promise<UrlSearchPage> {
+  const query = new URLSearchParams({ q, limit: String(limit) })
+  if (cursor != null) {
+    query.set('cursor', String(cursor))
+  }
+  return request<UrlSearchPage>(`/urls/search?${query}`, { method: 'GET' })
+}
+
+export function getLastChangeSequence(): string | null {
+  return lastChangeSequence
+}
+
+/**
+ * Applies one change-feed event to a list of URLs without refetching it.
+ * Creates are upserts and deletes are idempotent, so replayed events are harmless.
+ */
+export function applyUrlChange(items: UrlItem[], event: UrlChangeEvent): UrlItem[] {
+  if (event.type === 'created' && event.alias && event.fullUrl) {
+    const item: UrlItem = { alias: event.alias, fullUrl: event.fullUrl, shortUrl: event.shortUrl ?? '' }
+    const index = items.findIndex((i) => i.alias === event.alias)
+    if (index === -1) return [...items, item]
+    const next = items.slice()
+    next[index] = item
+    return next
+  }
+  if (event.type === 'deleted' && event.alias) {
+    return items.some((i) => i.alias === event.alias) ? items.filter((i) => i.alias !== event.alias) : items
+  }
+  return items
+}
+
+export interface UrlChangeHandlers {
+  onChange: (event: UrlChangeEvent) => void
+  // The server can no longer resume from our sequence: reload the list in full
+  onReset: () => void
+}
+
+/**
+ * Subscribes to GET /urls/changes, resuming from the sequence of the last listUrls() call.
+ * EventSource reconnects on its own and sends Last-Event-ID, so no events are lost in between.
+ * Returns an unsubscribe function.
+ */
+export function subscribeToUrlChanges(handlers: UrlChangeHandlers): () => void {
+  if (typeof EventSource === 'undefined') {
+    return () => {}
+  }
+  const since = lastChangeSequence !== null ? `?since=${encodeURIComponent(lastChangeSequence)}` : ''
+  const source = new EventSource(`${getApiBaseUrl()}/urls/changes${since}`)
+
+  const onEvent = (message: MessageEvent) => {
+    const event = JSON.parse(message.data) as UrlChangeEvent
+    lastChangeSequence = event.sequence
+    if (event.type === 'reset') {
+      handlers.onReset()
+    } else {
+      handlers.onChange(event)
+    }
+  }
+  source.addEventListener('created', onEvent)
+  source.addEventListener('deleted', onEvent)
+  source.addEventListener('reset', onEvent)
+
+  return () => source.close()
 }
 
 export async function deleteAlias(alias: string): Promise<void> {
   await request<void>(`/${encodeURIComponent(alias)}`, { method: 'DELETE' })
 }
 
+export async function searchAliases(prefix: string, limit = 20): Promise<string[]> {
+  const query = new URLSearchParams({ prefix, limit: String(limit) })
+  return request<string[]>(`/aliases?${query}`, { method: 'GET' })
+}
 
+export async function checkAliasAvailability(alias: string): Promise<AliasAvailability> {
+  return request<AliasAvailability>(`/aliases/${encodeURIComponent(alias)}/available`, { method: 'GET' })
+}
@@ -1,5 +1,5 @@
 import { useEffect, useState } from 'react'
-import { deleteAlias, listUrls } from '../api/client'
+import { applyUrlChange, deleteAlias, listUrls, subscribeToUrlChanges } from '../api/client'
 import { ApiError, UrlItem } from '../types'
 
 export default function UrlTable() {
@@ -23,7 +23,22 @@ export default function UrlTable() {
   }
 
   useEffect(() => {
-    load()
+    let cancelled = false
+    let unsubscribe = () => {}
+    // Load once, then keep the table current from the change feed instead of refetching
+    load().then(() => {
+      if (cancelled) return
+      unsubscribe = subscribeToUrlChanges({
+        onChange: (event) => setItems((prev) => applyUrlChange(prev, event)),
+        onReset: () => {
+          load()
+        }
+      })
+    })
+    return () => {
+      cancelled = true
+      unsubscribe()
+    }
   }, [])
 
   const onDelete = async (alias: string) => {
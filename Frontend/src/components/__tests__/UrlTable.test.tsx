@@ -1,14 +1,19 @@
 import { describe, it, expect, vi, beforeEach } from 'vitest'
-import { render, screen, waitFor } from '@testing-library/react'
+import { act, render, screen, waitFor } from '@testing-library/react'
 import userEvent from '@testing-library/user-event'
 import UrlTable from '../UrlTable'
 import * as client from '../../api/client'
 
-// Mock the API client
-vi.mock('../../api/client', () => ({
-  listUrls: vi.fn(),
-  deleteAlias: vi.fn()
-}))
+// Mock the API client (delta application stays real)
+vi.mock('../../api/client', async () => {
+  const actual = await vi.importActual<typeof import('../../api/client')>('../../api/client')
+  return {
+    listUrls: vi.fn(),
+    deleteAlias: vi.fn(),
+    subscribeToUrlChanges: vi.fn(() => () => {}),
+    applyUrlChange: actual.applyUrlChange
+  }
+})
 
 describe('UrlTable', () => {
   beforeEach(() => {
@@ -225,5 +230,36 @@ describe('UrlTable', () => {
       expect(link).toHaveAttribute('rel', 'noopener noreferrer')
     })
   })
-})
 
+  it('should apply change feed events without refetching', async () => {
+    vi.mocked(client.listUrls).mockResolvedValue([
+      { alias: 'test1', fullUrl: 'https://example.com/1', shortUrl: 'http://localhost:8080/test1' }
+    ])
+    let handlers: client.UrlChangeHandlers | undefined
+    vi.mocked(client.subscribeToUrlChanges).mockImplementation((h) => {
+      handlers = h
+      return () => {}
+    })
+
+    render(<UrlTable />)
+
+    await waitFor(() => {
+      expect(handlers).toBeDefined()
+    })
+
+    act(() => {
+      handlers!.onChange({
+        sequence: 'k3x9-2',
+        type: 'created',
+        alias: 'test2',
+        fullUrl: 'https://example.com/2',
+        shortUrl: 'http://localhost:8080/test2'
+      })
+      handlers!.onChange({ sequence: 'k3x9-3', type: 'deleted', alias: 'test1' })
+    })
+
+    expect(screen.getByText('test2')).toBeInTheDocument()
+    expect(screen.queryByText('test1')).not.toBeInTheDocument()
+    expect(client.listUrls).toHaveBeenCalledOnce()
+  })
+})
@@ -13,6 +13,28 @@ export interface UrlItem {
   shortUrl: string;
 }
 
+export interface UrlSearchPage {
+  items: UrlItem[];
+  nextCursor: number | null;
+}
+
+export interface AliasAvailability {
+  alias: string;
+  available: boolean;
+  suggestions: string[];
+}
+
+export type UrlChangeType = 'created' | 'deleted' | 'reset';
+
+export interface UrlChangeEvent {
+  // <epoch>-<sequence>; the epoch changes whenever the server restarts
+  sequence: string;
+  type: UrlChangeType;
+  alias?: string;
+  fullUrl?: string;
+  shortUrl?: string;
+}
+
 export class ApiError extends Error {
   public readonly status?: number;
   constructor(message: string, status?: number) {